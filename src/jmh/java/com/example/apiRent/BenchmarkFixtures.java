@@ -0,0 +1,128 @@
+package com.example.apiRent;
+
+import com.example.apiRent.dtos.contract.ContractResponse;
+import com.example.apiRent.dtos.owner.OwnerResponse;
+import com.example.apiRent.dtos.payment.PaymentResponse;
+import com.example.apiRent.dtos.property.PropertyResponse;
+import com.example.apiRent.dtos.tenant.TenantResponse;
+import com.example.apiRent.enums.EnumContract;
+import com.example.apiRent.enums.EnumPayment;
+import com.example.apiRent.enums.EnumProperty;
+import com.example.apiRent.enums.EnumUser;
+import com.example.apiRent.models.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Owner owner(int number) {
+        Owner owner = new Owner();
+        owner.setId(UUID.nameUUIDFromBytes(("owner-" + number).getBytes()));
+        owner.setName("Owner " + number);
+        owner.setEmail("owner" + number + "@test.com");
+        owner.setRole(EnumUser.LOCATOR);
+        return owner;
+    }
+
+    public static Tenant tenant(int number) {
+        Tenant tenant = new Tenant();
+        tenant.setId(UUID.nameUUIDFromBytes(("tenant-" + number).getBytes()));
+        tenant.setName("Tenant " + number);
+        tenant.setEmail("tenant" + number + "@test.com");
+        tenant.setRole(EnumUser.TENANT);
+        return tenant;
+    }
+
+    public static Property property(int number) {
+        Property property = new Property();
+        property.setId(UUID.nameUUIDFromBytes(("property-" + number).getBytes()));
+        property.setTitle("title " + number);
+        property.setDescription("description " + number);
+        property.setAddress("address " + number);
+        property.setPrice(BigDecimal.valueOf(1000 + number));
+        property.setStatus(EnumProperty.RENTED);
+        property.setOwner(owner(number));
+        return property;
+    }
+
+    public static Contract contract(int number) {
+        Contract contract = new Contract();
+        contract.setId(UUID.nameUUIDFromBytes(("contract-" + number).getBytes()));
+        contract.setStart_date(LocalDate.of(2025, 1, 1));
+        contract.setEnd_date(LocalDate.of(2026, 1, 1));
+        contract.setMonthly_value(BigDecimal.valueOf(1000 + number));
+        contract.setStatus(EnumContract.ACTIVE);
+        contract.setOwner(owner(number));
+        contract.setTenant(tenant(number));
+        contract.setProperty(property(number));
+        return contract;
+    }
+
+    public static List<Property> properties(int size) {
+        List<Property> properties = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            properties.add(property(i));
+        }
+        return properties;
+    }
+
+    public static List<Contract> contracts(int size) {
+        List<Contract> contracts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            contracts.add(contract(i));
+        }
+        return contracts;
+    }
+
+    public static List<Payment> payments(int size) {
+        Contract contract = contract(0);
+        List<Payment> payments = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Payment payment = new Payment();
+            payment.setId(UUID.nameUUIDFromBytes(("payment-" + i).getBytes()));
+            payment.setContract(contract);
+            payment.setAmount(contract.getMonthly_value());
+            payment.setDue_date(contract.getStart_date().plusMonths(i));
+            payment.setStatus(EnumPayment.PENDING);
+            payments.add(payment);
+        }
+        return payments;
+    }
+
+    public static ContractResponse contractResponse(int number) {
+        Contract contract = contract(number);
+        Property property = contract.getProperty();
+        return new ContractResponse(
+                contract.getId(),
+                contract.getStart_date(),
+                contract.getEnd_date(),
+                contract.getMonthly_value(),
+                contract.getStatus(),
+                new PropertyResponse(property.getId(), property.getTitle(), property.getDescription(), property.getAddress(), property.getPrice(), property.getStatus()),
+                new TenantResponse(contract.getTenant().getId(), contract.getTenant().getName(), contract.getTenant().getEmail(), EnumUser.TENANT),
+                new OwnerResponse(contract.getOwner().getId(), contract.getOwner().getName(), EnumUser.LOCATOR, contract.getOwner().getEmail())
+        );
+    }
+
+    public static List<PaymentResponse> paymentResponses(int size) {
+        ContractResponse contract = contractResponse(0);
+        List<PaymentResponse> payments = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            payments.add(new PaymentResponse(
+                    UUID.nameUUIDFromBytes(("payment-" + i).getBytes()),
+                    contract.start_date().plusMonths(i),
+                    null,
+                    contract.monthly_value(),
+                    contract
+            ));
+        }
+        return payments;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.apiRent.controllers;
+
+import com.example.apiRent.BenchmarkFixtures;
+import com.example.apiRent.dtos.contract.ContractResponse;
+import com.example.apiRent.dtos.owner.OwnerResponse;
+import com.example.apiRent.dtos.payment.PaymentResponse;
+import com.example.apiRent.dtos.property.PropertyResponse;
+import com.example.apiRent.dtos.tenant.TenantResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LinkBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private final PropertyController propertyController = new PropertyController(null, null);
+    private final OwnerController ownerController = new OwnerController(null, null);
+    private final TenantController tenantController = new TenantController(null);
+    private final ContractController contractController = new ContractController(null, null);
+    private final PaymentController paymentController = new PaymentController(null, null, null);
+
+    private final Link selfLink = Link.of("http://localhost/benchmark").withSelfRel();
+
+    private ContractResponse contract;
+    private List<PaymentResponse> payments;
+
+    @Setup
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/benchmark");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        contract = BenchmarkFixtures.contractResponse(1);
+        payments = BenchmarkFixtures.paymentResponses(size);
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public EntityModel<PropertyResponse> addLinksToProperty() {
+        return propertyController.addLinksToProperty(contract.property());
+    }
+
+    @Benchmark
+    public EntityModel<OwnerResponse> addLinksToOwner() {
+        return ownerController.addLinksToOwner(contract.owner());
+    }
+
+    @Benchmark
+    public EntityModel<TenantResponse> addLinksToTenant() {
+        return tenantController.addLinksToTenant(contract.tenant());
+    }
+
+    @Benchmark
+    public EntityModel<ContractResponse> addLinksToContracts() {
+        return contractController.addLinksToContracts(contract);
+    }
+
+    @Benchmark
+    public CollectionModel<EntityModel<PaymentResponse>> paymentCollection() {
+        return paymentController.toCollectionModel(payments, false, selfLink);
+    }
+
+    @Benchmark
+    public CollectionModel<EntityModel<PaymentResponse>> paymentCollectionCompact() {
+        return paymentController.toCollectionModel(payments, true, selfLink);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.apiRent.controllers;
+
+import com.example.apiRent.BenchmarkFixtures;
+import com.example.apiRent.dtos.payment.PaymentResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.HalConfiguration;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PaymentSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private CollectionModel<EntityModel<PaymentResponse>> payments;
+    private CollectionModel<EntityModel<PaymentResponse>> compactPayments;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new Jackson2HalModule());
+        mapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY, new HalConfiguration(), new DefaultListableBeanFactory()));
+        writer = mapper.writer();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/payments/contracts/benchmark");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        PaymentController controller = new PaymentController(null, null, null);
+        Link selfLink = Link.of("http://localhost/payments/contracts/benchmark").withSelfRel();
+        payments = controller.toCollectionModel(BenchmarkFixtures.paymentResponses(size), false, selfLink);
+        compactPayments = controller.toCollectionModel(BenchmarkFixtures.paymentResponses(size), true, selfLink);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public byte[] serializeHal() throws JsonProcessingException {
+        return writer.writeValueAsBytes(payments);
+    }
+
+    @Benchmark
+    public byte[] serializeHalCompact() throws JsonProcessingException {
+        return writer.writeValueAsBytes(compactPayments);
+    }
+}
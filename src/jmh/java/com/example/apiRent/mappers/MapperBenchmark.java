@@ -0,0 +1,60 @@
+package com.example.apiRent.mappers;
+
+import com.example.apiRent.BenchmarkFixtures;
+import com.example.apiRent.dtos.contract.ContractResponse;
+import com.example.apiRent.dtos.payment.PaymentResponse;
+import com.example.apiRent.dtos.property.PropertyResponse;
+import com.example.apiRent.models.Contract;
+import com.example.apiRent.models.Payment;
+import com.example.apiRent.models.Property;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private final PropertyMapper propertyMapper = Mappers.getMapper(PropertyMapper.class);
+    private final ContractMappper contractMappper = Mappers.getMapper(ContractMappper.class);
+    private final PaymentMapper paymentMapper = Mappers.getMapper(PaymentMapper.class);
+
+    private List<Property> properties;
+    private List<Contract> contracts;
+    private List<Payment> payments;
+    private Contract contract;
+
+    @Setup
+    public void setUp() {
+        properties = BenchmarkFixtures.properties(size);
+        contracts = BenchmarkFixtures.contracts(size);
+        payments = BenchmarkFixtures.payments(size);
+        contract = BenchmarkFixtures.contract(1);
+    }
+
+    @Benchmark
+    public List<PropertyResponse> propertyToResponseList() {
+        return propertyMapper.toResponseList(properties);
+    }
+
+    @Benchmark
+    public List<ContractResponse> contractToResponseList() {
+        return contractMappper.toResponseList(contracts);
+    }
+
+    @Benchmark
+    public List<PaymentResponse> paymentToResponseList() {
+        return paymentMapper.toResponseList(payments);
+    }
+
+    @Benchmark
+    public ContractResponse contractToResponse() {
+        return contractMappper.toResponse(contract);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.apiRent.repositories;
+
+import com.example.apiRent.ApiRentApplication;
+import com.example.apiRent.models.Contract;
+import com.example.apiRent.services.PaymentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Writes one contract's schedule through each path against the database configured in
+ * {@code application.properties}. Every invocation is rolled back, so the table does not grow between
+ * iterations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PaymentScheduleWriteBenchmark {
+
+    @Param({"12", "360"})
+    private int months;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private PaymentRepository paymentRepository;
+    private PaymentScheduleRepository paymentScheduleRepository;
+    private PaymentService paymentService;
+    private Contract contract;
+    private UUID ownerId;
+    private UUID tenantId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ApiRentApplication.class).web(WebApplicationType.NONE).run();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        paymentRepository = context.getBean(PaymentRepository.class);
+        paymentScheduleRepository = context.getBean(PaymentScheduleRepository.class);
+        paymentService = context.getBean(PaymentService.class);
+
+        String suffix = UUID.randomUUID().toString();
+        ownerId = jdbcTemplate.queryForObject("INSERT INTO users (name, email, role) VALUES ('Benchmark owner', ?, 'LOCATOR') RETURNING id",
+                UUID.class, "owner-" + suffix + "@benchmark.com");
+        jdbcTemplate.update("INSERT INTO owner (id) VALUES (?)", ownerId);
+        tenantId = jdbcTemplate.queryForObject("INSERT INTO users (name, email, role) VALUES ('Benchmark tenant', ?, 'TENANT') RETURNING id",
+                UUID.class, "tenant-" + suffix + "@benchmark.com");
+        jdbcTemplate.update("INSERT INTO tenant (id) VALUES (?)", tenantId);
+        UUID propertyId = jdbcTemplate.queryForObject("""
+                INSERT INTO property (title, description, address, price, status, owner_id)
+                VALUES ('benchmark', 'benchmark', 'benchmark', 1500, 'RENTED', ?) RETURNING id
+                """, UUID.class, ownerId);
+        LocalDate start = LocalDate.of(2025, 1, 31);
+        UUID contractId = jdbcTemplate.queryForObject("""
+                INSERT INTO contract (tenant_id, owner_id, property_id, status, start_date, end_date, monthly_value)
+                VALUES (?, ?, ?, 'ACTIVE', ?, ?, 1500) RETURNING id
+                """, UUID.class, tenantId, ownerId, propertyId, start, start.plusMonths(months - 1));
+
+        contract = transactionTemplate.execute(status -> context.getBean(ContractRepository.class).findById(contractId).orElseThrow());
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM contract WHERE id = ?", contract.getId());
+        jdbcTemplate.update("DELETE FROM property WHERE id = ?", contract.getProperty().getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", ownerId, tenantId);
+        context.close();
+    }
+
+    private <T> T rolledBack(Supplier<T> write) {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return write.get();
+        });
+    }
+
+    /**
+     * The path schedules took before: one entity per month through {@code saveAll}, flushed as one INSERT each.
+     */
+    @Benchmark
+    public Object saveAll() {
+        return rolledBack(() -> paymentRepository.saveAllAndFlush(paymentService.buildSchedule(contract)));
+    }
+
+    @Benchmark
+    public Object jdbcBatch() {
+        return rolledBack(() -> {
+            paymentScheduleRepository.insertPayments(paymentService.buildSchedule(contract));
+            return null;
+        });
+    }
+
+    @Benchmark
+    public int generateSeries() {
+        return rolledBack(() -> paymentScheduleRepository.insertSchedules(List.of(contract)));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.apiRent.services;
+
+import com.example.apiRent.ApiRentApplication;
+import com.example.apiRent.dtos.contract.ContractRequest;
+import com.example.apiRent.exceptions.ContractOverlapException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates contracts from {@link #THREADS} threads at once on {@code properties} properties against the
+ * database configured in {@code application.properties}, so every creation on a property queues on its row
+ * lock. {@code create} leases a period nobody holds yet and commits; {@code overlapping} asks for a period
+ * already leased and is rejected by the exclusion constraint. The contracts are removed on tear down.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(ContractCreationBenchmark.THREADS)
+public class ContractCreationBenchmark {
+
+    static final int THREADS = 16;
+    private static final LocalDate LEASED_START = LocalDate.of(2099, 1, 1);
+    private static final LocalDate FREE_START = LocalDate.of(2100, 1, 1);
+    private static final BigDecimal MONTHLY_VALUE = new BigDecimal("1500.00");
+
+    @Param({"1", "5", "100"})
+    private int properties;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private ContractService contractService;
+    private UUID ownerId;
+    private UUID tenantId;
+    private UUID[] propertyIds;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ApiRentApplication.class).web(WebApplicationType.NONE).run();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        contractService = context.getBean(ContractService.class);
+
+        String suffix = UUID.randomUUID().toString();
+        ownerId = jdbcTemplate.queryForObject("INSERT INTO users (name, email, role) VALUES ('Benchmark owner', ?, 'LOCATOR') RETURNING id",
+                UUID.class, "owner-" + suffix + "@benchmark.com");
+        jdbcTemplate.update("INSERT INTO owner (id) VALUES (?)", ownerId);
+        tenantId = jdbcTemplate.queryForObject("INSERT INTO users (name, email, role) VALUES ('Benchmark tenant', ?, 'TENANT') RETURNING id",
+                UUID.class, "tenant-" + suffix + "@benchmark.com");
+        jdbcTemplate.update("INSERT INTO tenant (id) VALUES (?)", tenantId);
+        propertyIds = new UUID[properties];
+        for (int i = 0; i < properties; i++) {
+            propertyIds[i] = jdbcTemplate.queryForObject("""
+                    INSERT INTO property (title, description, address, price, status, owner_id)
+                    VALUES ('benchmark', 'benchmark', 'benchmark', 1500, 'AVAILABLE', ?) RETURNING id
+                    """, UUID.class, ownerId);
+            contractService.createContracts(new ContractRequest(LEASED_START, LEASED_START.plusYears(1).minusDays(1), MONTHLY_VALUE, tenantId, ownerId, propertyIds[i]));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM payment WHERE contract_id IN (SELECT id FROM contract WHERE property_id = ANY(?))", (Object) propertyIds);
+        jdbcTemplate.update("DELETE FROM contract WHERE property_id = ANY(?)", (Object) propertyIds);
+        jdbcTemplate.update("DELETE FROM property WHERE id = ANY(?)", (Object) propertyIds);
+        jdbcTemplate.update("DELETE FROM owner_monthly_revenue WHERE owner_id = ?", ownerId);
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", ownerId, tenantId);
+        context.close();
+    }
+
+    /**
+     * Each call takes the next two free days of the next property in turn, so every call commits a contract.
+     */
+    @Benchmark
+    public Object create() {
+        long next = sequence.getAndIncrement();
+        LocalDate start = FREE_START.plusDays(next / properties * 2);
+        return contractService.createContracts(new ContractRequest(start, start.plusDays(1), MONTHLY_VALUE, tenantId, ownerId, propertyIds[(int) (next % properties)]));
+    }
+
+    @Benchmark
+    public Object overlapping() {
+        long next = sequence.getAndIncrement();
+        try {
+            return contractService.createContracts(new ContractRequest(LEASED_START, LEASED_START.plusMonths(1), MONTHLY_VALUE, tenantId, ownerId, propertyIds[(int) (next % properties)]));
+        } catch (ContractOverlapException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.apiRent.configs;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PROPERTIES = "properties";
+    public static final String OWNERS = "owners";
+    public static final String TENANTS = "tenants";
+
+    /**
+     * Evictions are deferred until the surrounding transaction commits, so a reader
+     * cannot repopulate an entry with the row that is about to be overwritten.
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${spring.cache.caffeine.spec}") String spec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PROPERTIES, OWNERS, TENANTS);
+        cacheManager.setCaffeineSpec(CaffeineSpec.parse(spec));
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
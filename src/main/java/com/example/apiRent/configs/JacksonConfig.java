@@ -0,0 +1,116 @@
+package com.example.apiRent.configs;
+
+import com.example.apiRent.dtos.contract.ContractResponse;
+import com.example.apiRent.dtos.fields.FieldSelection;
+import com.example.apiRent.dtos.owner.OwnerResponse;
+import com.example.apiRent.dtos.payment.PaymentResponse;
+import com.example.apiRent.dtos.property.PropertyResponse;
+import com.example.apiRent.dtos.tenant.TenantResponse;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+@Configuration
+public class JacksonConfig {
+
+    private static final String FIELD_SELECTION_FILTER = "fieldSelection";
+    private static final List<Class<?>> SELECTABLE = List.of(
+            ContractResponse.class, PaymentResponse.class, PropertyResponse.class, TenantResponse.class, OwnerResponse.class);
+
+    @JsonFilter(FIELD_SELECTION_FILTER)
+    private interface FieldSelectionMixin {
+    }
+
+    /**
+     * Response records go through {@link FieldSelectionFilter}, so {@code ?fields=} and {@code ?expand=} apply
+     * on every endpoint, including the ones whose queries do not depend on them.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionCustomizer() {
+        return builder -> {
+            for (Class<?> type : SELECTABLE) {
+                builder.mixIn(type, FieldSelectionMixin.class);
+            }
+            builder.filters(new SimpleFilterProvider().addFilter(FIELD_SELECTION_FILTER, new FieldSelectionFilter()));
+        };
+    }
+
+    /**
+     * Renders a top-level property when {@code fields} selects it. A nested object that is not expanded
+     * is rendered as its id only; an expanded one keeps the properties {@code fields} selects under its path.
+     */
+    static final class FieldSelectionFilter extends SimpleBeanPropertyFilter {
+
+        private static final String SELECTION_ATTRIBUTE = FieldSelectionFilter.class.getName() + ".selection";
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider, PropertyWriter writer) throws Exception {
+            if (include(gen, writer.getName())) {
+                writer.serializeAsField(pojo, gen, provider);
+            } else if (!gen.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, gen, provider);
+            }
+        }
+
+        private static boolean include(JsonGenerator gen, String name) {
+            FieldSelection selection = currentSelection();
+            if (selection.isAll()) {
+                return true;
+            }
+            String path = path(gen.getOutputContext());
+            if (path.isEmpty()) {
+                return selection.selects(name);
+            }
+            if (!selection.expands(path)) {
+                return "id".equals(name);
+            }
+            return selection.selects(path + "." + name);
+        }
+
+        /**
+         * Dotted path of the object being written, relative to the outermost response record around it.
+         */
+        private static String path(JsonStreamContext context) {
+            Deque<String> segments = new ArrayDeque<>();
+            JsonStreamContext parent = context.getParent();
+            while (parent != null && isSelectable(parent.getCurrentValue())) {
+                segments.addFirst(parent.getCurrentName());
+                parent = parent.getParent();
+            }
+            return String.join(".", segments);
+        }
+
+        private static boolean isSelectable(Object value) {
+            return value != null && SELECTABLE.contains(value.getClass());
+        }
+
+        private static FieldSelection currentSelection() {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+                return FieldSelection.ALL;
+            }
+            FieldSelection selection = (FieldSelection) attributes.getAttribute(SELECTION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (selection == null) {
+                HttpServletRequest request = servletAttributes.getRequest();
+                selection = FieldSelection.parse(request.getParameterValues("fields"), request.getParameterValues("expand"));
+                attributes.setAttribute(SELECTION_ATTRIBUTE, selection, RequestAttributes.SCOPE_REQUEST);
+            }
+            return selection;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.apiRent.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.annotation.EnableRetry;
+
+/**
+ * The retry advice is ordered before the transaction advice, so every attempt of a
+ * {@code @Retryable @Transactional} method runs in a fresh transaction and persistence context.
+ */
+@Configuration
+@EnableRetry
+public class RetryConfig {
+
+    public static final int OPTIMISTIC_LOCK_ATTEMPTS = 3;
+}
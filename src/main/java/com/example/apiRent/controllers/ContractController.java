@@ -1,8 +1,16 @@
 package com.example.apiRent.controllers;
 
+import com.example.apiRent.controllers.links.LinkTemplates;
+import com.example.apiRent.dtos.contract.ContractAmendRequest;
+import com.example.apiRent.dtos.contract.ContractBatchRequest;
+import com.example.apiRent.dtos.contract.ContractBatchResponse;
 import com.example.apiRent.dtos.contract.ContractRequest;
 import com.example.apiRent.dtos.contract.ContractResponse;
+import com.example.apiRent.dtos.fields.FieldSelection;
+import com.example.apiRent.dtos.pagination.CursorPage;
 import com.example.apiRent.dtos.property.PropertyResponse;
+import com.example.apiRent.enums.EnumContract;
+import com.example.apiRent.services.ContractBatchService;
 import com.example.apiRent.services.ContractService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -12,11 +20,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import org.apache.tomcat.util.http.parser.HttpParser;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
 import java.util.UUID;
@@ -29,10 +39,23 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class ContractController {
 
     private final ContractService contractService;
+    private final ContractBatchService contractBatchService;
+    private final LinkTemplates contractLinks;
 
 
-    public ContractController(ContractService contractService) {
+    public ContractController(ContractService contractService, ContractBatchService contractBatchService) {
         this.contractService = contractService;
+        this.contractBatchService = contractBatchService;
+        this.contractLinks = LinkTemplates.builder("id", "tenantId", "ownerId")
+                .add(methodOn(ContractController.class).findAllContracts(null, null), IanaLinkRelations.SELF, "GET")
+                .add(methodOn(ContractController.class).createContracts(null), "createContracts", "POST")
+                .add(methodOn(ContractController.class).updateContract(LinkTemplates.id(0), null), "updateProperty", "PUT")
+                .add(methodOn(ContractController.class).findContractById(LinkTemplates.id(0), null), "findContractById", "GET")
+                .add(methodOn(ContractController.class).findContractsByTenant(LinkTemplates.id(1), null, null, ContractService.DEFAULT_PAGE_SIZE, null, null), "findContractsByTenant", "GET")
+                .add(methodOn(ContractController.class).findContractsByOwner(LinkTemplates.id(2), null, null, ContractService.DEFAULT_PAGE_SIZE, null, null), "findContractsByOwner", "GET")
+                .add(methodOn(ContractController.class).amendContract(LinkTemplates.id(0), null), "amendContract", "PUT")
+                .add(methodOn(ContractController.class).closeContract(LinkTemplates.id(0)), "closeContract", "PUT")
+                .build();
     }
 
     @GetMapping
@@ -49,13 +72,10 @@ public class ContractController {
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
     })
-    public ResponseEntity<CollectionModel<EntityModel<ContractResponse>>> findAllContracts() {
-        List<ContractResponse> contractResponseList = contractService.findAllContracts();
-        List<EntityModel<ContractResponse>> resource = contractResponseList.stream()
-                .map(this::addLinksToContracts)
-                .toList();
-        Link selfLink = linkTo(methodOn(ContractController.class).findAllContracts()).withSelfRel();
-        CollectionModel<EntityModel<ContractResponse>> collectionModel = CollectionModel.of(resource, selfLink);
+    public ResponseEntity<CollectionModel<EntityModel<ContractResponse>>> findAllContracts(@RequestParam(value = "compact", required = false) Boolean compact, FieldSelection selection) {
+        List<ContractResponse> contractResponseList = contractService.findAllContracts(selection);
+        Link selfLink = linkTo(methodOn(ContractController.class).findAllContracts(compact, selection)).withSelfRel();
+        CollectionModel<EntityModel<ContractResponse>> collectionModel = toCollectionModel(contractResponseList, compact, selfLink);
         return ResponseEntity.status(HttpStatus.OK).body(collectionModel);
     }
 
@@ -73,6 +93,18 @@ public class ContractController {
         return ResponseEntity.status(HttpStatus.CREATED).body(addLinksToContracts(contractResponse));
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create Contracts In Batch", description = "Create up to 10000 contracts at once, with a result per item", tags = {"Contracts"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content(schema = @Schema(implementation = ContractBatchResponse.class))),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+    })
+    public ResponseEntity<ContractBatchResponse> createContractsBatch(@RequestBody ContractBatchRequest contractBatchRequest) {
+        ContractBatchResponse contractBatchResponse = contractBatchService.createContracts(contractBatchRequest.contracts());
+        return ResponseEntity.status(HttpStatus.OK).body(contractBatchResponse);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Find Contracts By Id", description = "Find Contracts By Id", tags = {"Contracts"}, responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = @Content(schema = @Schema(implementation = ContractResponse.class))),
@@ -82,37 +114,59 @@ public class ContractController {
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
     })
-    public ResponseEntity<EntityModel<ContractResponse>> findContractById(@PathVariable("id") UUID id) {
-        ContractResponse contractResponse = contractService.findContractById(id);
+    public ResponseEntity<EntityModel<ContractResponse>> findContractById(@PathVariable("id") UUID id, FieldSelection selection) {
+        ContractResponse contractResponse = contractService.findContractById(id, selection);
         return ResponseEntity.status(HttpStatus.OK).body(addLinksToContracts(contractResponse));
     }
 
     @GetMapping("/tenants/{id}")
-    @Operation(summary = "Find Contracts By Tenant", description = "Find Contracts By Tenant", tags = {"Contracts"}, responses = {
-            @ApiResponse(description = "Success", responseCode = "200", content = @Content(schema = @Schema(implementation = ContractResponse.class))),
+    @Operation(summary = "Find Contracts By Tenant", description = "Keyset-paginated contracts of a tenant, newest first, filterable by status", tags = {"Contracts"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = {
+                    @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = ContractResponse.class))
+                    )
+            }),
             @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
     })
-    public ResponseEntity<EntityModel<ContractResponse>> findContractByTenant(@PathVariable("id") UUID id) {
-        ContractResponse contractResponse = contractService.findContractByTenant(id);
-        return ResponseEntity.status(HttpStatus.OK).body(addLinksToContracts(contractResponse));
+    public ResponseEntity<CollectionModel<EntityModel<ContractResponse>>> findContractsByTenant(
+            @PathVariable("id") UUID id,
+            @RequestParam(value = "status", required = false) EnumContract status,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "compact", required = false) Boolean compact,
+            FieldSelection selection) {
+        CursorPage<ContractResponse> page = contractService.findContractsByTenant(id, status, cursor, size, selection);
+        return ResponseEntity.status(HttpStatus.OK).body(toPagedModel(page, compact));
     }
 
     @GetMapping("/owners/{id}")
-    @Operation(summary = "Find Contracts By Owner", description = "Find Contracts By Owner", tags = {"Contracts"}, responses = {
-            @ApiResponse(description = "Success", responseCode = "200", content = @Content(schema = @Schema(implementation = ContractResponse.class))),
+    @Operation(summary = "Find Contracts By Owner", description = "Keyset-paginated contracts of a owner, newest first, filterable by status", tags = {"Contracts"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = {
+                    @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = ContractResponse.class))
+                    )
+            }),
             @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
     })
-    public ResponseEntity<EntityModel<ContractResponse>> findContractByOwner(@PathVariable("id") UUID id) {
-        ContractResponse contractResponse = contractService.findContractByOwner(id);
-        return ResponseEntity.status(HttpStatus.OK).body(addLinksToContracts(contractResponse));
+    public ResponseEntity<CollectionModel<EntityModel<ContractResponse>>> findContractsByOwner(
+            @PathVariable("id") UUID id,
+            @RequestParam(value = "status", required = false) EnumContract status,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "compact", required = false) Boolean compact,
+            FieldSelection selection) {
+        CursorPage<ContractResponse> page = contractService.findContractsByOwner(id, status, cursor, size, selection);
+        return ResponseEntity.status(HttpStatus.OK).body(toPagedModel(page, compact));
     }
 
     @PutMapping("/update/{id}")
@@ -129,6 +183,20 @@ public class ContractController {
         return ResponseEntity.status(HttpStatus.OK).body(addLinksToContracts(contractResponse));
     }
 
+    @PutMapping("/amend/{id}")
+    @Operation(summary = "Amend Contracts", description = "Renew or amend a contract's end date and monthly value, rewriting only the affected payments", tags = {"Contracts"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content(schema = @Schema(implementation = ContractResponse.class))),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+            @ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+    })
+    public ResponseEntity<EntityModel<ContractResponse>> amendContract(@PathVariable("id") UUID id, @RequestBody ContractAmendRequest contractAmendRequest) {
+        ContractResponse contractResponse = contractService.amendContract(id, contractAmendRequest);
+        return ResponseEntity.status(HttpStatus.OK).body(addLinksToContracts(contractResponse));
+    }
+
     @PutMapping("/terminate/{id}")
     @Operation(summary = "Terminate Contracts", description = "Terminate Contracts", tags = {"Contracts"}, responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = @Content(schema = @Schema(implementation = ContractResponse.class))),
@@ -144,25 +212,37 @@ public class ContractController {
     }
 
 
-    private EntityModel<ContractResponse> addLinksToContracts(ContractResponse contractResponse) {
-        UUID contractId = contractResponse.id();
-        UUID tenantId = contractResponse.tenant().id();
-        UUID ownerId = contractResponse.owner().id();
-
-        Link selfLink = linkTo(methodOn(ContractController.class).findAllContracts()).withSelfRel().withType("GET");
-
-        Link createLink = linkTo(methodOn(ContractController.class).createContracts(null)).withRel("createContracts").withType("POST");
-
-        Link updateLink = linkTo(methodOn(ContractController.class).updateContract(contractId, null)).withRel("updateProperty").withType("PUT");
-
-        Link findContractByIdLink = linkTo(methodOn(ContractController.class).findContractById(contractId)).withRel("findContractById").withType("GET");
-
-        Link findContractByTenantLink = linkTo(methodOn(ContractController.class).findContractByTenant(tenantId)).withRel("findContractByTenant").withType("GET");
+    private CollectionModel<EntityModel<ContractResponse>> toPagedModel(CursorPage<ContractResponse> page, Boolean compact) {
+        Link selfLink = Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel();
+        CollectionModel<EntityModel<ContractResponse>> collectionModel = toCollectionModel(page.content(), compact, selfLink);
+        if (page.hasNext()) {
+            String nextUri = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .toUriString();
+            collectionModel.add(Link.of(nextUri, IanaLinkRelations.NEXT));
+        }
+        return collectionModel;
+    }
 
-        Link findContractByOwnerLink = linkTo(methodOn(ContractController.class).findContractByOwner(ownerId)).withRel("findContractByOwner").withType("GET");
+    CollectionModel<EntityModel<ContractResponse>> toCollectionModel(List<ContractResponse> contractResponses, Boolean compact, Link selfLink) {
+        String baseUri = LinkTemplates.currentBaseUri();
+        if (Boolean.TRUE.equals(compact)) {
+            List<EntityModel<ContractResponse>> resource = contractResponses.stream()
+                    .map(EntityModel::of)
+                    .toList();
+            return CollectionModel.of(resource, selfLink).add(contractLinks.templated(baseUri));
+        }
+        List<EntityModel<ContractResponse>> resource = contractResponses.stream()
+                .map(contractResponse -> addLinksToContracts(contractResponse, baseUri))
+                .toList();
+        return CollectionModel.of(resource, selfLink);
+    }
 
-        Link closeContractLink = linkTo(methodOn(ContractController.class).closeContract(contractId)).withRel("closeContract").withType("PUT");
+    EntityModel<ContractResponse> addLinksToContracts(ContractResponse contractResponse) {
+        return addLinksToContracts(contractResponse, LinkTemplates.currentBaseUri());
+    }
 
-        return EntityModel.of(contractResponse, selfLink, createLink, updateLink, findContractByIdLink, findContractByTenantLink, findContractByOwnerLink, closeContractLink);
+    private EntityModel<ContractResponse> addLinksToContracts(ContractResponse contractResponse, String baseUri) {
+        return EntityModel.of(contractResponse, contractLinks.expand(baseUri, contractResponse.id(), contractResponse.tenant().id(), contractResponse.owner().id()));
     }
 }
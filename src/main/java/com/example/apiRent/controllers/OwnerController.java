@@ -1,8 +1,11 @@
 package com.example.apiRent.controllers;
 
+import com.example.apiRent.controllers.links.LinkTemplates;
 import com.example.apiRent.dtos.owner.OwnerRequest;
 import com.example.apiRent.dtos.owner.OwnerResponse;
+import com.example.apiRent.dtos.owner.OwnerRevenueResponse;
 import com.example.apiRent.exceptions.ResourceNotFoundException;
+import com.example.apiRent.services.OwnerRevenueService;
 import com.example.apiRent.services.OwnerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -12,12 +15,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,9 +37,20 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class OwnerController {
 
     private final OwnerService ownerService;
+    private final OwnerRevenueService ownerRevenueService;
+    private final LinkTemplates ownerLinks;
 
-    public OwnerController(OwnerService ownerService) {
+    public OwnerController(OwnerService ownerService, OwnerRevenueService ownerRevenueService) {
         this.ownerService = ownerService;
+        this.ownerRevenueService = ownerRevenueService;
+        this.ownerLinks = LinkTemplates.builder("id", "name")
+                .add(methodOn(OwnerController.class).findOwnerById(LinkTemplates.id(0)), IanaLinkRelations.SELF, "GET")
+                .add(methodOn(OwnerController.class).findAllOwners(null), "findAllOwners", "GET")
+                .add(methodOn(OwnerController.class).deleteOwnerById(LinkTemplates.id(0)), "delete", "DELETE")
+                .add(methodOn(OwnerController.class).createOwners(null), "createOwners", "POST")
+                .add(methodOn(OwnerController.class).updateOwners(LinkTemplates.id(0), null), "update", "PUT")
+                .add(methodOn(OwnerController.class).queryNameLike(LinkTemplates.text(1), null), "queryNameLike", "GET")
+                .build();
     }
 
     @GetMapping
@@ -49,14 +67,11 @@ public class OwnerController {
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
     })
-    public ResponseEntity<CollectionModel<EntityModel<OwnerResponse>>> findAllOwners() {
+    public ResponseEntity<CollectionModel<EntityModel<OwnerResponse>>> findAllOwners(@RequestParam(value = "compact", required = false) Boolean compact) {
         List<OwnerResponse> ownerResponses = ownerService.findAllOwners();
-        List<EntityModel<OwnerResponse>> resources = ownerResponses.stream()
-                .map(this::addLinksToOwner)
-                .toList();
 
-        Link selfLink = linkTo(methodOn(OwnerController.class).findAllOwners()).withSelfRel();
-        CollectionModel<EntityModel<OwnerResponse>> collectionModel = CollectionModel.of(resources, selfLink);
+        Link selfLink = linkTo(methodOn(OwnerController.class).findAllOwners(compact)).withSelfRel();
+        CollectionModel<EntityModel<OwnerResponse>> collectionModel = toCollectionModel(ownerResponses, compact, selfLink);
         return ResponseEntity.status(HttpStatus.OK).body(collectionModel);
 
     }
@@ -119,6 +134,24 @@ public class OwnerController {
         return ResponseEntity.status(HttpStatus.OK).body(addLinksToOwner(ownerResponse));
     }
 
+    @GetMapping("/{id}/revenue")
+    @Operation(summary = "Find Owner Revenue", description = "Expected and received revenue of an owner per month, from the month of from through to", tags = {"Owners"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content(schema = @Schema(implementation = OwnerRevenueResponse.class))),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+    })
+    public ResponseEntity<EntityModel<OwnerRevenueResponse>> findOwnerRevenue(
+            @PathVariable("id") UUID id,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        OwnerRevenueResponse revenue = ownerRevenueService.findRevenue(id, from, to);
+        Link selfLink = Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel();
+        Link ownerLink = linkTo(methodOn(OwnerController.class).findOwnerById(id)).withRel("findOwnerById").withType("GET");
+        return ResponseEntity.status(HttpStatus.OK).body(EntityModel.of(revenue, selfLink, ownerLink));
+    }
+
     @GetMapping("/search/findByName")
     @Operation(summary = "Find Owners By Name", description = "Find Owners By Name", tags = {"Owners"}, responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = @Content(schema = @Schema(implementation = OwnerResponse.class))),
@@ -128,38 +161,38 @@ public class OwnerController {
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
     })
-    public ResponseEntity<CollectionModel<EntityModel<OwnerResponse>>> queryNameLike(@RequestParam("name") String name) {
+    public ResponseEntity<CollectionModel<EntityModel<OwnerResponse>>> queryNameLike(@RequestParam("name") String name, @RequestParam(value = "compact", required = false) Boolean compact) {
         List<OwnerResponse> ownerResponses = ownerService.queryByName(name);
         if (ownerResponses.isEmpty()) {
             throw new ResourceNotFoundException("No owner found with name containing: " + name);
         }
 
-        List<EntityModel<OwnerResponse>> resources = ownerResponses.stream()
-                .map(this::addLinksToOwner)
-                .toList();
-
-        Link selfLink = linkTo(methodOn(OwnerController.class).queryNameLike(name)).withSelfRel();
-        CollectionModel<EntityModel<OwnerResponse>> collectionModel = CollectionModel.of(resources, selfLink);
+        Link selfLink = linkTo(methodOn(OwnerController.class).queryNameLike(name, compact)).withSelfRel();
+        CollectionModel<EntityModel<OwnerResponse>> collectionModel = toCollectionModel(ownerResponses, compact, selfLink);
         return ResponseEntity.status(HttpStatus.OK).body(collectionModel);
     }
 
 
-    private EntityModel<OwnerResponse> addLinksToOwner(OwnerResponse ownerResponse) {
-        UUID ownerId = ownerResponse.id();
-
-        Link selfLink = linkTo(methodOn(OwnerController.class).findOwnerById(ownerId)).withSelfRel().withType("GET");
-
-        Link queryName = linkTo(methodOn(OwnerController.class).queryNameLike(ownerResponse.name())).withRel("queryNameLike").withType("GET");
-
-        Link allOwnersLink = linkTo(methodOn(OwnerController.class).findAllOwners()).withRel("findAllOwners").withType("GET");
-
-        Link deleteLink = linkTo(methodOn(OwnerController.class).deleteOwnerById(ownerId)).withRel("delete").withType("DELETE");
-
-        Link updateLink = linkTo(methodOn(OwnerController.class).updateOwners(ownerId, null)).withRel("update").withType("PUT");
+    CollectionModel<EntityModel<OwnerResponse>> toCollectionModel(List<OwnerResponse> ownerResponses, Boolean compact, Link selfLink) {
+        String baseUri = LinkTemplates.currentBaseUri();
+        if (Boolean.TRUE.equals(compact)) {
+            List<EntityModel<OwnerResponse>> resources = ownerResponses.stream()
+                    .map(EntityModel::of)
+                    .toList();
+            return CollectionModel.of(resources, selfLink).add(ownerLinks.templated(baseUri));
+        }
+        List<EntityModel<OwnerResponse>> resources = ownerResponses.stream()
+                .map(ownerResponse -> addLinksToOwner(ownerResponse, baseUri))
+                .toList();
+        return CollectionModel.of(resources, selfLink);
+    }
 
-        Link createLink = linkTo(methodOn(OwnerController.class).createOwners(null)).withRel("createOwners").withType("POST");
+    EntityModel<OwnerResponse> addLinksToOwner(OwnerResponse ownerResponse) {
+        return addLinksToOwner(ownerResponse, LinkTemplates.currentBaseUri());
+    }
 
-        return EntityModel.of(ownerResponse, selfLink, allOwnersLink, deleteLink,createLink, updateLink, queryName);
+    private EntityModel<OwnerResponse> addLinksToOwner(OwnerResponse ownerResponse, String baseUri) {
+        return EntityModel.of(ownerResponse, ownerLinks.expand(baseUri, ownerResponse.id(), ownerResponse.name()));
     }
 
 }
@@ -0,0 +1,27 @@
+package com.example.apiRent.controllers;
+
+import com.example.apiRent.services.OwnerRevenueService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code POST /actuator/ownerrevenue} rebuilds {@code owner_monthly_revenue} from scratch.
+ */
+@Component
+@Endpoint(id = "ownerrevenue")
+public class OwnerRevenueEndpoint {
+
+    private final OwnerRevenueService ownerRevenueService;
+
+    public OwnerRevenueEndpoint(OwnerRevenueService ownerRevenueService) {
+        this.ownerRevenueService = ownerRevenueService;
+    }
+
+    @WriteOperation
+    public Map<String, Integer> rebuild() {
+        return Map.of("rows", ownerRevenueService.rebuildRevenue());
+    }
+}
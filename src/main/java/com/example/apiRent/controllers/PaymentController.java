@@ -1,15 +1,31 @@
 package com.example.apiRent.controllers;
 
+import com.example.apiRent.controllers.links.LinkTemplates;
+import com.example.apiRent.dtos.fields.FieldSelection;
+import com.example.apiRent.dtos.payment.PaymentConfirmBatchRequest;
+import com.example.apiRent.dtos.payment.PaymentConfirmBatchResponse;
 import com.example.apiRent.dtos.payment.PaymentResponse;
 import com.example.apiRent.dtos.property.PropertyResponse;
+import com.example.apiRent.exceptions.InvalidRequestException;
+import com.example.apiRent.services.PaymentBatchService;
+import com.example.apiRent.services.PaymentExportService;
 import com.example.apiRent.services.PaymentService;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,25 +37,36 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentBatchService paymentBatchService;
+    private final PaymentExportService paymentExportService;
+    private final LinkTemplates paymentLinks;
+    private final LinkTemplates installmentLinks;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, PaymentBatchService paymentBatchService, PaymentExportService paymentExportService) {
         this.paymentService = paymentService;
+        this.paymentBatchService = paymentBatchService;
+        this.paymentExportService = paymentExportService;
+        this.paymentLinks = LinkTemplates.builder("id", "contractId", "ownerId")
+                .add(methodOn(PaymentController.class).findPaymentById(LinkTemplates.id(0), null), "findPaymentById", "GET")
+                .add(methodOn(PaymentController.class).findPaymentByContract(LinkTemplates.id(1), null, null), "findPaymentByContract", "GET")
+                .add(methodOn(PaymentController.class).confirmPayment(LinkTemplates.id(0), LinkTemplates.id(2)), "confirmPayment", "PATCH")
+                .build();
+        this.installmentLinks = LinkTemplates.builder("contractId", "dueDate", "ownerId")
+                .add(methodOn(PaymentController.class).confirmInstallment(LinkTemplates.id(0), LinkTemplates.text(1), LinkTemplates.id(2)), "confirmInstallment", "PATCH")
+                .build();
     }
 
     @GetMapping("{id}")
-    public ResponseEntity<EntityModel<PaymentResponse>> findPaymentById(@PathVariable("id") UUID id) {
-        PaymentResponse paymentResponse = paymentService.findPaymentsById(id);
+    public ResponseEntity<EntityModel<PaymentResponse>> findPaymentById(@PathVariable("id") UUID id, FieldSelection selection) {
+        PaymentResponse paymentResponse = paymentService.findPaymentsById(id, selection);
         return ResponseEntity.status(HttpStatus.OK).body(addLinksToPayment(paymentResponse));
     }
 
     @GetMapping("/contracts/{id}")
-    public ResponseEntity<CollectionModel<EntityModel<PaymentResponse>>> findPaymentByContract(@PathVariable("id") UUID id) {
-        List<PaymentResponse> paymentResponses = paymentService.findPaymentByContract(id);
-        List<EntityModel<PaymentResponse>> resource = paymentResponses.stream()
-                .map(this::addLinksToPayment)
-                .toList();
-        Link selfLink = linkTo(methodOn(PaymentController.class).findPaymentByContract(id)).withSelfRel();
-        CollectionModel<EntityModel<PaymentResponse>> collectionModel = CollectionModel.of(resource, selfLink);
+    public ResponseEntity<CollectionModel<EntityModel<PaymentResponse>>> findPaymentByContract(@PathVariable("id") UUID id, @RequestParam(value = "compact", required = false) Boolean compact, FieldSelection selection) {
+        List<PaymentResponse> paymentResponses = paymentService.findPaymentByContract(id, selection);
+        Link selfLink = linkTo(methodOn(PaymentController.class).findPaymentByContract(id, compact, selection)).withSelfRel();
+        CollectionModel<EntityModel<PaymentResponse>> collectionModel = toCollectionModel(paymentResponses, compact, selfLink);
         return ResponseEntity.status(HttpStatus.OK).body(collectionModel);
     }
 
@@ -49,17 +76,81 @@ public class PaymentController {
         return ResponseEntity.status(HttpStatus.OK).body(addLinksToPayment(paymentResponse));
     }
 
+    @PatchMapping("/confirm")
+    public ResponseEntity<PaymentConfirmBatchResponse> confirmPayments(@Valid @RequestBody PaymentConfirmBatchRequest paymentConfirmBatchRequest) {
+        PaymentConfirmBatchResponse paymentConfirmBatchResponse = paymentBatchService.confirmPayments(paymentConfirmBatchRequest.ownerId(), paymentConfirmBatchRequest.paymentIds());
+        return ResponseEntity.status(HttpStatus.OK).body(paymentConfirmBatchResponse);
+    }
 
-    private EntityModel<PaymentResponse> addLinksToPayment(PaymentResponse paymentResponse) {
-        UUID paymentId = paymentResponse.id();
-        UUID contractId = paymentResponse.contract().id();
-        UUID ownerId = paymentResponse.contract().owner().id();
+    /**
+     * Confirms an installment by contract and due date, which also works for the installments of a virtual
+     * schedule that have no row, and so no id, yet.
+     */
+    @PatchMapping("/contracts/{contractId}/installments/{dueDate}/owner/{ownerId}/confirm")
+    public ResponseEntity<EntityModel<PaymentResponse>> confirmInstallment(@PathVariable("contractId") UUID contractId, @PathVariable("dueDate") String dueDate, @PathVariable("ownerId") UUID ownerId) {
+        PaymentResponse paymentResponse = paymentService.confirmInstallment(contractId, parseDueDate(dueDate), ownerId);
+        return ResponseEntity.status(HttpStatus.OK).body(addLinksToPayment(paymentResponse));
+    }
+
+    /**
+     * Streams every payment due from {@code from} through {@code to} as CSV, written while the rows are read
+     * instead of collected into a {@link CollectionModel} first.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(@RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from, @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to, @RequestParam(value = "format", defaultValue = PaymentExportService.CSV) String format) {
+        paymentExportService.validateExport(from, to, format);
+        StreamingResponseBody body = outputStream -> paymentExportService.exportCsv(from, to, outputStream);
+        ContentDisposition contentDisposition = ContentDisposition.attachment()
+                .filename("payments-" + from + "-" + to + ".csv")
+                .build();
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString())
+                .body(body);
+    }
 
-        Link findPaymentByIdLink = linkTo(methodOn(PaymentController.class).findPaymentById(paymentId)).withRel("findPaymentById").withType("GET");
-        Link findPaymentByContractLink = linkTo(methodOn(PaymentController.class).findPaymentByContract(contractId)).withRel("findPaymentByContract").withType("GET");
-        Link confirmPaymentLink = linkTo(methodOn(PaymentController.class).confirmPayment(paymentId,ownerId)).withRel("confirmPayment").withType("PATCH");
+    private static LocalDate parseDueDate(String dueDate) {
+        try {
+            return LocalDate.parse(dueDate);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException("dueDate must be an ISO date (yyyy-MM-dd)");
+        }
+    }
+
+
+    CollectionModel<EntityModel<PaymentResponse>> toCollectionModel(List<PaymentResponse> paymentResponses, Boolean compact, Link selfLink) {
+        String baseUri = LinkTemplates.currentBaseUri();
+        if (Boolean.TRUE.equals(compact)) {
+            List<EntityModel<PaymentResponse>> resource = paymentResponses.stream()
+                    .map(EntityModel::of)
+                    .toList();
+            CollectionModel<EntityModel<PaymentResponse>> collectionModel = CollectionModel.of(resource, selfLink).add(paymentLinks.templated(baseUri));
+            if (paymentResponses.stream().anyMatch(paymentResponse -> paymentResponse.id() == null)) {
+                collectionModel.add(installmentLinks.templated(baseUri));
+            }
+            return collectionModel;
+        }
+        List<EntityModel<PaymentResponse>> resource = paymentResponses.stream()
+                .map(paymentResponse -> addLinksToPayment(paymentResponse, baseUri))
+                .toList();
+        return CollectionModel.of(resource, selfLink);
+    }
 
+    EntityModel<PaymentResponse> addLinksToPayment(PaymentResponse paymentResponse) {
+        return addLinksToPayment(paymentResponse, LinkTemplates.currentBaseUri());
+    }
 
-        return EntityModel.of(paymentResponse, findPaymentByIdLink, findPaymentByContractLink, confirmPaymentLink);
+    /**
+     * An installment of a virtual schedule has no id until it is written, so it only links to its confirmation
+     * by due date.
+     */
+    private EntityModel<PaymentResponse> addLinksToPayment(PaymentResponse paymentResponse, String baseUri) {
+        UUID paymentId = paymentResponse.id();
+        UUID contractId = paymentResponse.contract().id();
+        UUID ownerId = paymentResponse.contract().owner().id();
+        if (paymentId == null) {
+            return EntityModel.of(paymentResponse, installmentLinks.expand(baseUri, contractId, paymentResponse.due_date(), ownerId));
+        }
+        return EntityModel.of(paymentResponse, paymentLinks.expand(baseUri, paymentId, contractId, ownerId));
     }
 }
@@ -1,9 +1,17 @@
 package com.example.apiRent.controllers;
 
+import com.example.apiRent.controllers.links.LinkTemplates;
 import com.example.apiRent.dtos.owner.OwnerRequest;
 import com.example.apiRent.dtos.owner.OwnerResponse;
+import com.example.apiRent.dtos.pagination.CursorPage;
+import com.example.apiRent.dtos.property.PropertyAvailabilityFilter;
+import com.example.apiRent.dtos.property.PropertyAvailabilityResponse;
+import com.example.apiRent.dtos.property.PropertyFilter;
 import com.example.apiRent.dtos.property.PropertyRequest;
 import com.example.apiRent.dtos.property.PropertyResponse;
+import com.example.apiRent.enums.EnumPropertySort;
+import com.example.apiRent.enums.EnumSearchMode;
+import com.example.apiRent.services.PropertyAvailabilityService;
 import com.example.apiRent.services.PropertyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -11,14 +19,18 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import org.apache.coyote.Response;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,14 +42,25 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class PropertyController {
 
     private final PropertyService propertyService;
+    private final PropertyAvailabilityService propertyAvailabilityService;
+    private final LinkTemplates propertyLinks;
 
 
-    public PropertyController(PropertyService propertyService) {
+    public PropertyController(PropertyService propertyService, PropertyAvailabilityService propertyAvailabilityService) {
         this.propertyService = propertyService;
+        this.propertyAvailabilityService = propertyAvailabilityService;
+        this.propertyLinks = LinkTemplates.builder("id", "title")
+                .add(methodOn(PropertyController.class).findPropertiesAll(null, null, null, PropertyService.DEFAULT_PAGE_SIZE, null), IanaLinkRelations.SELF, "GET")
+                .add(methodOn(PropertyController.class).createProperty(null), "createProperty", "POST")
+                .add(methodOn(PropertyController.class).updateProperty(LinkTemplates.id(0), null), "updateProperty", "PUT")
+                .add(methodOn(PropertyController.class).deletePropertyById(LinkTemplates.id(0)), "deletePropertyById", "DELETE")
+                .add(methodOn(PropertyController.class).findPropertyById(LinkTemplates.id(0)), "findPropertyById", "GET")
+                .add(methodOn(PropertyController.class).queryPropertyByName(LinkTemplates.text(1), EnumSearchMode.CONTAINS, PropertyService.DEFAULT_SEARCH_LIMIT, null), "queryPropertyByName", "GET")
+                .build();
     }
 
     @GetMapping
-    @Operation(summary = "Find All Properties", description = "Find All Properties", tags = {"Properties"}, responses = {
+    @Operation(summary = "Find All Properties", description = "Keyset-paginated property listing filterable by status, price range and owner", tags = {"Properties"}, responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = {
                     @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
@@ -50,15 +73,14 @@ public class PropertyController {
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
     })
-    public ResponseEntity<CollectionModel<EntityModel<PropertyResponse>>> findPropertiesAll() {
-        List<PropertyResponse> propertyResponses = propertyService.findAllProperties();
-        List<EntityModel<PropertyResponse>> resource = propertyResponses.stream()
-                .map(this::addLinksToProperty)
-                .toList();
-
-        Link selfLink = linkTo(methodOn(PropertyController.class).findPropertiesAll()).withSelfRel();
-        CollectionModel<EntityModel<PropertyResponse>> collectionModel = CollectionModel.of(resource, selfLink);
-        return ResponseEntity.status(HttpStatus.OK).body(collectionModel);
+    public ResponseEntity<CollectionModel<EntityModel<PropertyResponse>>> findPropertiesAll(
+            PropertyFilter filter,
+            @RequestParam(value = "sort", defaultValue = "PRICE") EnumPropertySort sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "compact", required = false) Boolean compact) {
+        CursorPage<PropertyResponse> page = propertyService.findPropertiesPage(filter, sort, cursor, size);
+        return ResponseEntity.status(HttpStatus.OK).body(toPagedModel(page, compact));
     }
 
     @PostMapping("/create")
@@ -118,8 +140,47 @@ public class PropertyController {
         return ResponseEntity.status(HttpStatus.OK).body(addLinksToProperty(propertyResponse));
     }
 
+    @GetMapping("/{id}/availability")
+    @Operation(summary = "Find Property Availability", description = "Active leases and free periods of a property between from and to, inclusive", tags = {"Properties"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content(schema = @Schema(implementation = PropertyAvailabilityResponse.class))),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+    })
+    public ResponseEntity<EntityModel<PropertyAvailabilityResponse>> findPropertyAvailability(
+            @PathVariable("id") UUID id,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        PropertyAvailabilityResponse availability = propertyAvailabilityService.findAvailability(id, from, to);
+        Link selfLink = Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel();
+        Link propertyLink = linkTo(methodOn(PropertyController.class).findPropertyById(id)).withRel("findPropertyById").withType("GET");
+        return ResponseEntity.status(HttpStatus.OK).body(EntityModel.of(availability, selfLink, propertyLink));
+    }
+
+    @GetMapping("/search/available")
+    @Operation(summary = "Find Available Properties", description = "Keyset-paginated properties, cheapest first, with no active lease between from and to, filterable by price range", tags = {"Properties"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = {
+                    @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = PropertyResponse.class))
+                    )
+            }),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+    })
+    public ResponseEntity<CollectionModel<EntityModel<PropertyResponse>>> findAvailableProperties(
+            PropertyAvailabilityFilter filter,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "compact", required = false) Boolean compact) {
+        CursorPage<PropertyResponse> page = propertyAvailabilityService.findAvailableProperties(filter, cursor, size);
+        return ResponseEntity.status(HttpStatus.OK).body(toPagedModel(page, compact));
+    }
+
     @GetMapping("/search/query")
-    @Operation(summary = "Find Title Properties", description = "Find Title Properties", tags = {"Properties"}, responses = {
+    @Operation(summary = "Find Title Properties", description = "Search properties by title, or by typo-tolerant similarity over title, description and address in FUZZY mode", tags = {"Properties"}, responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = {
                     @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
@@ -132,36 +193,51 @@ public class PropertyController {
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
     })
-    public ResponseEntity<CollectionModel<EntityModel<PropertyResponse>>> queryPropertyByName(@RequestParam("name") String name) {
-        List<PropertyResponse> propertyResponses = propertyService.queryPropertyByName(name);
-        List<EntityModel<PropertyResponse>> resource = propertyResponses.stream()
-                .map(this::addLinksToProperty)
-                .toList();
+    public ResponseEntity<CollectionModel<EntityModel<PropertyResponse>>> queryPropertyByName(
+            @RequestParam("name") String name,
+            @RequestParam(value = "mode", defaultValue = "CONTAINS") EnumSearchMode mode,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "compact", required = false) Boolean compact) {
+        List<PropertyResponse> propertyResponses = propertyService.queryPropertyByName(name, mode, limit);
 
-        Link selfLink = linkTo(methodOn(PropertyController.class).queryPropertyByName(name)).withSelfRel();
-        CollectionModel<EntityModel<PropertyResponse>> collectionModel = CollectionModel.of(resource, selfLink);
+        Link selfLink = linkTo(methodOn(PropertyController.class).queryPropertyByName(name, mode, limit, compact)).withSelfRel();
+        CollectionModel<EntityModel<PropertyResponse>> collectionModel = toCollectionModel(propertyResponses, compact, selfLink);
 
         return ResponseEntity.status(HttpStatus.OK).body(collectionModel);
     }
 
 
-    private EntityModel<PropertyResponse> addLinksToProperty(PropertyResponse propertyResponse) {
-        UUID propertyId = propertyResponse.id();
-        String propertyTitle = propertyResponse.title();
-
-        Link selfLink = linkTo(methodOn(PropertyController.class).findPropertiesAll()).withSelfRel().withType("GET");
-
-        Link createLink = linkTo(methodOn(PropertyController.class).createProperty(null)).withRel("createProperty").withType("POST");
-
-        Link updateLink = linkTo(methodOn(PropertyController.class).updateProperty(propertyId, null)).withRel("updateProperty").withType("PUT");
-
-        Link deleteLink = linkTo(methodOn(PropertyController.class).deletePropertyById(propertyId)).withRel("deletePropertyById").withType("DELETE");
-
-        Link findPropertyByIdLink = linkTo(methodOn(PropertyController.class).findPropertyById(propertyId)).withRel("findPropertyById").withType("GET");
+    private CollectionModel<EntityModel<PropertyResponse>> toPagedModel(CursorPage<PropertyResponse> page, Boolean compact) {
+        Link selfLink = Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel();
+        CollectionModel<EntityModel<PropertyResponse>> collectionModel = toCollectionModel(page.content(), compact, selfLink);
+        if (page.hasNext()) {
+            String nextUri = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .toUriString();
+            collectionModel.add(Link.of(nextUri, IanaLinkRelations.NEXT));
+        }
+        return collectionModel;
+    }
 
-        Link queryPropertyByNameLink = linkTo(methodOn(PropertyController.class).queryPropertyByName(propertyTitle)).withRel("queryPropertyByName").withType("GET");
+    CollectionModel<EntityModel<PropertyResponse>> toCollectionModel(List<PropertyResponse> propertyResponses, Boolean compact, Link selfLink) {
+        String baseUri = LinkTemplates.currentBaseUri();
+        if (Boolean.TRUE.equals(compact)) {
+            List<EntityModel<PropertyResponse>> resource = propertyResponses.stream()
+                    .map(EntityModel::of)
+                    .toList();
+            return CollectionModel.of(resource, selfLink).add(propertyLinks.templated(baseUri));
+        }
+        List<EntityModel<PropertyResponse>> resource = propertyResponses.stream()
+                .map(propertyResponse -> addLinksToProperty(propertyResponse, baseUri))
+                .toList();
+        return CollectionModel.of(resource, selfLink);
+    }
 
+    EntityModel<PropertyResponse> addLinksToProperty(PropertyResponse propertyResponse) {
+        return addLinksToProperty(propertyResponse, LinkTemplates.currentBaseUri());
+    }
 
-        return EntityModel.of(propertyResponse, selfLink, createLink, updateLink, deleteLink, findPropertyByIdLink, queryPropertyByNameLink);
+    private EntityModel<PropertyResponse> addLinksToProperty(PropertyResponse propertyResponse, String baseUri) {
+        return EntityModel.of(propertyResponse, propertyLinks.expand(baseUri, propertyResponse.id(), propertyResponse.title()));
     }
 }
@@ -1,5 +1,6 @@
 package com.example.apiRent.controllers;
 
+import com.example.apiRent.controllers.links.LinkTemplates;
 import com.example.apiRent.dtos.owner.OwnerRequest;
 import com.example.apiRent.dtos.owner.OwnerResponse;
 import com.example.apiRent.dtos.tenant.TenantRequest;
@@ -14,6 +15,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -32,9 +34,18 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class TenantController {
 
     private final TenantService tenantService;
+    private final LinkTemplates tenantLinks;
 
     public TenantController(TenantService tenantService) {
         this.tenantService = tenantService;
+        this.tenantLinks = LinkTemplates.builder("id", "name")
+                .add(methodOn(TenantController.class).findAllTenants(null), IanaLinkRelations.SELF, "GET")
+                .add(methodOn(TenantController.class).createTenants(null), "createTenants", "POST")
+                .add(methodOn(TenantController.class).updateTenants(LinkTemplates.id(0), null), "updateTenants", "PUT")
+                .add(methodOn(TenantController.class).findTenantById(LinkTemplates.id(0)), "findTenantById", "GET")
+                .add(methodOn(TenantController.class).findTenantByName(LinkTemplates.text(1), null), "findTenantByName", "GET")
+                .add(methodOn(TenantController.class).deleteTenantById(LinkTemplates.id(0)), "deleteTenantById", "DELETE")
+                .build();
     }
 
     @GetMapping
@@ -51,13 +62,10 @@ public class TenantController {
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
     })
-    public ResponseEntity<CollectionModel<EntityModel<TenantResponse>>> findAllTenants() {
+    public ResponseEntity<CollectionModel<EntityModel<TenantResponse>>> findAllTenants(@RequestParam(value = "compact", required = false) Boolean compact) {
         List<TenantResponse> tenantList = tenantService.findAllTenants();
-        List<EntityModel<TenantResponse>> entityModels = tenantList.stream()
-                .map(this::addLinksToTenant)
-                .toList();
-        Link selfLink = linkTo(methodOn(TenantController.class).findAllTenants()).withSelfRel();
-        CollectionModel<EntityModel<TenantResponse>> collectionModel = CollectionModel.of(entityModels, selfLink);
+        Link selfLink = linkTo(methodOn(TenantController.class).findAllTenants(compact)).withSelfRel();
+        CollectionModel<EntityModel<TenantResponse>> collectionModel = toCollectionModel(tenantList, compact, selfLink);
         return ResponseEntity.status(HttpStatus.OK).body(collectionModel);
     }
 
@@ -126,30 +134,37 @@ public class TenantController {
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
     })
-    public ResponseEntity<CollectionModel<EntityModel<TenantResponse>>> findTenantByName(@RequestParam("name") String name) {
+    public ResponseEntity<CollectionModel<EntityModel<TenantResponse>>> findTenantByName(@RequestParam("name") String name, @RequestParam(value = "compact", required = false) Boolean compact) {
         List<TenantResponse> tenantResponses = tenantService.queryName(name);
         if(tenantResponses.isEmpty()) throw new ResourceNotFoundException("No tenant found with name containing: \" + name");
 
-        List<EntityModel<TenantResponse>> resources = tenantResponses.stream()
-                .map(this::addLinksToTenant)
-                .toList();
-
-        Link selfLink = linkTo(methodOn(TenantController.class).findTenantByName(name)).withSelfRel();
-        CollectionModel<EntityModel<TenantResponse>> collectionModel = CollectionModel.of(resources, selfLink);
+        Link selfLink = linkTo(methodOn(TenantController.class).findTenantByName(name, compact)).withSelfRel();
+        CollectionModel<EntityModel<TenantResponse>> collectionModel = toCollectionModel(tenantResponses, compact, selfLink);
         return ResponseEntity.status(HttpStatus.OK).body(collectionModel);
 
     }
 
 
-    private EntityModel<TenantResponse> addLinksToTenant(TenantResponse tenantResponse) {
-        UUID tenantId = tenantResponse.id();
-        Link selfLink = linkTo(methodOn(TenantController.class).findAllTenants()).withSelfRel().withType("GET");
-        Link createLink = linkTo(methodOn(TenantController.class).createTenants(null)).withRel("createTenants").withType("POST");
-        Link updateLink = linkTo(methodOn(TenantController.class).updateTenants(tenantId, null)).withRel("updateTenants").withType("PUT");
-        Link findTenantByIdLink = linkTo(methodOn(TenantController.class).findTenantById(tenantId)).withRel("findTenantById").withType("GET");
-        Link findTenantByNameLink = linkTo(methodOn(TenantController.class).findTenantByName(tenantResponse.name())).withRel("findTenantByName").withType("GET");
-        Link deleteTenantByIdLink = linkTo(methodOn(TenantController.class).deleteTenantById(tenantId)).withRel("deleteTenantById").withType("DELETE");
-        return EntityModel.of(tenantResponse, selfLink, createLink, updateLink, findTenantByIdLink, findTenantByNameLink, deleteTenantByIdLink);
+    CollectionModel<EntityModel<TenantResponse>> toCollectionModel(List<TenantResponse> tenantResponses, Boolean compact, Link selfLink) {
+        String baseUri = LinkTemplates.currentBaseUri();
+        if (Boolean.TRUE.equals(compact)) {
+            List<EntityModel<TenantResponse>> entityModels = tenantResponses.stream()
+                    .map(EntityModel::of)
+                    .toList();
+            return CollectionModel.of(entityModels, selfLink).add(tenantLinks.templated(baseUri));
+        }
+        List<EntityModel<TenantResponse>> entityModels = tenantResponses.stream()
+                .map(tenantResponse -> addLinksToTenant(tenantResponse, baseUri))
+                .toList();
+        return CollectionModel.of(entityModels, selfLink);
+    }
+
+    EntityModel<TenantResponse> addLinksToTenant(TenantResponse tenantResponse) {
+        return addLinksToTenant(tenantResponse, LinkTemplates.currentBaseUri());
+    }
+
+    private EntityModel<TenantResponse> addLinksToTenant(TenantResponse tenantResponse, String baseUri) {
+        return EntityModel.of(tenantResponse, tenantLinks.expand(baseUri, tenantResponse.id(), tenantResponse.name()));
     }
 
 }
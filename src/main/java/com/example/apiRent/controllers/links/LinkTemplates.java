@@ -0,0 +1,202 @@
+package com.example.apiRent.controllers.links;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Set of controller links resolved once through {@code linkTo(methodOn(...))} and expanded per item
+ * by plain string concatenation. Variables are passed to {@code methodOn} as markers ({@link #id(int)}
+ * for UUIDs, {@link #text(int)} for strings) and located in the resolved href when the template is built.
+ */
+public final class LinkTemplates {
+
+    private static final String TEXT_MARKER = "__var%d__";
+    private static final String BASE_URI_ATTRIBUTE = LinkTemplates.class.getName() + ".baseUri";
+    private static final Pattern OPTIONAL_PARAMETERS = Pattern.compile("\\{[?&][^}]*}");
+
+    private final List<Template> templates;
+
+    private LinkTemplates(List<Template> templates) {
+        this.templates = templates;
+    }
+
+    public static UUID id(int index) {
+        return new UUID(0L, index + 1L);
+    }
+
+    public static String text(int index) {
+        return TEXT_MARKER.formatted(index);
+    }
+
+    public static Builder builder(String... variableNames) {
+        return new Builder(variableNames);
+    }
+
+    public static String currentBaseUri() {
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        String baseUri = (String) attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (baseUri == null) {
+            baseUri = ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString();
+            attributes.setAttribute(BASE_URI_ATTRIBUTE, baseUri, RequestAttributes.SCOPE_REQUEST);
+        }
+        return baseUri;
+    }
+
+    public List<Link> expand(String baseUri, Object... values) {
+        List<Link> links = new ArrayList<>(templates.size());
+        for (Template template : templates) {
+            links.add(template.expand(baseUri, values));
+        }
+        return links;
+    }
+
+    /**
+     * Links for a compact collection: one templated link per rel instead of one concrete link per item.
+     * Item-level self links become the collection's {@code item} link; the collection keeps its own self.
+     */
+    public List<Link> templated(String baseUri) {
+        List<Link> links = new ArrayList<>(templates.size());
+        for (Template template : templates) {
+            if (!template.rel.isSameAs(IanaLinkRelations.SELF)) {
+                links.add(Link.of(baseUri + template.templatedHref, template.rel).withType(template.type));
+            } else if (template.variables.length > 0) {
+                links.add(Link.of(baseUri + template.templatedHref, IanaLinkRelations.ITEM).withType(template.type));
+            }
+        }
+        return links;
+    }
+
+    public static final class Builder {
+
+        private final String[] variableNames;
+        private final List<Template> templates = new ArrayList<>();
+
+        private Builder(String[] variableNames) {
+            this.variableNames = variableNames;
+        }
+
+        public Builder add(Object invocationValue, LinkRelation rel, String type) {
+            String href = linkTo(invocationValue).withSelfRel().getHref();
+            templates.add(Template.compile(href, rel, type, variableNames));
+            return this;
+        }
+
+        public Builder add(Object invocationValue, String rel, String type) {
+            return add(invocationValue, LinkRelation.of(rel), type);
+        }
+
+        public LinkTemplates build() {
+            return new LinkTemplates(List.copyOf(templates));
+        }
+    }
+
+    private static final class Template {
+
+        private final String[] literals;
+        private final int[] variables;
+        private final boolean[] inQuery;
+        private final LinkRelation rel;
+        private final String type;
+        private final String templatedHref;
+
+        private Template(String[] literals, int[] variables, boolean[] inQuery, LinkRelation rel, String type, String templatedHref) {
+            this.literals = literals;
+            this.variables = variables;
+            this.inQuery = inQuery;
+            this.rel = rel;
+            this.type = type;
+            this.templatedHref = templatedHref;
+        }
+
+        static Template compile(String templatedLink, LinkRelation rel, String type, String[] variableNames) {
+            // Optional request parameters ({?page,size}) stay in the templated form only, so expanded links are
+            // plain URIs and Link does not have to parse a UriTemplate for every item.
+            String href = OPTIONAL_PARAMETERS.matcher(templatedLink).replaceAll("");
+            String optionalParameters = OPTIONAL_PARAMETERS.matcher(templatedLink).results()
+                    .map(MatchResult::group)
+                    .collect(Collectors.joining());
+            List<String> literals = new ArrayList<>();
+            List<Integer> variables = new ArrayList<>();
+            List<Boolean> inQuery = new ArrayList<>();
+            StringBuilder templatedHref = new StringBuilder();
+            int queryStart = href.indexOf('?');
+            int position = 0;
+
+            while (true) {
+                int next = -1;
+                int variable = -1;
+                String marker = null;
+                for (int i = 0; i < variableNames.length; i++) {
+                    for (String candidate : new String[]{id(i).toString(), text(i)}) {
+                        int found = href.indexOf(candidate, position);
+                        if (found >= 0 && (next < 0 || found < next)) {
+                            next = found;
+                            variable = i;
+                            marker = candidate;
+                        }
+                    }
+                }
+                if (next < 0) {
+                    break;
+                }
+                String literal = href.substring(position, next);
+                literals.add(literal);
+                variables.add(variable);
+                inQuery.add(queryStart >= 0 && next > queryStart);
+                templatedHref.append(literal).append('{').append(variableNames[variable]).append('}');
+                position = next + marker.length();
+            }
+            literals.add(href.substring(position));
+            templatedHref.append(href.substring(position)).append(optionalParameters);
+
+            boolean[] queryFlags = new boolean[inQuery.size()];
+            for (int i = 0; i < queryFlags.length; i++) {
+                queryFlags[i] = inQuery.get(i);
+            }
+            return new Template(
+                    literals.toArray(String[]::new),
+                    variables.stream().mapToInt(Integer::intValue).toArray(),
+                    queryFlags,
+                    rel,
+                    type,
+                    templatedHref.toString());
+        }
+
+        Link expand(String baseUri, Object[] values) {
+            StringBuilder href = new StringBuilder(baseUri.length() + templatedHref.length() + 48).append(baseUri);
+            for (int i = 0; i < variables.length; i++) {
+                href.append(literals[i]).append(encode(values[variables[i]], inQuery[i]));
+            }
+            href.append(literals[literals.length - 1]);
+            return Link.of(href.toString(), rel).withType(type);
+        }
+
+        private static String encode(Object value, boolean query) {
+            if (value == null) {
+                return "";
+            }
+            if (value instanceof UUID) {
+                return value.toString();
+            }
+            String text = value.toString();
+            return query
+                    ? UriUtils.encodeQueryParam(text, StandardCharsets.UTF_8)
+                    : UriUtils.encodePathSegment(text, StandardCharsets.UTF_8);
+        }
+    }
+}
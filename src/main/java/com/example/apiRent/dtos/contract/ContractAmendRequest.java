@@ -0,0 +1,20 @@
+package com.example.apiRent.dtos.contract;
+
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Renewal or amendment of an active contract. Fields left null keep their current value; the new
+ * monthly value applies to pending payments due on or after {@code effective_from} (today by default).
+ */
+public record ContractAmendRequest(
+        LocalDate end_date,
+
+        @Positive
+        BigDecimal monthly_value,
+
+        LocalDate effective_from
+) {
+}
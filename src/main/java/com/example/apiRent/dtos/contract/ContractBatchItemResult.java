@@ -0,0 +1,20 @@
+package com.example.apiRent.dtos.contract;
+
+import com.example.apiRent.enums.EnumBatchItemStatus;
+
+import java.util.UUID;
+
+public record ContractBatchItemResult(
+        int index,
+        EnumBatchItemStatus status,
+        UUID contractId,
+        String message
+) {
+    public static ContractBatchItemResult created(int index, UUID contractId) {
+        return new ContractBatchItemResult(index, EnumBatchItemStatus.CREATED, contractId, null);
+    }
+
+    public static ContractBatchItemResult rejected(int index, String message) {
+        return new ContractBatchItemResult(index, EnumBatchItemStatus.REJECTED, null, message);
+    }
+}
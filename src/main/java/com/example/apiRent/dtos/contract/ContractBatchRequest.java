@@ -0,0 +1,11 @@
+package com.example.apiRent.dtos.contract;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record ContractBatchRequest(
+        @NotEmpty
+        List<ContractRequest> contracts
+) {
+}
@@ -0,0 +1,10 @@
+package com.example.apiRent.dtos.contract;
+
+import java.util.List;
+
+public record ContractBatchResponse(
+        int created,
+        int rejected,
+        List<ContractBatchItemResult> results
+) {
+}
@@ -0,0 +1,42 @@
+package com.example.apiRent.dtos.contract;
+
+import com.example.apiRent.exceptions.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last contract returned in an owner or tenant page, ordered by start date
+ * and id, newest first.
+ */
+public record ContractCursor(
+        LocalDate start_date,
+        UUID id
+) {
+    private static final String SEPARATOR = "|";
+
+    public static ContractCursor after(ContractRow row) {
+        return new ContractCursor(row.start_date(), row.id());
+    }
+
+    public String encode() {
+        String raw = start_date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ContractCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 2) {
+                throw new InvalidRequestException("Malformed cursor " + token);
+            }
+            return new ContractCursor(LocalDate.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidRequestException("Malformed cursor " + token);
+        }
+    }
+}
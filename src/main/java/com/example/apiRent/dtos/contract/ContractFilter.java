@@ -0,0 +1,19 @@
+package com.example.apiRent.dtos.contract;
+
+import com.example.apiRent.enums.EnumContract;
+
+import java.util.UUID;
+
+public record ContractFilter(
+        UUID ownerId,
+        UUID tenantId,
+        EnumContract status
+) {
+    public static ContractFilter byOwner(UUID ownerId, EnumContract status) {
+        return new ContractFilter(ownerId, null, status);
+    }
+
+    public static ContractFilter byTenant(UUID tenantId, EnumContract status) {
+        return new ContractFilter(null, tenantId, status);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.apiRent.dtos.contract;
+
+import com.example.apiRent.dtos.owner.OwnerResponse;
+import com.example.apiRent.dtos.property.PropertyResponse;
+import com.example.apiRent.dtos.tenant.TenantResponse;
+import com.example.apiRent.enums.EnumContract;
+import com.example.apiRent.enums.EnumProperty;
+import com.example.apiRent.enums.EnumUser;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Flat projection of a contract joined with its property, tenant and owner. JPQL constructor
+ * expressions cannot nest, so the nested {@link ContractResponse} is assembled in {@link #toResponse()}.
+ */
+public record ContractRow(
+        UUID id,
+        LocalDate start_date,
+        LocalDate end_date,
+        BigDecimal monthly_value,
+        EnumContract status,
+        UUID propertyId,
+        String propertyTitle,
+        String propertyDescription,
+        String propertyAddress,
+        BigDecimal propertyPrice,
+        EnumProperty propertyStatus,
+        UUID tenantId,
+        String tenantName,
+        String tenantEmail,
+        EnumUser tenantRole,
+        UUID ownerId,
+        String ownerName,
+        EnumUser ownerRole,
+        String ownerEmail
+) {
+    public ContractResponse toResponse() {
+        return new ContractResponse(
+                id,
+                start_date,
+                end_date,
+                monthly_value,
+                status,
+                new PropertyResponse(propertyId, propertyTitle, propertyDescription, propertyAddress, propertyPrice, propertyStatus),
+                new TenantResponse(tenantId, tenantName, tenantEmail, tenantRole),
+                new OwnerResponse(ownerId, ownerName, ownerRole, ownerEmail));
+    }
+}
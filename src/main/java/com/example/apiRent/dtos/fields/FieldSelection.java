@@ -0,0 +1,84 @@
+package com.example.apiRent.dtos.fields;
+
+import com.example.apiRent.exceptions.InvalidRequestException;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldset and nested expansion requested through {@code ?fields=} and {@code ?expand=}. Both take
+ * comma-separated, dot-separated paths, e.g. {@code fields=id,amount,contract.status} or {@code expand=contract.owner}.
+ * Without {@code expand} every nested object is expanded; with it only the listed paths and their parents are,
+ * and the other nested objects are loaded and rendered as a bare id. A nested object left out of {@code fields}
+ * is neither loaded nor rendered.
+ */
+public record FieldSelection(
+        Set<String> fields,
+        Set<String> expand
+) {
+    public static final FieldSelection ALL = new FieldSelection(null, null);
+
+    public static FieldSelection parse(String[] fields, String[] expand) {
+        return new FieldSelection(split(fields), split(expand));
+    }
+
+    private static Set<String> split(String[] values) {
+        if (values == null) {
+            return null;
+        }
+        return Arrays.stream(values)
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public boolean isAll() {
+        return fields == null && expand == null;
+    }
+
+    /**
+     * Whether {@code path} is rendered: it is listed in {@code fields}, sits under a listed path, or has listed children.
+     */
+    public boolean selects(String path) {
+        if (fields == null) {
+            return true;
+        }
+        for (String field : fields) {
+            if (field.equals(path) || field.startsWith(path + ".") || path.startsWith(field + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the nested object at {@code path} is loaded and rendered in full rather than as a reference.
+     */
+    public boolean expands(String path) {
+        if (!selects(path)) {
+            return false;
+        }
+        if (expand == null) {
+            return true;
+        }
+        for (String expanded : expand) {
+            if (expanded.equals(path) || expanded.startsWith(path + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void requireExpandable(Set<String> expandable) {
+        if (expand == null) {
+            return;
+        }
+        for (String path : expand) {
+            if (!expandable.contains(path)) {
+                throw new InvalidRequestException("Cannot expand " + path + ", expected one of " + expandable.stream().sorted().toList());
+            }
+        }
+    }
+}
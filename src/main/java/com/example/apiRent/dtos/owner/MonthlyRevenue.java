@@ -0,0 +1,14 @@
+package com.example.apiRent.dtos.owner;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Revenue of the month starting on {@code month}: installments due in it, and payments received in it.
+ */
+public record MonthlyRevenue(
+        LocalDate month,
+        BigDecimal expected,
+        BigDecimal received
+) {
+}
@@ -17,4 +17,8 @@ public record OwnerResponse(
         String name,
         EnumUser role,
         String email
-){ }
+) {
+    public static OwnerResponse reference(UUID id) {
+        return new OwnerResponse(id, null, null, null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.apiRent.dtos.owner;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public record OwnerRevenueResponse(
+        UUID ownerId,
+        LocalDate from,
+        LocalDate to,
+        BigDecimal expected,
+        BigDecimal received,
+        List<MonthlyRevenue> months
+) {
+}
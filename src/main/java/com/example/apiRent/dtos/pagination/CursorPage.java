@@ -0,0 +1,12 @@
+package com.example.apiRent.dtos.pagination;
+
+import java.util.List;
+
+public record CursorPage<T>(
+        List<T> content,
+        String nextCursor
+) {
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
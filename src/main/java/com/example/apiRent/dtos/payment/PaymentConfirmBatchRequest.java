@@ -0,0 +1,16 @@
+package com.example.apiRent.dtos.payment;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+public record PaymentConfirmBatchRequest(
+        @NotNull
+        UUID ownerId,
+
+        @NotEmpty
+        List<UUID> paymentIds
+) {
+}
@@ -0,0 +1,10 @@
+package com.example.apiRent.dtos.payment;
+
+import java.util.List;
+
+public record PaymentConfirmBatchResponse(
+        int confirmed,
+        int rejected,
+        List<PaymentConfirmItemResult> results
+) {
+}
@@ -0,0 +1,20 @@
+package com.example.apiRent.dtos.payment;
+
+import com.example.apiRent.enums.EnumBatchItemStatus;
+
+import java.util.UUID;
+
+public record PaymentConfirmItemResult(
+        int index,
+        EnumBatchItemStatus status,
+        UUID paymentId,
+        String message
+) {
+    public static PaymentConfirmItemResult confirmed(int index, UUID paymentId) {
+        return new PaymentConfirmItemResult(index, EnumBatchItemStatus.CONFIRMED, paymentId, null);
+    }
+
+    public static PaymentConfirmItemResult rejected(int index, UUID paymentId, String message) {
+        return new PaymentConfirmItemResult(index, EnumBatchItemStatus.REJECTED, paymentId, message);
+    }
+}
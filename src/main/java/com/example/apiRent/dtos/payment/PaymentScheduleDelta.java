@@ -0,0 +1,22 @@
+package com.example.apiRent.dtos.payment;
+
+import com.example.apiRent.models.Payment;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Changes that bring a stored payment schedule in line with its contract: months to append, pending
+ * months to reprice to {@code amount} and pending months to drop. Settled payments are never touched.
+ */
+public record PaymentScheduleDelta(
+        List<Payment> appended,
+        List<UUID> repriced,
+        BigDecimal amount,
+        List<UUID> dropped
+) {
+    public boolean isEmpty() {
+        return appended.isEmpty() && repriced.isEmpty() && dropped.isEmpty();
+    }
+}
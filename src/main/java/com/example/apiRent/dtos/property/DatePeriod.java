@@ -0,0 +1,12 @@
+package com.example.apiRent.dtos.property;
+
+import java.time.LocalDate;
+
+/**
+ * Inclusive date interval, from {@code start_date} to {@code end_date}.
+ */
+public record DatePeriod(
+        LocalDate start_date,
+        LocalDate end_date
+) {
+}
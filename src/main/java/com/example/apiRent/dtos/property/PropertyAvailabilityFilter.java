@@ -0,0 +1,17 @@
+package com.example.apiRent.dtos.property;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Properties with no active lease between {@code from} and {@code to}, inclusive, priced within the optional range.
+ */
+public record PropertyAvailabilityFilter(
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        BigDecimal minPrice,
+        BigDecimal maxPrice
+) {
+}
@@ -0,0 +1,15 @@
+package com.example.apiRent.dtos.property;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public record PropertyAvailabilityResponse(
+        UUID propertyId,
+        LocalDate from,
+        LocalDate to,
+        boolean available,
+        List<DatePeriod> leased,
+        List<DatePeriod> free
+) {
+}
@@ -0,0 +1,55 @@
+package com.example.apiRent.dtos.property;
+
+import com.example.apiRent.enums.EnumPropertySort;
+import com.example.apiRent.exceptions.InvalidRequestException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last property returned in a listing page. Clients only see the
+ * encoded form, so the key layout can change without breaking the API.
+ */
+public record PropertyCursor(
+        EnumPropertySort sort,
+        BigDecimal price,
+        LocalDateTime created_at,
+        UUID id
+) {
+    private static final String SEPARATOR = "|";
+
+    public static PropertyCursor after(PropertyRow row, EnumPropertySort sort) {
+        return new PropertyCursor(sort, row.price(), row.created_at(), row.id());
+    }
+
+    public String encode() {
+        String key = sort == EnumPropertySort.PRICE ? price.toPlainString() : created_at.toString();
+        String raw = sort.name() + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PropertyCursor decode(String token, EnumPropertySort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 3) {
+                throw new InvalidRequestException("Malformed cursor " + token);
+            }
+            EnumPropertySort sort = EnumPropertySort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new InvalidRequestException("Cursor was issued for sort " + sort + " but sort " + expectedSort + " was requested");
+            }
+            UUID id = UUID.fromString(parts[2]);
+            if (sort == EnumPropertySort.PRICE) {
+                return new PropertyCursor(sort, new BigDecimal(parts[1]), null, id);
+            }
+            return new PropertyCursor(sort, null, LocalDateTime.parse(parts[1]), id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidRequestException("Malformed cursor " + token);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.apiRent.dtos.property;
+
+import com.example.apiRent.enums.EnumProperty;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record PropertyFilter(
+        EnumProperty status,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        UUID ownerId
+) {
+    public static PropertyFilter empty() {
+        return new PropertyFilter(null, null, null, null);
+    }
+}
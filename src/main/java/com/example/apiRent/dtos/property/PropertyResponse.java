@@ -13,4 +13,8 @@ public record PropertyResponse(
         String address,
         BigDecimal price,
         EnumProperty status
-) { }
+) {
+    public static PropertyResponse reference(UUID id) {
+        return new PropertyResponse(id, null, null, null, null, null);
+    }
+}
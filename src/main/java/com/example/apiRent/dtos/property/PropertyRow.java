@@ -0,0 +1,24 @@
+package com.example.apiRent.dtos.property;
+
+import com.example.apiRent.enums.EnumProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Listing projection: the {@link PropertyResponse} columns plus the keyset columns the cursor needs.
+ */
+public record PropertyRow(
+        UUID id,
+        String title,
+        String description,
+        String address,
+        BigDecimal price,
+        EnumProperty status,
+        LocalDateTime created_at
+) {
+    public PropertyResponse toResponse() {
+        return new PropertyResponse(id, title, description, address, price, status);
+    }
+}
@@ -12,4 +12,8 @@ public record TenantResponse(
         String name,
         String email,
         EnumUser role
-) { }
+) {
+    public static TenantResponse reference(UUID id) {
+        return new TenantResponse(id, null, null, null);
+    }
+}
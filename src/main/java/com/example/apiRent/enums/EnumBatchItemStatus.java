@@ -0,0 +1,7 @@
+package com.example.apiRent.enums;
+
+public enum EnumBatchItemStatus {
+    CREATED,
+    CONFIRMED,
+    REJECTED
+}
@@ -3,5 +3,6 @@ package com.example.apiRent.enums;
 public enum EnumContract {
     ACTIVE,
     TERMINATED,
+    EXPIRED,
     INADIMPLENT
 }
@@ -0,0 +1,6 @@
+package com.example.apiRent.enums;
+
+public enum EnumPropertySort {
+    PRICE,
+    RECENT
+}
@@ -0,0 +1,7 @@
+package com.example.apiRent.exceptions;
+
+public class ContractOverlapException extends RuntimeException {
+    public ContractOverlapException(String message) {
+        super(message);
+    }
+}
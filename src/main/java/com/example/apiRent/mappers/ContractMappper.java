@@ -2,7 +2,14 @@ package com.example.apiRent.mappers;
 
 import com.example.apiRent.dtos.contract.ContractRequest;
 import com.example.apiRent.dtos.contract.ContractResponse;
+import com.example.apiRent.dtos.fields.FieldSelection;
+import com.example.apiRent.dtos.owner.OwnerResponse;
+import com.example.apiRent.dtos.property.PropertyResponse;
+import com.example.apiRent.dtos.tenant.TenantResponse;
 import com.example.apiRent.models.Contract;
+import com.example.apiRent.models.Owner;
+import com.example.apiRent.models.Property;
+import com.example.apiRent.models.Tenant;
 import org.mapstruct.Mapper;
 
 import java.util.List;
@@ -12,4 +19,23 @@ public interface ContractMappper {
     Contract toEntity(ContractRequest request);
     ContractResponse toResponse(Contract contract);
     List<ContractResponse> toResponseList(List<Contract> contracts);
+    PropertyResponse toResponse(Property property);
+    TenantResponse toResponse(Tenant tenant);
+    OwnerResponse toResponse(Owner owner);
+
+    /**
+     * Maps only the associations {@code selection} expands under {@code prefix}. The others become references
+     * built from the proxy id, so they are never initialized.
+     */
+    default ContractResponse toResponse(Contract contract, FieldSelection selection, String prefix) {
+        return new ContractResponse(
+                contract.getId(),
+                contract.getStart_date(),
+                contract.getEnd_date(),
+                contract.getMonthly_value(),
+                contract.getStatus(),
+                selection.expands(prefix + "property") ? toResponse(contract.getProperty()) : PropertyResponse.reference(contract.getProperty().getId()),
+                selection.expands(prefix + "tenant") ? toResponse(contract.getTenant()) : TenantResponse.reference(contract.getTenant().getId()),
+                selection.expands(prefix + "owner") ? toResponse(contract.getOwner()) : OwnerResponse.reference(contract.getOwner().getId()));
+    }
 }
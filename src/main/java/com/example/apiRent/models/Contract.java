@@ -37,16 +37,22 @@ public class Contract {
     @Enumerated(EnumType.STRING)
     private EnumContract status;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tenant_id", nullable = false)
     private Tenant tenant;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     private Owner owner;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "property_id", nullable = false)
     private Property property;
 
+    @Column(name = "virtual_schedule", nullable = false)
+    private boolean virtual_schedule;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -37,7 +37,11 @@ public class Payment {
     @Enumerated(EnumType.STRING)
     private EnumPayment status;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "contract_id", nullable = false)
     private Contract contract;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
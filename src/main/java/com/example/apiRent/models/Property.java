@@ -10,6 +10,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
@@ -44,5 +45,10 @@ public class Property {
     @JoinColumn(name = "owner_id")
     private Owner owner;
 
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime created_at;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
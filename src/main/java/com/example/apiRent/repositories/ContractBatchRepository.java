@@ -0,0 +1,93 @@
+package com.example.apiRent.repositories;
+
+import com.example.apiRent.enums.EnumUser;
+import com.example.apiRent.models.Contract;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Set-based statements behind {@code POST /contracts/batch}. Id lists are bound as a single
+ * {@code uuid[]} parameter, so a lookup stays one statement however many ids it carries.
+ */
+@Repository
+public class ContractBatchRepository {
+
+    public static final int JDBC_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ContractBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Set<UUID> findOwnerIds(Collection<UUID> ids) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT o.id FROM owner o JOIN users u ON u.id = o.id WHERE o.id = ANY(?) AND u.role = ?",
+                UUID.class, ids.toArray(UUID[]::new), EnumUser.LOCATOR.name()));
+    }
+
+    public Set<UUID> findTenantIds(Collection<UUID> ids) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT t.id FROM tenant t JOIN users u ON u.id = t.id WHERE t.id = ANY(?) AND u.role = ?",
+                UUID.class, ids.toArray(UUID[]::new), EnumUser.TENANT.name()));
+    }
+
+    /**
+     * Locks the properties in {@code ids} in id order, as {@code findByIdForUpdate} does for a single contract,
+     * and returns the ones that exist. While they are held, no other transaction can add a lease to them.
+     */
+    public Set<UUID> lockProperties(Collection<UUID> ids) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM property WHERE id = ANY(?) ORDER BY id FOR UPDATE",
+                UUID.class, (Object) ids.toArray(UUID[]::new)));
+    }
+
+    /**
+     * Returns the ids of the {@code contracts} whose period overlaps an active lease of their property: the
+     * check {@code excl_contract_property_period} runs on insert, made per contract so one overlap does not
+     * abort the batch. Only reliable while the properties are locked.
+     */
+    public Set<UUID> findOverlapping(List<Contract> contracts) {
+        return new HashSet<>(jdbcTemplate.queryForList("""
+                SELECT r.id
+                FROM unnest(?::uuid[], ?::uuid[], ?::date[], ?::date[]) AS r(id, property_id, start_date, end_date)
+                WHERE EXISTS (
+                    SELECT 1 FROM contract c
+                    WHERE c.property_id = r.property_id AND c.status = 'ACTIVE'
+                      AND c.period && daterange(r.start_date, r.end_date, '[]')
+                )
+                """, UUID.class,
+                contracts.stream().map(Contract::getId).toArray(UUID[]::new),
+                contracts.stream().map(contract -> contract.getProperty().getId()).toArray(UUID[]::new),
+                contracts.stream().map(contract -> contract.getStart_date().toString()).toArray(String[]::new),
+                contracts.stream().map(contract -> contract.getEnd_date().toString()).toArray(String[]::new)));
+    }
+
+    public void markRented(Collection<UUID> ids) {
+        jdbcTemplate.update("UPDATE property SET status = 'RENTED', version = version + 1 WHERE id = ANY(?)",
+                (Object) ids.toArray(UUID[]::new));
+    }
+
+    public void insertContracts(List<Contract> contracts) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO contract (id, tenant_id, owner_id, property_id, status, start_date, end_date, monthly_value, virtual_schedule)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, contracts, JDBC_BATCH_SIZE, (ps, contract) -> {
+            ps.setObject(1, contract.getId());
+            ps.setObject(2, contract.getTenant().getId());
+            ps.setObject(3, contract.getOwner().getId());
+            ps.setObject(4, contract.getProperty().getId());
+            ps.setString(5, contract.getStatus().name());
+            ps.setObject(6, contract.getStart_date());
+            ps.setObject(7, contract.getEnd_date());
+            ps.setBigDecimal(8, contract.getMonthly_value());
+            ps.setBoolean(9, contract.isVirtual_schedule());
+        });
+    }
+}
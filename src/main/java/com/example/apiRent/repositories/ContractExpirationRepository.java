@@ -0,0 +1,66 @@
+package com.example.apiRent.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class ContractExpirationRepository {
+
+    public record ExpiredChunk(int expired, List<UUID> freedPropertyIds) { }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ContractExpirationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Expires up to {@code limit} active contracts that ended before {@code today} and frees their
+     * properties, in one statement. Candidates come from the partial index on active end dates and are
+     * locked with SKIP LOCKED, so concurrent runs split the work instead of waiting on each other.
+     * A property stays rented while another active contract still holds it.
+     */
+    public ExpiredChunk expireChunk(LocalDate today, int limit) {
+        List<UUID> freed = new ArrayList<>();
+        int[] expired = {0};
+        jdbcTemplate.query("""
+                WITH due AS (
+                    SELECT id FROM contract
+                    WHERE status = 'ACTIVE' AND end_date < ?
+                    ORDER BY end_date
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                ), expired AS (
+                    UPDATE contract c SET status = 'EXPIRED', version = c.version + 1
+                    FROM due
+                    WHERE c.id = due.id
+                    RETURNING c.id, c.property_id
+                ), freed AS (
+                    UPDATE property p SET status = 'AVAILABLE', version = p.version + 1
+                    WHERE p.status = 'RENTED'
+                      AND p.id IN (SELECT property_id FROM expired)
+                      AND NOT EXISTS (
+                          SELECT 1 FROM contract other
+                          WHERE other.property_id = p.id
+                            AND other.status = 'ACTIVE'
+                            AND other.id NOT IN (SELECT id FROM expired))
+                    RETURNING p.id
+                )
+                SELECT (SELECT count(*) FROM expired) AS expired, f.id AS property_id
+                FROM (SELECT 1) one
+                LEFT JOIN freed f ON true
+                """, rs -> {
+            expired[0] = rs.getInt("expired");
+            UUID propertyId = rs.getObject("property_id", UUID.class);
+            if (propertyId != null) {
+                freed.add(propertyId);
+            }
+        }, today, limit);
+        return new ExpiredChunk(expired[0], freed);
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.apiRent.repositories;
 
+import com.example.apiRent.enums.EnumContract;
 import com.example.apiRent.models.Contract;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,7 +10,10 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ContractRepository extends JpaRepository<Contract, UUID> {
-    Optional<Contract> findByTenantId(UUID tenantId);
-    Optional<Contract> findByOwnerId(UUID ownerId);
+public interface ContractRepository extends JpaRepository<Contract, UUID>, ContractRepositoryCustom {
+    @Override
+    @EntityGraph(attributePaths = {"property", "tenant", "owner"})
+    Optional<Contract> findById(UUID id);
+
+    boolean existsByPropertyIdAndStatusAndIdNot(UUID propertyId, EnumContract status, UUID id);
 }
@@ -0,0 +1,19 @@
+package com.example.apiRent.repositories;
+
+import com.example.apiRent.dtos.contract.ContractCursor;
+import com.example.apiRent.dtos.contract.ContractFilter;
+import com.example.apiRent.dtos.contract.ContractRow;
+import com.example.apiRent.dtos.fields.FieldSelection;
+import com.example.apiRent.models.Contract;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ContractRepositoryCustom {
+    List<ContractRow> findAllRows(FieldSelection selection);
+
+    List<ContractRow> findPage(ContractFilter filter, ContractCursor cursor, int limit, FieldSelection selection);
+
+    Optional<Contract> findById(UUID id, FieldSelection selection);
+}
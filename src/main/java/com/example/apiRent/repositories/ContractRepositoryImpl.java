@@ -0,0 +1,137 @@
+package com.example.apiRent.repositories;
+
+import com.example.apiRent.dtos.contract.ContractCursor;
+import com.example.apiRent.dtos.contract.ContractFilter;
+import com.example.apiRent.dtos.contract.ContractRow;
+import com.example.apiRent.dtos.fields.FieldSelection;
+import com.example.apiRent.enums.EnumProperty;
+import com.example.apiRent.enums.EnumUser;
+import com.example.apiRent.models.Contract;
+import com.example.apiRent.models.Owner;
+import com.example.apiRent.models.Property;
+import com.example.apiRent.models.Tenant;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.SpecHints;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public class ContractRepositoryImpl implements ContractRepositoryCustom {
+
+    private static final List<String> ASSOCIATIONS = List.of("property", "tenant", "owner");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Every contract, newest first. Associations outside the selection are not joined.
+     */
+    @Override
+    public List<ContractRow> findAllRows(FieldSelection selection) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ContractRow> query = cb.createQuery(ContractRow.class);
+        Root<Contract> root = query.from(Contract.class);
+        query.select(row(cb, root, selection))
+                .orderBy(cb.desc(root.get("start_date")), cb.desc(root.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * Keyset page over (start_date, id) descending for one owner or tenant. With a status the
+     * page is a range scan on the (owner_id | tenant_id, status, start_date, id) indexes from V11.
+     */
+    @Override
+    public List<ContractRow> findPage(ContractFilter filter, ContractCursor cursor, int limit, FieldSelection selection) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ContractRow> query = cb.createQuery(ContractRow.class);
+        Root<Contract> root = query.from(Contract.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.ownerId() != null) {
+            predicates.add(cb.equal(root.get("owner").get("id"), filter.ownerId()));
+        }
+        if (filter.tenantId() != null) {
+            predicates.add(cb.equal(root.get("tenant").get("id"), filter.tenantId()));
+        }
+        if (filter.status() != null) {
+            predicates.add(cb.equal(root.get("status"), filter.status()));
+        }
+
+        Path<UUID> id = root.get("id");
+        Path<LocalDate> startDate = root.get("start_date");
+        if (cursor != null) {
+            predicates.add(cb.lessThanOrEqualTo(startDate, cursor.start_date()));
+            predicates.add(cb.or(
+                    cb.lessThan(startDate, cursor.start_date()),
+                    cb.and(cb.equal(startDate, cursor.start_date()), cb.lessThan(id, cursor.id()))));
+        }
+
+        query.select(row(cb, root, selection))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(startDate), cb.desc(id));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Loads the contract with a fetch graph holding only the expanded associations; the others stay proxies.
+     */
+    @Override
+    public Optional<Contract> findById(UUID id, FieldSelection selection) {
+        EntityGraph<Contract> graph = entityManager.createEntityGraph(Contract.class);
+        for (String association : ASSOCIATIONS) {
+            if (selection.expands(association)) {
+                graph.addAttributeNodes(association);
+            }
+        }
+        return Optional.ofNullable(entityManager.find(Contract.class, id, Map.of(SpecHints.HINT_SPEC_FETCH_GRAPH, graph)));
+    }
+
+    /**
+     * Constructor projection of a contract. An association outside the selection is not joined: its id
+     * comes from the foreign key and its other columns are selected as nulls.
+     */
+    private CompoundSelection<ContractRow> row(CriteriaBuilder cb, Root<Contract> root, FieldSelection selection) {
+        List<Selection<?>> columns = new ArrayList<>(List.of(
+                root.get("id"), root.get("start_date"), root.get("end_date"), root.get("monthly_value"), root.get("status")));
+        if (selection.expands("property")) {
+            Join<Contract, Property> property = root.join("property");
+            columns.addAll(List.of(property.get("id"), property.get("title"), property.get("description"),
+                    property.get("address"), property.get("price"), property.get("status")));
+        } else {
+            columns.addAll(List.of(root.get("property").get("id"), cb.nullLiteral(String.class), cb.nullLiteral(String.class),
+                    cb.nullLiteral(String.class), cb.nullLiteral(BigDecimal.class), cb.nullLiteral(EnumProperty.class)));
+        }
+        if (selection.expands("tenant")) {
+            Join<Contract, Tenant> tenant = root.join("tenant");
+            columns.addAll(List.of(tenant.get("id"), tenant.get("name"), tenant.get("email"), tenant.get("role")));
+        } else {
+            columns.addAll(List.of(root.get("tenant").get("id"), cb.nullLiteral(String.class), cb.nullLiteral(String.class),
+                    cb.nullLiteral(EnumUser.class)));
+        }
+        if (selection.expands("owner")) {
+            Join<Contract, Owner> owner = root.join("owner");
+            columns.addAll(List.of(owner.get("id"), owner.get("name"), owner.get("role"), owner.get("email")));
+        } else {
+            columns.addAll(List.of(root.get("owner").get("id"), cb.nullLiteral(String.class), cb.nullLiteral(EnumUser.class),
+                    cb.nullLiteral(String.class)));
+        }
+        return cb.construct(ContractRow.class, columns.toArray(Selection[]::new));
+    }
+}
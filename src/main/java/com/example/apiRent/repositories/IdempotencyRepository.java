@@ -0,0 +1,87 @@
+package com.example.apiRent.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Requests seen under an {@code Idempotency-Key}, scoped by method and path. The statements run outside any
+ * transaction, so each one commits on its own and always reaches the primary: the table is unlogged and never
+ * reaches a replica.
+ */
+@Repository
+public class IdempotencyRepository {
+
+    /**
+     * A request under way has no {@code status} yet.
+     */
+    public record IdempotencyRecord(String fingerprint, Integer status, String contentType, byte[] body) {
+
+        public boolean isCompleted() {
+            return status != null;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts a record under way, held by {@code claimId}, and reports whether it did. An expired record is
+     * taken over, and so is one left under way for longer than {@code inFlightTimeout} by a node that died or
+     * stalled mid-request.
+     */
+    public boolean claim(String key, String scope, String fingerprint, UUID claimId, Duration ttl, Duration inFlightTimeout) {
+        return jdbcTemplate.update("""
+                INSERT INTO idempotency_request (idempotency_key, scope, fingerprint, claim_id, expires_at)
+                VALUES (?, ?, ?, ?, now() + ? * interval '1 millisecond')
+                ON CONFLICT (idempotency_key, scope) DO UPDATE
+                SET fingerprint = EXCLUDED.fingerprint, claim_id = EXCLUDED.claim_id, status = NULL, content_type = NULL, body = NULL,
+                    created_at = now(), expires_at = EXCLUDED.expires_at
+                WHERE idempotency_request.expires_at <= now()
+                   OR (idempotency_request.status IS NULL AND idempotency_request.created_at <= now() - ? * interval '1 millisecond')
+                """, key, scope, fingerprint, claimId, ttl.toMillis(), inFlightTimeout.toMillis()) == 1;
+    }
+
+    public Optional<IdempotencyRecord> find(String key, String scope) {
+        return jdbcTemplate.query("""
+                SELECT fingerprint, status, content_type, body
+                FROM idempotency_request
+                WHERE idempotency_key = ? AND scope = ? AND expires_at > now()
+                """, (rs, rowNum) -> new IdempotencyRecord(
+                rs.getString("fingerprint"),
+                rs.getObject("status", Integer.class),
+                rs.getString("content_type"),
+                rs.getBytes("body")), key, scope).stream().findFirst();
+    }
+
+    /**
+     * Stores the response under a claim still held by {@code claimId} and reports whether it did; a claim
+     * taken over meanwhile belongs to the newer request, whose response is the one kept.
+     */
+    public boolean complete(String key, String scope, UUID claimId, int status, String contentType, byte[] body) {
+        return jdbcTemplate.update("""
+                UPDATE idempotency_request SET status = ?, content_type = ?, body = ?
+                WHERE idempotency_key = ? AND scope = ? AND claim_id = ? AND status IS NULL
+                """, status, contentType, body, key, scope, claimId) == 1;
+    }
+
+    /**
+     * Drops a claim still held by {@code claimId} whose request failed, so a retry under the same key runs again.
+     */
+    public void release(String key, String scope, UUID claimId) {
+        jdbcTemplate.update("""
+                DELETE FROM idempotency_request
+                WHERE idempotency_key = ? AND scope = ? AND claim_id = ? AND status IS NULL
+                """, key, scope, claimId);
+    }
+
+    public int deleteExpired() {
+        return jdbcTemplate.update("DELETE FROM idempotency_request WHERE expires_at <= now()");
+    }
+}
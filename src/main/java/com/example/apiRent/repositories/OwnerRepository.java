@@ -1,8 +1,11 @@
 package com.example.apiRent.repositories;
 
+import com.example.apiRent.dtos.owner.OwnerResponse;
 import com.example.apiRent.enums.EnumUser;
 import com.example.apiRent.models.Owner;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,7 +14,19 @@ import java.util.UUID;
 
 @Repository
 public interface OwnerRepository extends JpaRepository<Owner, UUID> {
-    List<Owner> findByNameContainingIgnoreCase(String name);
     Optional<Owner> findByIdAndRole(UUID id, EnumUser role);
 
+    @Query("SELECT new com.example.apiRent.dtos.owner.OwnerResponse(o.id, o.name, o.role, o.email) FROM Owner o")
+    List<OwnerResponse> findAllResponses();
+
+    /**
+     * Case-insensitive match on any part of the name. {@code %} and {@code _} in the search term are escaped, so they match
+     * themselves instead of acting as wildcards.
+     */
+    @Query("""
+            SELECT new com.example.apiRent.dtos.owner.OwnerResponse(o.id, o.name, o.role, o.email)
+            FROM Owner o
+            WHERE UPPER(o.name) LIKE UPPER(CONCAT('%', REPLACE(REPLACE(REPLACE(:name, '!', '!!'), '%', '!%'), '_', '!_'), '%')) ESCAPE '!'
+            """)
+    List<OwnerResponse> findResponsesByName(@Param("name") String name);
 }
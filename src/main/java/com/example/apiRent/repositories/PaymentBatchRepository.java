@@ -0,0 +1,70 @@
+package com.example.apiRent.repositories;
+
+import com.example.apiRent.enums.EnumPayment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Set-based statements behind {@code PATCH /payments/confirm}; the ids travel as a single {@code uuid[]}.
+ */
+@Repository
+public class PaymentBatchRepository {
+
+    public record PaymentOwnership(EnumPayment status, UUID ownerId, boolean ownerIsLocator) { }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PaymentBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Status and contract owner of every payment in {@code ids} that exists, with whether the owner still has
+     * the LOCATOR role that {@code PaymentConfirmationRepository.confirm} requires.
+     */
+    public Map<UUID, PaymentOwnership> findOwnership(Collection<UUID> ids) {
+        Map<UUID, PaymentOwnership> ownership = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT p.id, p.status, c.owner_id, o.role = 'LOCATOR' AS owner_is_locator
+                FROM payment p
+                JOIN contract c ON c.id = p.contract_id
+                JOIN users o ON o.id = c.owner_id
+                WHERE p.id = ANY(?)
+                """, rs -> {
+            ownership.put(rs.getObject("id", UUID.class), new PaymentOwnership(
+                    EnumPayment.valueOf(rs.getString("status")),
+                    rs.getObject("owner_id", UUID.class),
+                    rs.getBoolean("owner_is_locator")));
+        }, (Object) ids.toArray(UUID[]::new));
+        return ownership;
+    }
+
+    /**
+     * Marks the payments in {@code ids} as paid and returns the ones it changed. The rows are locked in id
+     * order first, as {@code OwnerRevenueRepository.subtractContracts} does, so the two never wait on each
+     * other in a cycle; the overdue job skips locked rows instead of waiting. The status guard, re-checked
+     * once a lock is granted, leaves out a payment confirmed by a concurrent request since it was checked.
+     */
+    public Set<UUID> confirm(Collection<UUID> ids, LocalDate paymentDate) {
+        return new HashSet<>(jdbcTemplate.queryForList("""
+                WITH locked AS (
+                    SELECT id FROM payment
+                    WHERE id = ANY(?) AND status IN ('PENDING', 'OVERDUE')
+                    ORDER BY id
+                    FOR UPDATE
+                )
+                UPDATE payment p SET status = 'PAID', payment_date = ?, version = p.version + 1
+                FROM locked
+                WHERE p.id = locked.id
+                RETURNING p.id
+                """, UUID.class, ids.toArray(UUID[]::new), paymentDate));
+    }
+}
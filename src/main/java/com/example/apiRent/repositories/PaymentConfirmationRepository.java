@@ -0,0 +1,73 @@
+package com.example.apiRent.repositories;
+
+import com.example.apiRent.dtos.contract.ContractRow;
+import com.example.apiRent.dtos.payment.PaymentResponse;
+import com.example.apiRent.enums.EnumContract;
+import com.example.apiRent.enums.EnumProperty;
+import com.example.apiRent.enums.EnumUser;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public class PaymentConfirmationRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PaymentConfirmationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Confirms the payment when it belongs to a contract of {@code ownerId} and is still pending or overdue,
+     * and returns it with its contract, in one statement. Empty when any condition fails; the row lock taken
+     * by the UPDATE makes a concurrent confirmation re-check the status and come back empty.
+     */
+    public Optional<PaymentResponse> confirm(UUID id, UUID ownerId, LocalDate paymentDate) {
+        return jdbcTemplate.query("""
+                UPDATE payment p SET status = 'PAID', payment_date = ?, version = p.version + 1
+                FROM contract c
+                JOIN property pr ON pr.id = c.property_id
+                JOIN users t ON t.id = c.tenant_id
+                JOIN users o ON o.id = c.owner_id
+                WHERE p.id = ?
+                  AND c.id = p.contract_id
+                  AND c.owner_id = ?
+                  AND o.role = 'LOCATOR'
+                  AND p.status IN ('PENDING', 'OVERDUE')
+                RETURNING p.id, p.due_date, p.payment_date, p.amount,
+                          c.id AS contract_id, c.start_date, c.end_date, c.monthly_value, c.status AS contract_status,
+                          pr.id AS property_id, pr.title, pr.description, pr.address, pr.price, pr.status AS property_status,
+                          t.id AS tenant_id, t.name AS tenant_name, t.email AS tenant_email, t.role AS tenant_role,
+                          o.id AS owner_id, o.name AS owner_name, o.role AS owner_role, o.email AS owner_email
+                """, (rs, rowNum) -> new PaymentResponse(
+                rs.getObject("id", UUID.class),
+                rs.getObject("due_date", LocalDate.class),
+                rs.getObject("payment_date", LocalDate.class),
+                rs.getBigDecimal("amount"),
+                new ContractRow(
+                        rs.getObject("contract_id", UUID.class),
+                        rs.getObject("start_date", LocalDate.class),
+                        rs.getObject("end_date", LocalDate.class),
+                        rs.getBigDecimal("monthly_value"),
+                        EnumContract.valueOf(rs.getString("contract_status")),
+                        rs.getObject("property_id", UUID.class),
+                        rs.getString("title"),
+                        rs.getString("description"),
+                        rs.getString("address"),
+                        rs.getBigDecimal("price"),
+                        EnumProperty.valueOf(rs.getString("property_status")),
+                        rs.getObject("tenant_id", UUID.class),
+                        rs.getString("tenant_name"),
+                        rs.getString("tenant_email"),
+                        EnumUser.valueOf(rs.getString("tenant_role")),
+                        rs.getObject("owner_id", UUID.class),
+                        rs.getString("owner_name"),
+                        EnumUser.valueOf(rs.getString("owner_role")),
+                        rs.getString("owner_email")).toResponse()),
+                paymentDate, id, ownerId).stream().findFirst();
+    }
+}
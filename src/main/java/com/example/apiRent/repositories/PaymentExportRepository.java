@@ -0,0 +1,79 @@
+package com.example.apiRent.repositories;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+/**
+ * Reads the payment ledger for the export through a server-side cursor: with a fetch size and autocommit off,
+ * which the caller's transaction provides, the driver holds {@code fetchSize} rows at a time however long the
+ * range is. Columns are read as the text the server sends, so nothing is parsed only to be printed again.
+ */
+@Repository
+public class PaymentExportRepository {
+
+    /**
+     * A payment as exported. An installment of a virtual schedule has no {@code id} yet. As in
+     * {@code PaymentService.findPaymentByContract}, the virtual installments are listed whatever the contract's
+     * status, just as the stored ones of a terminated contract are.
+     */
+    public record PaymentExportRow(String id, String contractId, String ownerId, String tenantId, String propertyId,
+                                   String dueDate, String paymentDate, String amount, String status) { }
+
+    private static final String SQL = """
+            SELECT p.id::text, p.contract_id::text, c.owner_id::text, c.tenant_id::text, c.property_id::text,
+                   p.due_date::text, p.payment_date::text, p.amount::text, p.status
+            FROM payment p
+            JOIN contract c ON c.id = p.contract_id
+            WHERE p.due_date BETWEEN ? AND ?
+            UNION ALL
+            SELECT NULL, c.id::text, c.owner_id::text, c.tenant_id::text, c.property_id::text,
+                   d::date::text, NULL, c.monthly_value::text, 'PENDING'
+            FROM contract c
+            CROSS JOIN LATERAL generate_series(c.start_date::timestamp, c.end_date::timestamp, interval '1 month') AS d
+            WHERE c.virtual_schedule
+              AND c.start_date <= ? AND c.end_date >= ?
+              AND d::date BETWEEN ? AND ?
+              AND NOT EXISTS (SELECT 1 FROM payment p WHERE p.contract_id = c.id AND p.due_date = d::date)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public PaymentExportRepository(JdbcTemplate jdbcTemplate, @Value("${payments.export.fetch-size}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Payments and virtual installments due from {@code from} through {@code to}, in no particular order, so the
+     * first rows are sent before the last ones are read. The bounds on {@code due_date} prune the partitions
+     * outside the range. The stream holds the connection's cursor and must be closed.
+     */
+    public Stream<PaymentExportRow> streamByDueDate(LocalDate from, LocalDate to) {
+        return jdbcTemplate.queryForStream(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SQL);
+            statement.setFetchSize(fetchSize);
+            statement.setObject(1, from);
+            statement.setObject(2, to);
+            statement.setObject(3, to);
+            statement.setObject(4, from);
+            statement.setObject(5, from);
+            statement.setObject(6, to);
+            return statement;
+        }, (rs, rowNum) -> new PaymentExportRow(
+                rs.getString(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getString(5),
+                rs.getString(6),
+                rs.getString(7),
+                rs.getString(8),
+                rs.getString(9)));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.apiRent.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * Chunks of the overdue job. Candidates are locked with {@code FOR NO KEY UPDATE SKIP LOCKED}, so workers
+ * on any number of threads or nodes split the rows instead of queueing on them, and a row held by
+ * {@code confirmPayment} is simply left for the next run. The weaker lock mode also lets payment inserts
+ * check their contract foreign key while a chunk holds it.
+ */
+@Repository
+public class PaymentOverdueRepository {
+
+    public record VirtualChunk(int contracts, int overdue) { }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PaymentOverdueRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Moves up to {@code limit} pending payments of active contracts due before {@code today} to OVERDUE. The
+     * version is left alone: confirming a payment read as pending is still valid once it is overdue. The
+     * update matches on the whole primary key, {@code id} and {@code due_date}, so the planner can prune the
+     * partitions that hold none of the chunk.
+     */
+    public int markChunk(LocalDate today, int limit) {
+        return jdbcTemplate.update("""
+                WITH due AS (
+                    SELECT p.id, p.due_date FROM payment p
+                    JOIN contract c ON c.id = p.contract_id
+                    WHERE p.status = 'PENDING' AND p.due_date < ? AND c.status = 'ACTIVE'
+                    ORDER BY p.due_date
+                    LIMIT ?
+                    FOR NO KEY UPDATE OF p SKIP LOCKED
+                )
+                UPDATE payment p SET status = 'OVERDUE'
+                FROM due
+                WHERE p.id = due.id AND p.due_date = due.due_date
+                """, today, limit);
+    }
+
+    /**
+     * Writes the installments of up to {@code limit} virtual schedules that fell due since the contract was
+     * last processed as OVERDUE rows; months that already have a row keep it. Only active contracts are read,
+     * as in {@code markChunk}. Contracts whose schedule has ended are marked through
+     * {@code infinity} and leave the index.
+     */
+    public VirtualChunk materializeChunk(LocalDate today, int limit) {
+        return jdbcTemplate.queryForObject("""
+                WITH due AS (
+                    SELECT id, start_date, end_date, monthly_value, coalesce(overdue_marked_until, start_date) AS marked_from
+                    FROM contract
+                    WHERE virtual_schedule AND status = 'ACTIVE' AND coalesce(overdue_marked_until, start_date) < ?
+                    ORDER BY coalesce(overdue_marked_until, start_date)
+                    LIMIT ?
+                    FOR NO KEY UPDATE SKIP LOCKED
+                ), marked AS (
+                    UPDATE contract c SET overdue_marked_until = CASE WHEN due.end_date < ? THEN 'infinity'::date ELSE ? END
+                    FROM due
+                    WHERE c.id = due.id
+                    RETURNING c.id
+                ), overdue AS (
+                    INSERT INTO payment (contract_id, amount, due_date, status)
+                    SELECT due.id, due.monthly_value, d::date, 'OVERDUE'
+                    FROM due
+                    CROSS JOIN LATERAL generate_series(due.start_date::timestamp, due.end_date::timestamp, interval '1 month') AS d
+                    WHERE d >= due.marked_from AND d < ?
+                    ON CONFLICT (contract_id, due_date) DO NOTHING
+                    RETURNING 1
+                )
+                SELECT (SELECT count(*) FROM marked) AS contracts, (SELECT count(*) FROM overdue) AS overdue
+                """, (rs, rowNum) -> new VirtualChunk(rs.getInt("contracts"), rs.getInt("overdue")),
+                today, limit, today, today, today);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.apiRent.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * {@code payment} is range-partitioned by year of {@code due_date}; rows of a year without a partition
+ * land in {@code payment_default}.
+ */
+@Repository
+public class PaymentPartitionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PaymentPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Creates the missing yearly partitions from {@code from} through {@code through} and returns how many.
+     * The rows a new partition covers are moved out of the default partition in the same statement.
+     */
+    public int createPartitions(LocalDate from, LocalDate through) {
+        return jdbcTemplate.queryForObject("SELECT create_payment_partitions(?, ?)", Integer.class, from, through);
+    }
+}
@@ -1,14 +1,16 @@
 package com.example.apiRent.repositories;
 
 import com.example.apiRent.models.Payment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, UUID> {
-    List<Payment> findAllByContractId(UUID id);
+public interface PaymentRepository extends JpaRepository<Payment, UUID>, PaymentRepositoryCustom {
+    @Override
+    @EntityGraph(attributePaths = {"contract", "contract.property", "contract.tenant", "contract.owner"})
+    Optional<Payment> findById(UUID id);
 }
@@ -0,0 +1,14 @@
+package com.example.apiRent.repositories;
+
+import com.example.apiRent.dtos.fields.FieldSelection;
+import com.example.apiRent.models.Payment;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface PaymentRepositoryCustom {
+    Optional<Payment> findById(UUID id, FieldSelection selection);
+
+    List<Payment> findAllByContractId(UUID contractId, FieldSelection selection);
+}
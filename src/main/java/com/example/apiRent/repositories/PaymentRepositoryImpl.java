@@ -0,0 +1,51 @@
+package com.example.apiRent.repositories;
+
+import com.example.apiRent.dtos.fields.FieldSelection;
+import com.example.apiRent.models.Contract;
+import com.example.apiRent.models.Payment;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Subgraph;
+import org.hibernate.jpa.SpecHints;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public class PaymentRepositoryImpl implements PaymentRepositoryCustom {
+
+    private static final List<String> CONTRACT_ASSOCIATIONS = List.of("property", "tenant", "owner");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Payment> findById(UUID id, FieldSelection selection) {
+        return Optional.ofNullable(entityManager.find(Payment.class, id, Map.of(SpecHints.HINT_SPEC_FETCH_GRAPH, fetchGraph(selection))));
+    }
+
+    @Override
+    public List<Payment> findAllByContractId(UUID contractId, FieldSelection selection) {
+        return entityManager.createQuery("SELECT p FROM Payment p WHERE p.contract.id = :contractId", Payment.class)
+                .setParameter("contractId", contractId)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, fetchGraph(selection))
+                .getResultList();
+    }
+
+    /**
+     * The contract row is always fetched, since payment links need its owner id. Its property, tenant
+     * and owner are joined only when expanded.
+     */
+    private EntityGraph<Payment> fetchGraph(FieldSelection selection) {
+        EntityGraph<Payment> graph = entityManager.createEntityGraph(Payment.class);
+        Subgraph<Contract> contract = graph.addSubgraph("contract");
+        for (String association : CONTRACT_ASSOCIATIONS) {
+            if (selection.expands("contract." + association)) {
+                contract.addAttributeNodes(association);
+            }
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.apiRent.repositories;
+
+import com.example.apiRent.enums.EnumPayment;
+import com.example.apiRent.models.Contract;
+import com.example.apiRent.models.Payment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class PaymentScheduleRepository {
+
+    public record ScheduledPayment(UUID id, LocalDate due_date, BigDecimal amount, EnumPayment status) { }
+
+    private static final int JDBC_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PaymentScheduleRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<ScheduledPayment> findSchedule(UUID contractId) {
+        return jdbcTemplate.query("""
+                SELECT id, due_date, amount, status FROM payment
+                WHERE contract_id = ?
+                ORDER BY due_date
+                """, (rs, rowNum) -> new ScheduledPayment(
+                rs.getObject("id", UUID.class),
+                rs.getObject("due_date", LocalDate.class),
+                rs.getBigDecimal("amount"),
+                EnumPayment.valueOf(rs.getString("status"))), contractId);
+    }
+
+    /**
+     * Writes the whole monthly schedule of every contract in one statement. The contracts travel as four
+     * parallel arrays and the due dates are expanded server-side by {@code generate_series}, which steps one
+     * month at a time from the previous date, as {@code PaymentService#buildSchedule} does with
+     * {@code plusMonths}; a contract starting on the 31st therefore moves to the 28th after February in both.
+     */
+    public int insertSchedules(List<Contract> contracts) {
+        return jdbcTemplate.update("""
+                INSERT INTO payment (contract_id, amount, due_date, status)
+                SELECT c.id, c.amount, d::date, 'PENDING'
+                FROM unnest(?::uuid[], ?::date[], ?::date[], ?::numeric[]) AS c(id, start_date, end_date, amount)
+                CROSS JOIN LATERAL generate_series(c.start_date::timestamp, c.end_date::timestamp, interval '1 month') AS d
+                """,
+                contracts.stream().map(Contract::getId).toArray(UUID[]::new),
+                contracts.stream().map(contract -> contract.getStart_date().toString()).toArray(String[]::new),
+                contracts.stream().map(contract -> contract.getEnd_date().toString()).toArray(String[]::new),
+                contracts.stream().map(contract -> contract.getMonthly_value().toPlainString()).toArray(String[]::new));
+    }
+
+    /**
+     * Writes the installments of a virtual schedule due before {@code before} at the contract's monthly value.
+     * Months that already have a row are left as they are.
+     */
+    public int materializeBefore(Contract contract, LocalDate before) {
+        return jdbcTemplate.update("""
+                INSERT INTO payment (contract_id, amount, due_date, status)
+                SELECT ?, ?, d::date, 'PENDING'
+                FROM generate_series(?::timestamp, ?::timestamp, interval '1 month') AS d
+                WHERE d < ?
+                ON CONFLICT (contract_id, due_date) DO NOTHING
+                """, contract.getId(), contract.getMonthly_value(), contract.getStart_date(), contract.getEnd_date(), before);
+    }
+
+    /**
+     * Returns the id of the contract's installment due on {@code dueDate}, writing it as pending first when
+     * it is still virtual.
+     */
+    public UUID materialize(Contract contract, LocalDate dueDate) {
+        jdbcTemplate.update("""
+                INSERT INTO payment (contract_id, amount, due_date, status)
+                VALUES (?, ?, ?, 'PENDING')
+                ON CONFLICT (contract_id, due_date) DO NOTHING
+                """, contract.getId(), contract.getMonthly_value(), dueDate);
+        return jdbcTemplate.queryForObject("SELECT id FROM payment WHERE contract_id = ? AND due_date = ?",
+                UUID.class, contract.getId(), dueDate);
+    }
+
+    public void insertPayments(List<Payment> payments) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO payment (contract_id, amount, due_date, status)
+                VALUES (?, ?, ?, ?)
+                """, payments, JDBC_BATCH_SIZE, (ps, payment) -> {
+            ps.setObject(1, payment.getContract().getId());
+            ps.setBigDecimal(2, payment.getAmount());
+            ps.setObject(3, payment.getDue_date());
+            ps.setString(4, payment.getStatus().name());
+        });
+    }
+
+    /**
+     * The status guard keeps a payment confirmed after the schedule was read at its original amount.
+     * Repriced payments are all due on or after {@code effectiveFrom}, which also prunes the partitions of
+     * earlier years.
+     */
+    public int repricePending(Collection<UUID> ids, BigDecimal amount, LocalDate effectiveFrom) {
+        return jdbcTemplate.update("""
+                UPDATE payment SET amount = ?, version = version + 1
+                WHERE id = ANY(?) AND status = 'PENDING' AND due_date >= ?
+                """, amount, ids.toArray(UUID[]::new), effectiveFrom);
+    }
+
+    public int deletePending(Collection<UUID> ids) {
+        return jdbcTemplate.update("""
+                DELETE FROM payment
+                WHERE id = ANY(?) AND status = 'PENDING'
+                """, (Object) ids.toArray(UUID[]::new));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.apiRent.repositories;
+
+import com.example.apiRent.dtos.property.DatePeriod;
+import com.example.apiRent.dtos.property.PropertyAvailabilityFilter;
+import com.example.apiRent.dtos.property.PropertyCursor;
+import com.example.apiRent.dtos.property.PropertyRow;
+import com.example.apiRent.enums.EnumProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public class PropertyAvailabilityRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PropertyAvailabilityRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Active leases of a property overlapping {@code [from, to]}, ordered by start date, or empty when the
+     * property does not exist. The outer join keeps both answers in one statement, and the overlap test
+     * is served by the GiST index behind the contract period exclusion constraint.
+     */
+    public Optional<List<DatePeriod>> findLeasedPeriods(UUID propertyId, LocalDate from, LocalDate to) {
+        boolean[] found = {false};
+        List<DatePeriod> leased = new ArrayList<>();
+        jdbcTemplate.query("""
+                SELECT c.start_date, c.end_date
+                FROM property p
+                LEFT JOIN contract c ON c.property_id = p.id
+                    AND c.status = 'ACTIVE'
+                    AND c.period && daterange(?::date, ?::date, '[]')
+                WHERE p.id = ?
+                ORDER BY c.start_date
+                """, rs -> {
+            found[0] = true;
+            LocalDate startDate = rs.getObject("start_date", LocalDate.class);
+            if (startDate != null) {
+                leased.add(new DatePeriod(startDate, rs.getObject("end_date", LocalDate.class)));
+            }
+        }, from, to, propertyId);
+        return found[0] ? Optional.of(leased) : Optional.empty();
+    }
+
+    /**
+     * Keyset page over (price, id) of properties without an active lease overlapping the filter window.
+     * The price range and cursor are a range scan on idx_property_price_id, and each candidate is
+     * checked by an anti-join probe into the exclusion constraint's GiST index. That index is partial on
+     * ACTIVE contracts, so expired and terminated history never reaches the probe.
+     */
+    public List<PropertyRow> findAvailablePage(PropertyAvailabilityFilter filter, PropertyCursor cursor, int limit) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT p.id, p.title, p.description, p.address, p.price, p.status, p.created_at
+                FROM property p
+                WHERE NOT EXISTS (
+                    SELECT 1 FROM contract c
+                    WHERE c.property_id = p.id
+                      AND c.status = 'ACTIVE'
+                      AND c.period && daterange(?::date, ?::date, '[]'))
+                """);
+        List<Object> args = new ArrayList<>(List.of(filter.from(), filter.to()));
+        if (filter.minPrice() != null) {
+            sql.append(" AND p.price >= ?");
+            args.add(filter.minPrice());
+        }
+        if (filter.maxPrice() != null) {
+            sql.append(" AND p.price <= ?");
+            args.add(filter.maxPrice());
+        }
+        if (cursor != null) {
+            sql.append(" AND (p.price, p.id) > (?, ?)");
+            args.add(cursor.price());
+            args.add(cursor.id());
+        }
+        sql.append(" ORDER BY p.price, p.id LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new PropertyRow(
+                rs.getObject("id", UUID.class),
+                rs.getString("title"),
+                rs.getString("description"),
+                rs.getString("address"),
+                rs.getBigDecimal("price"),
+                EnumProperty.valueOf(rs.getString("status")),
+                rs.getObject("created_at", LocalDateTime.class)), args.toArray());
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.apiRent.repositories;
 
-import com.example.apiRent.enums.EnumProperty;
+import com.example.apiRent.dtos.property.PropertyResponse;
 import com.example.apiRent.enums.EnumUser;
 import com.example.apiRent.models.Owner;
 import com.example.apiRent.models.Property;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,7 +17,30 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PropertyRepository extends JpaRepository<Property, UUID> {
-    List<Property> findByTitleContainingIgnoreCase(String title);
-    Optional<Property> findByIdAndStatus(UUID id, EnumProperty role);
+public interface PropertyRepository extends JpaRepository<Property, UUID>, PropertyRepositoryCustom {
+    /**
+     * Serializes lease writes per property. Two transactions inserting overlapping periods concurrently
+     * would otherwise wait on each other inside the exclusion constraint check and deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Property p WHERE p.id = :id")
+    Optional<Property> findByIdForUpdate(@Param("id") UUID id);
+    /**
+     * Case-insensitive match on any part of the title. {@code %} and {@code _} in the search term are escaped, so they match
+     * themselves instead of acting as wildcards.
+     */
+    @Query("""
+            SELECT new com.example.apiRent.dtos.property.PropertyResponse(p.id, p.title, p.description, p.address, p.price, p.status)
+            FROM Property p
+            WHERE UPPER(p.title) LIKE UPPER(CONCAT('%', REPLACE(REPLACE(REPLACE(:title, '!', '!!'), '%', '!%'), '_', '!_'), '%')) ESCAPE '!'
+            """)
+    List<PropertyResponse> findResponsesByTitle(@Param("title") String title, Limit limit);
+
+    @Query(value = """
+            SELECT p.* FROM property p
+            WHERE :query <% p.title OR :query <% p.description OR :query <% p.address
+            ORDER BY GREATEST(word_similarity(:query, p.title), word_similarity(:query, p.description), word_similarity(:query, p.address)) DESC, p.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Property> searchBySimilarity(@Param("query") String query, @Param("limit") int limit);
 }
@@ -0,0 +1,13 @@
+package com.example.apiRent.repositories;
+
+import com.example.apiRent.dtos.property.PropertyCursor;
+import com.example.apiRent.dtos.property.PropertyFilter;
+import com.example.apiRent.dtos.property.PropertyRow;
+import com.example.apiRent.enums.EnumPropertySort;
+import com.example.apiRent.models.Property;
+
+import java.util.List;
+
+public interface PropertyRepositoryCustom {
+    List<PropertyRow> findPage(PropertyFilter filter, EnumPropertySort sort, PropertyCursor cursor, int limit);
+}
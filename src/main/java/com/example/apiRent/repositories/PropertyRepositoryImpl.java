@@ -0,0 +1,83 @@
+package com.example.apiRent.repositories;
+
+import com.example.apiRent.dtos.property.PropertyCursor;
+import com.example.apiRent.dtos.property.PropertyFilter;
+import com.example.apiRent.dtos.property.PropertyRow;
+import com.example.apiRent.enums.EnumPropertySort;
+import com.example.apiRent.models.Property;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class PropertyRepositoryImpl implements PropertyRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Keyset page over (price, id) ascending or (created_at, id) descending. Only the
+     * filters that are set reach the WHERE clause, so each combination can use one of
+     * the composite indexes from V7. Rows are selected as a constructor projection, so nothing
+     * enters the persistence context.
+     */
+    @Override
+    public List<PropertyRow> findPage(PropertyFilter filter, EnumPropertySort sort, PropertyCursor cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PropertyRow> query = cb.createQuery(PropertyRow.class);
+        Root<Property> root = query.from(Property.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.status() != null) {
+            predicates.add(cb.equal(root.get("status"), filter.status()));
+        }
+        if (filter.minPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.minPrice()));
+        }
+        if (filter.maxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.maxPrice()));
+        }
+        if (filter.ownerId() != null) {
+            predicates.add(cb.equal(root.get("owner").get("id"), filter.ownerId()));
+        }
+
+        Path<UUID> id = root.get("id");
+        if (sort == EnumPropertySort.PRICE) {
+            Path<BigDecimal> price = root.get("price");
+            if (cursor != null) {
+                // The redundant bound on the leading column lets PostgreSQL start an index range scan at the cursor.
+                predicates.add(cb.greaterThanOrEqualTo(price, cursor.price()));
+                predicates.add(cb.or(
+                        cb.greaterThan(price, cursor.price()),
+                        cb.and(cb.equal(price, cursor.price()), cb.greaterThan(id, cursor.id()))));
+            }
+            query.orderBy(cb.asc(price), cb.asc(id));
+        } else {
+            Path<LocalDateTime> createdAt = root.get("created_at");
+            if (cursor != null) {
+                predicates.add(cb.lessThanOrEqualTo(createdAt, cursor.created_at()));
+                predicates.add(cb.or(
+                        cb.lessThan(createdAt, cursor.created_at()),
+                        cb.and(cb.equal(createdAt, cursor.created_at()), cb.lessThan(id, cursor.id()))));
+            }
+            query.orderBy(cb.desc(createdAt), cb.desc(id));
+        }
+
+        query.select(cb.construct(PropertyRow.class,
+                        id, root.get("title"), root.get("description"), root.get("address"),
+                        root.get("price"), root.get("status"), root.get("created_at")))
+                .where(predicates.toArray(Predicate[]::new));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.apiRent.repositories;
 
+import com.example.apiRent.dtos.tenant.TenantResponse;
 import com.example.apiRent.enums.EnumUser;
 import com.example.apiRent.models.Tenant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,6 +14,19 @@ import java.util.UUID;
 
 @Repository
 public interface TenantRepository extends JpaRepository<Tenant, UUID> {
-    List<Tenant> findByNameContainingIgnoreCase(String name);
     Optional<Tenant> findByIdAndRole(UUID id, EnumUser role);
+
+    @Query("SELECT new com.example.apiRent.dtos.tenant.TenantResponse(t.id, t.name, t.email, t.role) FROM Tenant t")
+    List<TenantResponse> findAllResponses();
+
+    /**
+     * Case-insensitive match on any part of the name. {@code %} and {@code _} in the search term are escaped, so they match
+     * themselves instead of acting as wildcards.
+     */
+    @Query("""
+            SELECT new com.example.apiRent.dtos.tenant.TenantResponse(t.id, t.name, t.email, t.role)
+            FROM Tenant t
+            WHERE UPPER(t.name) LIKE UPPER(CONCAT('%', REPLACE(REPLACE(REPLACE(:name, '!', '!!'), '%', '!%'), '_', '!_'), '%')) ESCAPE '!'
+            """)
+    List<TenantResponse> findResponsesByName(@Param("name") String name);
 }
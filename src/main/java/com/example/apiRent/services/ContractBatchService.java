@@ -0,0 +1,199 @@
+package com.example.apiRent.services;
+
+import com.example.apiRent.configs.CacheConfig;
+import com.example.apiRent.dtos.contract.ContractBatchItemResult;
+import com.example.apiRent.dtos.contract.ContractBatchResponse;
+import com.example.apiRent.dtos.contract.ContractRequest;
+import com.example.apiRent.enums.EnumBatchItemStatus;
+import com.example.apiRent.enums.EnumContract;
+import com.example.apiRent.exceptions.InvalidRequestException;
+import com.example.apiRent.models.Contract;
+import com.example.apiRent.models.Owner;
+import com.example.apiRent.models.Property;
+import com.example.apiRent.models.Tenant;
+import com.example.apiRent.repositories.ContractBatchRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bulk counterpart of {@link ContractService#createContracts}, with the same rules: a lease is rejected
+ * only when it overlaps an active lease of its property, whatever the property's status. Each item is
+ * accepted or rejected on its own; the accepted ones are written with a fixed number of statements per
+ * batch instead of a handful of round trips per contract.
+ */
+@Service
+public class ContractBatchService {
+
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    private final ContractBatchRepository contractBatchRepository;
+    private final PaymentService paymentService;
+    private final CacheManager cacheManager;
+
+    public ContractBatchService(ContractBatchRepository contractBatchRepository, PaymentService paymentService, CacheManager cacheManager) {
+        this.contractBatchRepository = contractBatchRepository;
+        this.paymentService = paymentService;
+        this.cacheManager = cacheManager;
+    }
+
+    @Transactional
+    public ContractBatchResponse createContracts(List<ContractRequest> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("A batch must contain between 1 and " + MAX_BATCH_SIZE + " contracts");
+        }
+        ContractBatchItemResult[] results = new ContractBatchItemResult[requests.size()];
+
+        for (int i = 0; i < requests.size(); i++) {
+            String problem = validate(requests.get(i));
+            if (problem != null) {
+                results[i] = ContractBatchItemResult.rejected(i, problem);
+            }
+        }
+
+        Set<UUID> owners = contractBatchRepository.findOwnerIds(pendingIds(requests, results, ContractRequest::ownerId));
+        Set<UUID> tenants = contractBatchRepository.findTenantIds(pendingIds(requests, results, ContractRequest::tenantId));
+
+        Set<UUID> propertyIds = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            ContractRequest request = requests.get(i);
+            if (!owners.contains(request.ownerId())) {
+                results[i] = ContractBatchItemResult.rejected(i, "Owner not found with this id " + request.ownerId());
+            } else if (!tenants.contains(request.tenantId())) {
+                results[i] = ContractBatchItemResult.rejected(i, "Tenant not found with this id " + request.tenantId());
+            } else {
+                propertyIds.add(request.propertyId());
+            }
+        }
+
+        Set<UUID> locked = propertyIds.isEmpty() ? Set.of() : contractBatchRepository.lockProperties(propertyIds);
+
+        Map<Integer, Contract> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            ContractRequest request = requests.get(i);
+            if (!locked.contains(request.propertyId())) {
+                results[i] = ContractBatchItemResult.rejected(i, "Property not found this id " + request.propertyId());
+            } else {
+                candidates.put(i, toContract(request, paymentService.isVirtualSchedules()));
+            }
+        }
+
+        Set<UUID> overlapping = candidates.isEmpty() ? Set.of() : contractBatchRepository.findOverlapping(List.copyOf(candidates.values()));
+
+        List<Contract> contracts = new ArrayList<>();
+        Map<UUID, List<Integer>> acceptedByProperty = new HashMap<>();
+        for (Map.Entry<Integer, Contract> candidate : candidates.entrySet()) {
+            int i = candidate.getKey();
+            Contract contract = candidate.getValue();
+            UUID propertyId = contract.getProperty().getId();
+            if (overlapping.contains(contract.getId())) {
+                results[i] = ContractBatchItemResult.rejected(i, "Property " + propertyId
+                        + " is already leased between " + contract.getStart_date() + " and " + contract.getEnd_date());
+                continue;
+            }
+            Integer earlier = acceptedByProperty.getOrDefault(propertyId, List.of()).stream()
+                    .filter(item -> overlaps(candidates.get(item), contract))
+                    .findFirst()
+                    .orElse(null);
+            if (earlier != null) {
+                results[i] = ContractBatchItemResult.rejected(i, "Property " + propertyId + " is already requested by item " + earlier + " for an overlapping period");
+                continue;
+            }
+            acceptedByProperty.computeIfAbsent(propertyId, id -> new ArrayList<>()).add(i);
+            contracts.add(contract);
+            results[i] = ContractBatchItemResult.created(i, contract.getId());
+        }
+
+        if (!contracts.isEmpty()) {
+            contractBatchRepository.markRented(acceptedByProperty.keySet());
+            contractBatchRepository.insertContracts(contracts);
+            paymentService.generatePaymentsForContracts(contracts);
+            evictCachedProperties(acceptedByProperty.keySet());
+        }
+
+        int created = (int) Arrays.stream(results).filter(result -> result.status() == EnumBatchItemStatus.CREATED).count();
+        return new ContractBatchResponse(created, results.length - created, List.of(results));
+    }
+
+    private static String validate(ContractRequest request) {
+        if (request == null) {
+            return "Contract is missing";
+        }
+        if (request.start_date() == null || request.end_date() == null || request.monthly_value() == null
+                || request.tenantId() == null || request.ownerId() == null || request.propertyId() == null) {
+            return "start_date, end_date, monthly_value, tenantId, ownerId and propertyId are required";
+        }
+        if (request.end_date().isBefore(request.start_date())) {
+            return "end_date cannot be before start_date";
+        }
+        if (request.monthly_value().signum() <= 0) {
+            return "monthly_value must be positive";
+        }
+        return null;
+    }
+
+    private static boolean overlaps(Contract a, Contract b) {
+        return !a.getEnd_date().isBefore(b.getStart_date()) && !b.getEnd_date().isBefore(a.getStart_date());
+    }
+
+    private static Set<UUID> pendingIds(List<ContractRequest> requests, ContractBatchItemResult[] results, Function<ContractRequest, UUID> id) {
+        Set<UUID> ids = new LinkedHashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] == null) {
+                ids.add(id.apply(requests.get(i)));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Detached contract used only to carry values to the JDBC batch; the associations are id-only
+     * stubs, so nothing is attached to the persistence context.
+     */
+    private static Contract toContract(ContractRequest request, boolean virtualSchedule) {
+        Owner owner = new Owner();
+        owner.setId(request.ownerId());
+        Tenant tenant = new Tenant();
+        tenant.setId(request.tenantId());
+        Property property = new Property();
+        property.setId(request.propertyId());
+
+        Contract contract = new Contract();
+        contract.setId(UUID.randomUUID());
+        contract.setStart_date(request.start_date());
+        contract.setEnd_date(request.end_date());
+        contract.setMonthly_value(request.monthly_value());
+        contract.setStatus(EnumContract.ACTIVE);
+        contract.setVirtual_schedule(virtualSchedule);
+        contract.setOwner(owner);
+        contract.setTenant(tenant);
+        contract.setProperty(property);
+        return contract;
+    }
+
+    private void evictCachedProperties(Set<UUID> propertyIds) {
+        Cache propertyCache = cacheManager.getCache(CacheConfig.PROPERTIES);
+        if (propertyCache != null) {
+            propertyIds.forEach(propertyCache::evict);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.apiRent.services;
+
+import com.example.apiRent.configs.CacheConfig;
+import com.example.apiRent.repositories.ContractExpirationRepository;
+import com.example.apiRent.repositories.ContractExpirationRepository.ExpiredChunk;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Expires contracts whose end date has passed and frees their properties. Each chunk commits on its
+ * own, so a large backlog never holds row locks for longer than one chunk.
+ */
+@Slf4j
+@Service
+public class ContractExpirationService {
+
+    private final ContractExpirationRepository contractExpirationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final Clock clock;
+    private final int chunkSize;
+    private final Timer runTimer;
+    private final DistributionSummary expiredPerRun;
+    private final Counter expiredContracts;
+    private final Counter freedProperties;
+
+    public ContractExpirationService(ContractExpirationRepository contractExpirationRepository, TransactionTemplate transactionTemplate, CacheManager cacheManager, MeterRegistry meterRegistry, Clock clock, @Value("${contracts.expiration.chunk-size}") int chunkSize) {
+        this.contractExpirationRepository = contractExpirationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheManager = cacheManager;
+        this.clock = clock;
+        this.chunkSize = chunkSize;
+        this.runTimer = Timer.builder("contracts.expiration.duration")
+                .description("Duration of a contract expiration run")
+                .register(meterRegistry);
+        this.expiredPerRun = DistributionSummary.builder("contracts.expiration.rows")
+                .description("Contracts expired per run")
+                .register(meterRegistry);
+        this.expiredContracts = Counter.builder("contracts.expired").register(meterRegistry);
+        this.freedProperties = Counter.builder("contracts.expiration.properties.freed").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${contracts.expiration.cron}")
+    public void expireDueContracts() {
+        expireContractsEndedBefore(LocalDate.now(clock));
+    }
+
+    public int expireContractsEndedBefore(LocalDate today) {
+        Timer.Sample sample = Timer.start();
+        int expired = 0;
+        int freed = 0;
+        ExpiredChunk chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> {
+                ExpiredChunk result = contractExpirationRepository.expireChunk(today, chunkSize);
+                evictCachedProperties(result);
+                return result;
+            });
+            expired += chunk.expired();
+            freed += chunk.freedPropertyIds().size();
+        } while (chunk.expired() == chunkSize);
+
+        long nanos = sample.stop(runTimer);
+        expiredPerRun.record(expired);
+        expiredContracts.increment(expired);
+        freedProperties.increment(freed);
+        log.info("Expired {} contracts and freed {} properties in {} ms", expired, freed, nanos / 1_000_000);
+        return expired;
+    }
+
+    private void evictCachedProperties(ExpiredChunk chunk) {
+        Cache propertyCache = cacheManager.getCache(CacheConfig.PROPERTIES);
+        if (propertyCache != null) {
+            chunk.freedPropertyIds().forEach(propertyCache::evict);
+        }
+    }
+}
@@ -1,11 +1,21 @@
 package com.example.apiRent.services;
 
+import com.example.apiRent.configs.CacheConfig;
+import com.example.apiRent.configs.RetryConfig;
+import com.example.apiRent.dtos.pagination.CursorPage;
+import com.example.apiRent.dtos.contract.ContractAmendRequest;
+import com.example.apiRent.dtos.contract.ContractCursor;
+import com.example.apiRent.dtos.contract.ContractFilter;
 import com.example.apiRent.dtos.contract.ContractRequest;
 import com.example.apiRent.dtos.contract.ContractResponse;
+import com.example.apiRent.dtos.contract.ContractRow;
+import com.example.apiRent.dtos.fields.FieldSelection;
 import com.example.apiRent.enums.EnumContract;
 import com.example.apiRent.enums.EnumProperty;
 import com.example.apiRent.enums.EnumUser;
+import com.example.apiRent.exceptions.ContractOverlapException;
 import com.example.apiRent.exceptions.IllegalStateException;
+import com.example.apiRent.exceptions.InvalidRequestException;
 import com.example.apiRent.exceptions.ResourceNotFoundException;
 import com.example.apiRent.mappers.ContractMappper;
 import com.example.apiRent.models.Contract;
@@ -16,30 +26,49 @@ import com.example.apiRent.repositories.ContractRepository;
 import com.example.apiRent.repositories.OwnerRepository;
 import com.example.apiRent.repositories.PropertyRepository;
 import com.example.apiRent.repositories.TenantRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class ContractService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final Set<String> EXPANDABLE = Set.of("property", "tenant", "owner");
+
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final ContractRepository contractRepository;
     private final ContractMappper contractMappper;
     private final OwnerRepository ownerRepository;
     private final TenantRepository tenantRepository;
     private final PropertyRepository propertyRepository;
     private final PaymentService paymentService;
+    private final CacheManager cacheManager;
+    private final Clock clock;
 
-    public ContractService(ContractRepository contractRepository, ContractMappper contractMappper, OwnerRepository ownerRepository, TenantRepository tenantRepository, PropertyRepository propertyRepository, PaymentService paymentService) {
+    public ContractService(ContractRepository contractRepository, ContractMappper contractMappper, OwnerRepository ownerRepository, TenantRepository tenantRepository, PropertyRepository propertyRepository, PaymentService paymentService, CacheManager cacheManager, Clock clock) {
         this.contractRepository = contractRepository;
         this.contractMappper = contractMappper;
         this.ownerRepository = ownerRepository;
         this.tenantRepository = tenantRepository;
         this.propertyRepository = propertyRepository;
         this.paymentService = paymentService;
+        this.cacheManager = cacheManager;
+        this.clock = clock;
     }
 
     private Owner findAndValidateOwner(UUID ownerId) {
@@ -51,87 +80,199 @@ public class ContractService {
     }
 
     private Property findAndValidateProperty(UUID propertyId) {
-        return propertyRepository.findByIdAndStatus(propertyId, EnumProperty.AVAILABLE).orElseThrow(() -> new ResourceNotFoundException("Property not found this id " + propertyId));
+        return propertyRepository.findByIdForUpdate(propertyId).orElseThrow(() -> new ResourceNotFoundException("Property not found this id " + propertyId));
     }
 
-    @Transactional
-    public List<ContractResponse> findAllContracts() {
-        List<Contract> contract = contractRepository.findAll();
-        return contractMappper.toResponseList(contract);
+    private void validatePeriod(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new InvalidRequestException("Contract start_date and end_date are required");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new InvalidRequestException("Contract end_date cannot be before start_date");
+        }
+    }
+
+    /**
+     * Overlapping active leases of a property are rejected by the exclusion constraint on
+     * {@code contract.period}, so the flush is where a double booking surfaces.
+     */
+    private Contract saveAndCheckOverlap(Contract contract) {
+        try {
+            return contractRepository.saveAndFlush(contract);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getMostSpecificCause() instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                throw new ContractOverlapException("Property " + contract.getProperty().getId()
+                        + " is already leased between " + contract.getStart_date() + " and " + contract.getEnd_date());
+            }
+            throw e;
+        }
+    }
+
+    private void evictCachedProperty(UUID propertyId) {
+        Cache propertyCache = cacheManager.getCache(CacheConfig.PROPERTIES);
+        if (propertyCache != null) {
+            propertyCache.evict(propertyId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<ContractResponse> findAllContracts(FieldSelection selection) {
+        selection.requireExpandable(EXPANDABLE);
+        return contractRepository.findAllRows(selection).stream()
+                .map(ContractRow::toResponse)
+                .toList();
     }
 
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = RetryConfig.OPTIMISTIC_LOCK_ATTEMPTS, backoff = @Backoff(delay = 10, maxDelay = 100, random = true))
     @Transactional
     public ContractResponse createContracts(ContractRequest contractRequest) {
+        validatePeriod(contractRequest.start_date(), contractRequest.end_date());
         Contract contract = contractMappper.toEntity(contractRequest);
         Owner owner = findAndValidateOwner(contractRequest.ownerId());
         Tenant tenant = findAndValidateTenant(contractRequest.tenantId());
         Property property = findAndValidateProperty(contractRequest.propertyId());
         property.setStatus(EnumProperty.RENTED);
+        evictCachedProperty(property.getId());
         contract.setStatus(EnumContract.ACTIVE);
         contract.setEnd_date(contractRequest.end_date());
         contract.setOwner(owner);
         contract.setTenant(tenant);
         contract.setProperty(property);
-        contractRepository.save(contract);
+        contract.setVirtual_schedule(paymentService.isVirtualSchedules());
+        saveAndCheckOverlap(contract);
         paymentService.generatePaymentsForContracts(contract);
         return contractMappper.toResponse(contract);
     }
 
-    @Transactional
-    public ContractResponse findContractById(UUID id) {
-        Contract contract = contractRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Contract not found with this id " + id));
-        return contractMappper.toResponse(contract);
+    @Transactional(readOnly = true)
+    public ContractResponse findContractById(UUID id, FieldSelection selection) {
+        selection.requireExpandable(EXPANDABLE);
+        Contract contract = contractRepository.findById(id, selection).orElseThrow(() -> new ResourceNotFoundException("Contract not found with this id " + id));
+        return contractMappper.toResponse(contract, selection, "");
     }
 
-    @Transactional
-    public ContractResponse findContractByTenant(UUID id) {
-        Contract contract = contractRepository.findByTenantId(id).orElseThrow(() -> new ResourceNotFoundException("Tenant not found with this id " + id));
-        return contractMappper.toResponse(contract);
+    @Transactional(readOnly = true)
+    public CursorPage<ContractResponse> findContractsByTenant(UUID tenantId, EnumContract status, String cursor, int size, FieldSelection selection) {
+        return findContractsPage(ContractFilter.byTenant(tenantId, status), cursor, size, selection);
     }
 
-    @Transactional
-    public ContractResponse findContractByOwner(UUID id) {
-        Contract contract = contractRepository.findByOwnerId(id).orElseThrow(() -> new ResourceNotFoundException("Owner not found with this id " + id));
-        return contractMappper.toResponse(contract);
+    @Transactional(readOnly = true)
+    public CursorPage<ContractResponse> findContractsByOwner(UUID ownerId, EnumContract status, String cursor, int size, FieldSelection selection) {
+        return findContractsPage(ContractFilter.byOwner(ownerId, status), cursor, size, selection);
     }
 
+    private CursorPage<ContractResponse> findContractsPage(ContractFilter filter, String cursor, int size, FieldSelection selection) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        selection.requireExpandable(EXPANDABLE);
+        ContractCursor after = cursor == null || cursor.isBlank() ? null : ContractCursor.decode(cursor);
+
+        List<ContractRow> rows = contractRepository.findPage(filter, after, size + 1, selection);
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = ContractCursor.after(rows.get(size - 1)).encode();
+        }
+        return new CursorPage<>(rows.stream().map(ContractRow::toResponse).toList(), nextCursor);
+    }
+
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = RetryConfig.OPTIMISTIC_LOCK_ATTEMPTS, backoff = @Backoff(delay = 10, maxDelay = 100, random = true))
     @Transactional
     public ContractResponse updateContract(UUID id, ContractRequest contractRequest) {
         Contract contractToUpdate = contractRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Contract not found with this id " + id));
+        if (contractToUpdate.getStatus() != EnumContract.ACTIVE) {
+            throw new IllegalStateException("Only active contracts can be updated.");
+        }
 
+        if (contractRequest.start_date() == null) {
+            throw new InvalidRequestException("Contract start_date is required");
+        }
+        if (contractToUpdate.getEnd_date() != null && contractRequest.start_date().isAfter(contractToUpdate.getEnd_date())) {
+            throw new InvalidRequestException("Contract start_date cannot be after end_date " + contractToUpdate.getEnd_date());
+        }
         UUID newPropertyId = contractRequest.propertyId();
         UUID currentPropertyId = contractToUpdate.getProperty().getId();
+        Property newProperty = findAndValidateProperty(newPropertyId);
 
         if (!newPropertyId.equals(currentPropertyId)) {
 
-            Property oldProperty = contractToUpdate.getProperty();
-            oldProperty.setStatus(EnumProperty.AVAILABLE);
+            if (!contractRepository.existsByPropertyIdAndStatusAndIdNot(currentPropertyId, EnumContract.ACTIVE, id)) {
+                contractToUpdate.getProperty().setStatus(EnumProperty.AVAILABLE);
+                evictCachedProperty(currentPropertyId);
+            }
 
-            Property newProperty = findAndValidateProperty(newPropertyId);
             newProperty.setStatus(EnumProperty.RENTED);
+            evictCachedProperty(newPropertyId);
             contractToUpdate.setProperty(newProperty);
         }
         Owner owner = findAndValidateOwner(contractRequest.ownerId());
         Tenant tenant = findAndValidateTenant(contractRequest.tenantId());
+        paymentService.subtractFromRevenue(contractToUpdate);
         contractToUpdate.setOwner(owner);
         contractToUpdate.setTenant(tenant);
 
+        LocalDate effectiveFrom = LocalDate.now(clock);
+        paymentService.keepVirtualInstallmentsBefore(contractToUpdate, contractRequest.monthly_value(), effectiveFrom);
         contractToUpdate.setStart_date(contractRequest.start_date());
         contractToUpdate.setMonthly_value(contractRequest.monthly_value());
 
-        Contract savedContract = contractRepository.save(contractToUpdate);
+        Contract savedContract = saveAndCheckOverlap(contractToUpdate);
+        paymentService.applyScheduleDelta(savedContract, effectiveFrom);
+        paymentService.addToRevenue(savedContract);
         return contractMappper.toResponse(savedContract);
     }
 
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = RetryConfig.OPTIMISTIC_LOCK_ATTEMPTS, backoff = @Backoff(delay = 10, maxDelay = 100, random = true))
+    @Transactional
+    public ContractResponse amendContract(UUID id, ContractAmendRequest contractAmendRequest) {
+        Contract contract = contractRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Contract not found with this id " + id));
+        if (contract.getStatus() != EnumContract.ACTIVE) {
+            throw new IllegalStateException("Only active contracts can be amended.");
+        }
+        if (contractAmendRequest.monthly_value() != null && contractAmendRequest.monthly_value().signum() <= 0) {
+            throw new InvalidRequestException("Contract monthly_value must be positive");
+        }
+        LocalDate endDate = contractAmendRequest.end_date() != null ? contractAmendRequest.end_date() : contract.getEnd_date();
+        validatePeriod(contract.getStart_date(), endDate);
+
+        findAndValidateProperty(contract.getProperty().getId());
+        LocalDate effectiveFrom = contractAmendRequest.effective_from() != null ? contractAmendRequest.effective_from() : LocalDate.now(clock);
+        paymentService.subtractFromRevenue(contract);
+        paymentService.keepVirtualInstallmentsBefore(contract, contractAmendRequest.monthly_value(), effectiveFrom);
+        contract.setEnd_date(endDate);
+        if (contractAmendRequest.monthly_value() != null) {
+            contract.setMonthly_value(contractAmendRequest.monthly_value());
+        }
+        Contract savedContract = saveAndCheckOverlap(contract);
+
+        paymentService.applyScheduleDelta(savedContract, effectiveFrom);
+        paymentService.addToRevenue(savedContract);
+        return contractMappper.toResponse(savedContract);
+    }
+
+    /**
+     * Locks the property like update and amend do, so a concurrent change to the contract waits for it, and frees
+     * the property when no other active contract holds it.
+     */
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = RetryConfig.OPTIMISTIC_LOCK_ATTEMPTS, backoff = @Backoff(delay = 10, maxDelay = 100, random = true))
     @Transactional
     public ContractResponse closeContract(UUID id) {
         Contract contract = contractRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Contract not found with this id " + id));
         if(contract.getStatus() != EnumContract.ACTIVE) {
             throw new IllegalStateException("Only active contracts can be closed.");
         }
+        Property property = findAndValidateProperty(contract.getProperty().getId());
+        if (!contractRepository.existsByPropertyIdAndStatusAndIdNot(property.getId(), EnumContract.ACTIVE, id)) {
+            property.setStatus(EnumProperty.AVAILABLE);
+            evictCachedProperty(property.getId());
+        }
+        paymentService.subtractFromRevenue(contract);
         contract.setStatus(EnumContract.TERMINATED);
-        Contract closeContract = contractRepository.save(contract);
+        Contract closeContract = contractRepository.saveAndFlush(contract);
+        paymentService.addToRevenue(closeContract);
         return contractMappper.toResponse(closeContract);
     }
 
@@ -0,0 +1,93 @@
+package com.example.apiRent.services;
+
+import com.example.apiRent.repositories.IdempotencyRepository;
+import com.example.apiRent.repositories.IdempotencyRepository.IdempotencyRecord;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps the responses of requests sent with an {@code Idempotency-Key} for {@code ttl}. Completed responses
+ * never change, so each node also holds the most recent ones in a bounded local cache and replays them
+ * without a round trip; the table stays the source of truth across nodes.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private record CacheKey(String key, String scope) { }
+
+    private final IdempotencyRepository idempotencyRepository;
+    private final Duration ttl;
+    private final Duration inFlightTimeout;
+    private final Cache<CacheKey, IdempotencyRecord> completed;
+
+    public IdempotencyService(IdempotencyRepository idempotencyRepository, @Value("${idempotency.ttl}") Duration ttl, @Value("${idempotency.in-flight-timeout}") Duration inFlightTimeout, @Value("${idempotency.cache.maximum-size}") long maximumSize) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.ttl = ttl;
+        this.inFlightTimeout = inFlightTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Claims {@code key} for a new request as {@code claimId}, returning empty, or returns what is already
+     * recorded under it: a completed response or a request still under way, possibly with another fingerprint.
+     */
+    public Optional<IdempotencyRecord> begin(String key, String scope, String fingerprint, UUID claimId) {
+        CacheKey cacheKey = new CacheKey(key, scope);
+        IdempotencyRecord cached = completed.getIfPresent(cacheKey);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        while (!idempotencyRepository.claim(key, scope, fingerprint, claimId, ttl, inFlightTimeout)) {
+            // The record may be released or expire between the two statements; claiming again settles it.
+            Optional<IdempotencyRecord> existing = idempotencyRepository.find(key, scope);
+            if (existing.isPresent()) {
+                existing.filter(IdempotencyRecord::isCompleted).ifPresent(record -> completed.put(cacheKey, record));
+                return existing;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * A failure here leaves the claim under way until {@code inFlightTimeout}; the response itself already
+     * succeeded, so it is only logged. Nothing is kept when the claim was taken over meanwhile.
+     */
+    public void complete(String key, String scope, UUID claimId, IdempotencyRecord record) {
+        try {
+            if (idempotencyRepository.complete(key, scope, claimId, record.status(), record.contentType(), record.body())) {
+                completed.put(new CacheKey(key, scope), record);
+            } else {
+                log.warn("Idempotency key {} on {} was taken over before its response was recorded", key, scope);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not record the response for idempotency key {} on {}", key, scope, e);
+        }
+    }
+
+    public void release(String key, String scope, UUID claimId) {
+        try {
+            idempotencyRepository.release(key, scope, claimId);
+        } catch (DataAccessException e) {
+            log.warn("Could not release idempotency key {} on {}", key, scope, e);
+        }
+    }
+
+    @Scheduled(cron = "${idempotency.purge-cron}")
+    public void purgeExpired() {
+        int purged = idempotencyRepository.deleteExpired();
+        log.info("Purged {} expired idempotency keys", purged);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.apiRent.services;
+
+import com.example.apiRent.dtos.owner.MonthlyRevenue;
+import com.example.apiRent.dtos.owner.OwnerRevenueResponse;
+import com.example.apiRent.exceptions.InvalidRequestException;
+import com.example.apiRent.exceptions.ResourceNotFoundException;
+import com.example.apiRent.repositories.OwnerRevenueRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads owner revenue from {@code owner_monthly_revenue}, one row per month, instead of aggregating the
+ * owner's payments on every request.
+ */
+@Slf4j
+@Service
+public class OwnerRevenueService {
+
+    public static final int MAX_MONTHS = 240;
+
+    private final OwnerRevenueRepository ownerRevenueRepository;
+
+    public OwnerRevenueService(OwnerRevenueRepository ownerRevenueRepository) {
+        this.ownerRevenueRepository = ownerRevenueRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public OwnerRevenueResponse findRevenue(UUID ownerId, LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new InvalidRequestException("Both from and to are required");
+        }
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from cannot be after to");
+        }
+        if (ChronoUnit.MONTHS.between(from.withDayOfMonth(1), to) >= MAX_MONTHS) {
+            throw new InvalidRequestException("from and to cannot be more than " + MAX_MONTHS + " months apart");
+        }
+        List<MonthlyRevenue> months = ownerRevenueRepository.findMonths(ownerId, from, to)
+                .orElseThrow(() -> new ResourceNotFoundException("Owner not found with id " + ownerId));
+        BigDecimal expected = months.stream().map(MonthlyRevenue::expected).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal received = months.stream().map(MonthlyRevenue::received).reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new OwnerRevenueResponse(ownerId, from, to, expected, received, months);
+    }
+
+    /**
+     * Recomputes every owner's revenue from the payments and contracts, discarding any drift.
+     */
+    @Transactional
+    public int rebuildRevenue() {
+        int rows = ownerRevenueRepository.rebuild();
+        log.info("Rebuilt owner revenue with {} owner months", rows);
+        return rows;
+    }
+}
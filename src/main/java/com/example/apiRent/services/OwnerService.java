@@ -1,5 +1,6 @@
 package com.example.apiRent.services;
 
+import com.example.apiRent.configs.CacheConfig;
 import com.example.apiRent.controllers.OwnerController;
 import com.example.apiRent.dtos.owner.OwnerRequest;
 import com.example.apiRent.dtos.owner.OwnerResponse;
@@ -8,9 +9,13 @@ import com.example.apiRent.exceptions.ResourceNotFoundException;
 import com.example.apiRent.mappers.OwnerMapper;
 import com.example.apiRent.models.Owner;
 import com.example.apiRent.repositories.OwnerRepository;
-import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
@@ -23,16 +28,17 @@ public class OwnerService {
 
     private final OwnerRepository ownerRepository;
     private final OwnerMapper ownerMapper;
+    private final CacheManager cacheManager;
 
-    public OwnerService(OwnerRepository ownerRepository, OwnerMapper ownerMapper) {
+    public OwnerService(OwnerRepository ownerRepository, OwnerMapper ownerMapper, CacheManager cacheManager) {
         this.ownerRepository = ownerRepository;
         this.ownerMapper = ownerMapper;
+        this.cacheManager = cacheManager;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<OwnerResponse> findAllOwners() {
-        List<Owner> owners = ownerRepository.findAll();
-        return ownerMapper.toResponseList(owners);
+        return ownerRepository.findAllResponses();
     }
 
     @Transactional
@@ -44,6 +50,7 @@ public class OwnerService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.OWNERS, key = "#id")
     public OwnerResponse updateOwners(UUID id, OwnerRequest ownerRequest) {
         Owner ownerUpdate = ownerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Owner not found."));
@@ -56,22 +63,27 @@ public class OwnerService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.OWNERS, key = "#id")
     public void delete(UUID id) {
         Owner owner = ownerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Owner not found with id " + id));
+        Cache propertyCache = cacheManager.getCache(CacheConfig.PROPERTIES);
+        if (propertyCache != null) {
+            owner.getProperties().forEach(property -> propertyCache.evict(property.getId()));
+        }
         ownerRepository.delete(owner);
     }
 
     @Transactional
+    @Cacheable(cacheNames = CacheConfig.OWNERS, key = "#id")
     public OwnerResponse findOwnerById(UUID id) {
         Owner owner = ownerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Owner not found with id " + id));
         return ownerMapper.toResponse(owner);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<OwnerResponse> queryByName(String name) {
-        List<Owner> owners = ownerRepository.findByNameContainingIgnoreCase(name);
-        return ownerMapper.toResponseList(owners);
+        return ownerRepository.findResponsesByName(name);
     }
 }
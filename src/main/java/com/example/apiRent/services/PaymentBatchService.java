@@ -0,0 +1,107 @@
+package com.example.apiRent.services;
+
+import com.example.apiRent.dtos.payment.PaymentConfirmBatchResponse;
+import com.example.apiRent.dtos.payment.PaymentConfirmItemResult;
+import com.example.apiRent.enums.EnumBatchItemStatus;
+import com.example.apiRent.enums.EnumPayment;
+import com.example.apiRent.exceptions.InvalidRequestException;
+import com.example.apiRent.repositories.OwnerRevenueRepository;
+import com.example.apiRent.repositories.PaymentBatchRepository;
+import com.example.apiRent.repositories.PaymentBatchRepository.PaymentOwnership;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk counterpart of {@link PaymentService#confirmPayment}. Ownership and status of the whole set are
+ * checked with one query and the accepted payments are confirmed with one UPDATE, whatever their number.
+ */
+@Service
+public class PaymentBatchService {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private final PaymentBatchRepository paymentBatchRepository;
+    private final OwnerRevenueRepository ownerRevenueRepository;
+    private final Clock clock;
+
+    public PaymentBatchService(PaymentBatchRepository paymentBatchRepository, OwnerRevenueRepository ownerRevenueRepository, Clock clock) {
+        this.paymentBatchRepository = paymentBatchRepository;
+        this.ownerRevenueRepository = ownerRevenueRepository;
+        this.clock = clock;
+    }
+
+    @Transactional
+    public PaymentConfirmBatchResponse confirmPayments(UUID ownerId, List<UUID> paymentIds) {
+        if (ownerId == null) {
+            throw new InvalidRequestException("ownerId is required");
+        }
+        if (paymentIds == null || paymentIds.isEmpty() || paymentIds.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("A batch must contain between 1 and " + MAX_BATCH_SIZE + " payments");
+        }
+        PaymentConfirmItemResult[] results = new PaymentConfirmItemResult[paymentIds.size()];
+
+        Map<UUID, Integer> requestedBy = new HashMap<>();
+        for (int i = 0; i < paymentIds.size(); i++) {
+            UUID paymentId = paymentIds.get(i);
+            if (paymentId == null) {
+                results[i] = PaymentConfirmItemResult.rejected(i, null, "Payment id is missing");
+                continue;
+            }
+            Integer earlier = requestedBy.putIfAbsent(paymentId, i);
+            if (earlier != null) {
+                results[i] = PaymentConfirmItemResult.rejected(i, paymentId, "Payment " + paymentId + " is already requested by item " + earlier);
+            }
+        }
+
+        Map<UUID, PaymentOwnership> ownership = requestedBy.isEmpty() ? Map.of() : paymentBatchRepository.findOwnership(requestedBy.keySet());
+        for (Map.Entry<UUID, Integer> requested : requestedBy.entrySet()) {
+            String problem = validate(requested.getKey(), ownership.get(requested.getKey()), ownerId);
+            if (problem != null) {
+                results[requested.getValue()] = PaymentConfirmItemResult.rejected(requested.getValue(), requested.getKey(), problem);
+            }
+        }
+
+        List<UUID> accepted = requestedBy.entrySet().stream()
+                .filter(requested -> results[requested.getValue()] == null)
+                .map(Map.Entry::getKey)
+                .toList();
+        Set<UUID> confirmed = accepted.isEmpty() ? Set.of() : paymentBatchRepository.confirm(accepted, LocalDate.now(clock));
+        if (!confirmed.isEmpty()) {
+            ownerRevenueRepository.addConfirmed(confirmed);
+        }
+        for (UUID paymentId : accepted) {
+            int index = requestedBy.get(paymentId);
+            results[index] = confirmed.contains(paymentId)
+                    ? PaymentConfirmItemResult.confirmed(index, paymentId)
+                    : PaymentConfirmItemResult.rejected(index, paymentId, "Payment " + paymentId + " was confirmed by another request");
+        }
+
+        int confirmedCount = (int) Arrays.stream(results).filter(result -> result.status() == EnumBatchItemStatus.CONFIRMED).count();
+        return new PaymentConfirmBatchResponse(confirmedCount, results.length - confirmedCount, List.of(results));
+    }
+
+    private static String validate(UUID paymentId, PaymentOwnership ownership, UUID ownerId) {
+        if (ownership == null) {
+            return "Payment not found this id " + paymentId;
+        }
+        if (!ownership.ownerId().equals(ownerId)) {
+            return "This owner does not belong to this contract";
+        }
+        if (!ownership.ownerIsLocator()) {
+            return "Owner not found or permission denied with this id " + ownerId;
+        }
+        if (ownership.status() != EnumPayment.PENDING && ownership.status() != EnumPayment.OVERDUE) {
+            return "Payment cannot be confirmed as its current status is '" + ownership.status() + "'.";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.apiRent.services;
+
+import com.example.apiRent.exceptions.InvalidRequestException;
+import com.example.apiRent.repositories.PaymentExportRepository;
+import com.example.apiRent.repositories.PaymentExportRepository.PaymentExportRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the payment ledger as CSV while it is read, one buffer at a time, so memory stays the same whatever
+ * the range. Every column is a UUID, a date, a number or a status, none of which needs quoting.
+ */
+@Slf4j
+@Service
+public class PaymentExportService {
+
+    public static final String CSV = "csv";
+    static final String CSV_HEADER = "id,contract_id,owner_id,tenant_id,property_id,due_date,payment_date,amount,status\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final PaymentExportRepository paymentExportRepository;
+
+    public PaymentExportService(PaymentExportRepository paymentExportRepository) {
+        this.paymentExportRepository = paymentExportRepository;
+    }
+
+    /**
+     * Checked before the response starts: once the first rows are sent, the status can no longer change.
+     */
+    public void validateExport(LocalDate from, LocalDate to, String format) {
+        if (!CSV.equalsIgnoreCase(format)) {
+            throw new InvalidRequestException("Unsupported export format " + format + ", only csv is available");
+        }
+        if (from == null || to == null) {
+            throw new InvalidRequestException("Both from and to are required");
+        }
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from cannot be after to");
+        }
+    }
+
+    /**
+     * Runs in a read-only transaction, which keeps the cursor open while the rows are written and, when a
+     * replica is configured, sends the scan there. Returns the number of rows written.
+     */
+    @Transactional(readOnly = true)
+    public long exportCsv(LocalDate from, LocalDate to, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        long rows = 0;
+        try (Stream<PaymentExportRow> payments = paymentExportRepository.streamByDueDate(from, to)) {
+            Iterator<PaymentExportRow> iterator = payments.iterator();
+            while (iterator.hasNext()) {
+                writeRow(writer, iterator.next());
+                rows++;
+            }
+        }
+        writer.flush();
+        log.info("Exported {} payments due from {} through {}", rows, from, to);
+        return rows;
+    }
+
+    private static void writeRow(Writer writer, PaymentExportRow row) throws IOException {
+        writeField(writer, row.id());
+        writer.write(',');
+        writeField(writer, row.contractId());
+        writer.write(',');
+        writeField(writer, row.ownerId());
+        writer.write(',');
+        writeField(writer, row.tenantId());
+        writer.write(',');
+        writeField(writer, row.propertyId());
+        writer.write(',');
+        writeField(writer, row.dueDate());
+        writer.write(',');
+        writeField(writer, row.paymentDate());
+        writer.write(',');
+        writeField(writer, row.amount());
+        writer.write(',');
+        writeField(writer, row.status());
+        writer.write('\n');
+    }
+
+    private static void writeField(Writer writer, String value) throws IOException {
+        if (value != null) {
+            writer.write(value);
+        }
+    }
+}
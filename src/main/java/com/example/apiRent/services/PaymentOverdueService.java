@@ -0,0 +1,114 @@
+package com.example.apiRent.services;
+
+import com.example.apiRent.repositories.PaymentOverdueRepository;
+import com.example.apiRent.repositories.PaymentOverdueRepository.VirtualChunk;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Marks past-due payments as overdue. A run starts {@code workers} threads that take chunks until one
+ * comes back short; each chunk commits on its own and locks only its rows, so confirmations keep going
+ * and further nodes running the same job just take other chunks.
+ */
+@Slf4j
+@Service
+public class PaymentOverdueService {
+
+    private final PaymentOverdueRepository paymentOverdueRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int chunkSize;
+    private final int workers;
+    private final Timer runTimer;
+    private final DistributionSummary overduePerRun;
+    private final Counter overduePayments;
+
+    public PaymentOverdueService(PaymentOverdueRepository paymentOverdueRepository, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry, Clock clock, @Value("${payments.overdue.chunk-size}") int chunkSize, @Value("${payments.overdue.workers}") int workers) {
+        this.paymentOverdueRepository = paymentOverdueRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.runTimer = Timer.builder("payments.overdue.duration")
+                .description("Duration of an overdue marking run")
+                .register(meterRegistry);
+        this.overduePerRun = DistributionSummary.builder("payments.overdue.rows")
+                .description("Payments marked overdue per run")
+                .register(meterRegistry);
+        this.overduePayments = Counter.builder("payments.overdue").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${payments.overdue.cron}")
+    public void markOverduePayments() {
+        markOverdueBefore(LocalDate.now(clock));
+    }
+
+    public int markOverdueBefore(LocalDate today) {
+        Timer.Sample sample = Timer.start();
+        List<Future<Integer>> runs = new ArrayList<>(workers);
+        try (ExecutorService executor = Executors.newFixedThreadPool(workers)) {
+            for (int i = 0; i < workers; i++) {
+                runs.add(executor.submit(() -> drain(today)));
+            }
+        }
+        int overdue = 0;
+        for (Future<Integer> run : runs) {
+            overdue += result(run);
+        }
+
+        long nanos = sample.stop(runTimer);
+        overduePerRun.record(overdue);
+        overduePayments.increment(overdue);
+        log.info("Marked {} payments overdue with {} workers in {} ms", overdue, workers, nanos / 1_000_000);
+        return overdue;
+    }
+
+    /**
+     * One worker: virtual schedules first, then stored pending payments.
+     */
+    private int drain(LocalDate today) {
+        int overdue = 0;
+        VirtualChunk virtualChunk;
+        do {
+            virtualChunk = transactionTemplate.execute(status -> paymentOverdueRepository.materializeChunk(today, chunkSize));
+            overdue += virtualChunk.overdue();
+        } while (virtualChunk.contracts() == chunkSize);
+
+        int marked;
+        do {
+            marked = transactionTemplate.execute(status -> paymentOverdueRepository.markChunk(today, chunkSize));
+            overdue += marked;
+        } while (marked == chunkSize);
+        return overdue;
+    }
+
+    private static int result(Future<Integer> run) {
+        try {
+            return run.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
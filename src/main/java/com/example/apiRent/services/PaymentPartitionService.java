@@ -0,0 +1,36 @@
+package com.example.apiRent.services;
+
+import com.example.apiRent.repositories.PaymentPartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Keeps {@code yearsAhead} yearly payment partitions ahead of today, so new schedules rarely fall into the
+ * default partition. Schedules reaching further out do until their year comes within range.
+ */
+@Slf4j
+@Service
+public class PaymentPartitionService {
+
+    private final PaymentPartitionRepository paymentPartitionRepository;
+    private final Clock clock;
+    private final int yearsAhead;
+
+    public PaymentPartitionService(PaymentPartitionRepository paymentPartitionRepository, Clock clock, @Value("${payments.partitions.years-ahead}") int yearsAhead) {
+        this.paymentPartitionRepository = paymentPartitionRepository;
+        this.clock = clock;
+        this.yearsAhead = yearsAhead;
+    }
+
+    @Scheduled(cron = "${payments.partitions.cron}")
+    public void createFuturePartitions() {
+        LocalDate today = LocalDate.now(clock);
+        int created = paymentPartitionRepository.createPartitions(today, today.plusYears(yearsAhead));
+        log.info("Created {} payment partitions through {}", created, today.plusYears(yearsAhead).getYear());
+    }
+}
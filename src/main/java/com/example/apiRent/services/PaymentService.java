@@ -1,37 +1,131 @@
 package com.example.apiRent.services;
 
+import com.example.apiRent.dtos.fields.FieldSelection;
 import com.example.apiRent.dtos.payment.PaymentResponse;
+import com.example.apiRent.dtos.payment.PaymentScheduleDelta;
+import com.example.apiRent.enums.EnumContract;
 import com.example.apiRent.enums.EnumPayment;
 import com.example.apiRent.enums.EnumUser;
+import com.example.apiRent.exceptions.InvalidRequestException;
 import com.example.apiRent.exceptions.ResourceNotFoundException;
+import com.example.apiRent.mappers.ContractMappper;
 import com.example.apiRent.mappers.PaymentMapper;
 import com.example.apiRent.models.Contract;
 import com.example.apiRent.models.Owner;
 import com.example.apiRent.models.Payment;
+import com.example.apiRent.repositories.ContractRepository;
 import com.example.apiRent.repositories.OwnerRepository;
+import com.example.apiRent.repositories.OwnerRevenueRepository;
+import com.example.apiRent.repositories.PaymentConfirmationRepository;
 import com.example.apiRent.repositories.PaymentRepository;
-import jakarta.transaction.Transactional;
+import com.example.apiRent.repositories.PaymentScheduleRepository;
+import com.example.apiRent.repositories.PaymentScheduleRepository.ScheduledPayment;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class PaymentService {
+    public static final Set<String> EXPANDABLE = Set.of("contract", "contract.property", "contract.tenant", "contract.owner");
+
     private final PaymentRepository paymentRepository;
     private final PaymentMapper paymentMapper;
+    private final ContractMappper contractMappper;
     private final OwnerRepository ownerRepository;
+    private final PaymentScheduleRepository paymentScheduleRepository;
+    private final ContractRepository contractRepository;
+    private final PaymentConfirmationRepository paymentConfirmationRepository;
+    private final OwnerRevenueRepository ownerRevenueRepository;
+    private final Clock clock;
+    private final boolean virtualSchedules;
 
-    public PaymentService(PaymentRepository paymentRepository, PaymentMapper paymentMapper, OwnerRepository ownerRepository) {
+    public PaymentService(PaymentRepository paymentRepository, PaymentMapper paymentMapper, ContractMappper contractMappper, OwnerRepository ownerRepository, PaymentScheduleRepository paymentScheduleRepository, ContractRepository contractRepository, PaymentConfirmationRepository paymentConfirmationRepository, OwnerRevenueRepository ownerRevenueRepository, Clock clock, @Value("${payments.schedule.virtual}") boolean virtualSchedules) {
         this.paymentRepository = paymentRepository;
         this.paymentMapper = paymentMapper;
+        this.contractMappper = contractMappper;
         this.ownerRepository = ownerRepository;
+        this.paymentScheduleRepository = paymentScheduleRepository;
+        this.contractRepository = contractRepository;
+        this.paymentConfirmationRepository = paymentConfirmationRepository;
+        this.ownerRevenueRepository = ownerRevenueRepository;
+        this.clock = clock;
+        this.virtualSchedules = virtualSchedules;
+    }
+
+    /**
+     * Whether new contracts get a virtual schedule: their installments are computed from the contract terms
+     * when read, and a row is written only once an installment is confirmed or its amount has to be kept
+     * across a change of terms.
+     */
+    public boolean isVirtualSchedules() {
+        return virtualSchedules;
     }
 
     @Transactional
     public void generatePaymentsForContracts(Contract contract) {
+        generatePaymentsForContracts(List.of(contract));
+    }
+
+    /**
+     * Inserts the schedule {@link #buildSchedule} describes for each contract with a single statement,
+     * whatever the number of contracts and months. The contracts must already be written; the ones with a
+     * virtual schedule are skipped. Every contract, virtual or not, is added to its owner's revenue.
+     */
+    @Transactional
+    public void generatePaymentsForContracts(List<Contract> contracts) {
+        List<Contract> materialized = contracts.stream()
+                .filter(contract -> !contract.isVirtual_schedule())
+                .toList();
+        if (!materialized.isEmpty()) {
+            paymentScheduleRepository.insertSchedules(materialized);
+        }
+        if (!contracts.isEmpty()) {
+            ownerRevenueRepository.addContracts(contracts.stream().map(Contract::getId).toList());
+        }
+    }
+
+    /**
+     * Takes the contract out of its owner's revenue. Call it before the contract's terms, status or schedule
+     * change, and {@link #addToRevenue} once they are written and flushed.
+     */
+    @Transactional
+    public void subtractFromRevenue(Contract contract) {
+        ownerRevenueRepository.subtractContracts(List.of(contract.getId()));
+    }
+
+    @Transactional
+    public void addToRevenue(Contract contract) {
+        ownerRevenueRepository.addContracts(List.of(contract.getId()));
+    }
+
+    /**
+     * Writes the virtual installments due before {@code effectiveFrom} at the current monthly value, so a new
+     * monthly value only applies from {@code effectiveFrom} on, as it does for a materialized schedule. Call it
+     * before the contract terms change.
+     */
+    @Transactional
+    public void keepVirtualInstallmentsBefore(Contract contract, BigDecimal newMonthlyValue, LocalDate effectiveFrom) {
+        if (contract.isVirtual_schedule() && newMonthlyValue != null && newMonthlyValue.compareTo(contract.getMonthly_value()) != 0) {
+            paymentScheduleRepository.materializeBefore(contract, effectiveFrom);
+        }
+    }
+
+    /**
+     * One pending payment per month from the contract's start date up to and including its end date.
+     */
+    public List<Payment> buildSchedule(Contract contract) {
         List<Payment> paymentsToCreate = new ArrayList<>();
 
         LocalDate currentDueDate = contract.getStart_date();
@@ -49,44 +143,159 @@ public class PaymentService {
 
             currentDueDate = currentDueDate.plusMonths(1);
         }
+        return paymentsToCreate;
+    }
 
-        if (!paymentsToCreate.isEmpty()) {
-            paymentRepository.saveAll(paymentsToCreate);
+    /**
+     * Brings the stored schedule of a renewed or amended contract in line with its current dates and
+     * monthly value. Only the delta is written, as one batch of inserts plus one UPDATE and one DELETE.
+     * Appended months of a virtual schedule are computed when read, so they are not written.
+     */
+    @Transactional
+    public PaymentScheduleDelta applyScheduleDelta(Contract contract, LocalDate effectiveFrom) {
+        PaymentScheduleDelta delta = diffSchedule(contract, paymentScheduleRepository.findSchedule(contract.getId()), effectiveFrom);
+        if (!delta.appended().isEmpty() && !contract.isVirtual_schedule()) {
+            paymentScheduleRepository.insertPayments(delta.appended());
         }
+        if (!delta.repriced().isEmpty()) {
+            paymentScheduleRepository.repricePending(delta.repriced(), delta.amount(), effectiveFrom);
+        }
+        if (!delta.dropped().isEmpty()) {
+            paymentScheduleRepository.deletePending(delta.dropped());
+        }
+        return delta;
     }
 
-    @Transactional
-    public PaymentResponse findPaymentsById(UUID id) {
-        Payment payment = paymentRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Payment not found with this id " + id));
-        return paymentMapper.toResponse(payment);
+    /**
+     * Compares the schedule {@link #buildSchedule} would generate with the stored one. Missing months are
+     * appended, pending months outside the schedule are dropped, and pending months due on or after
+     * {@code effectiveFrom} are repriced. A settled payment outside the new schedule cannot be undone,
+     * so such an amendment is rejected.
+     */
+    public PaymentScheduleDelta diffSchedule(Contract contract, List<ScheduledPayment> existing, LocalDate effectiveFrom) {
+        Map<LocalDate, ScheduledPayment> existingByDueDate = new HashMap<>();
+        for (ScheduledPayment payment : existing) {
+            existingByDueDate.put(payment.due_date(), payment);
+        }
+
+        List<Payment> appended = new ArrayList<>();
+        Set<LocalDate> scheduled = new HashSet<>();
+        for (Payment payment : buildSchedule(contract)) {
+            scheduled.add(payment.getDue_date());
+            if (!existingByDueDate.containsKey(payment.getDue_date())) {
+                appended.add(payment);
+            }
+        }
+
+        List<UUID> repriced = new ArrayList<>();
+        List<UUID> dropped = new ArrayList<>();
+        for (ScheduledPayment payment : existing) {
+            boolean inSchedule = scheduled.contains(payment.due_date());
+            if (payment.status() != EnumPayment.PENDING) {
+                if (!inSchedule) {
+                    throw new InvalidRequestException("Payment due on " + payment.due_date() + " is already " + payment.status()
+                            + " and falls outside the contract period");
+                }
+            } else if (!inSchedule) {
+                dropped.add(payment.id());
+            } else if (!payment.due_date().isBefore(effectiveFrom) && payment.amount().compareTo(contract.getMonthly_value()) != 0) {
+                repriced.add(payment.id());
+            }
+        }
+        return new PaymentScheduleDelta(appended, repriced, contract.getMonthly_value(), dropped);
     }
 
-    @Transactional
-    public List<PaymentResponse> findPaymentByContract(UUID id) {
-        List<Payment> payment = paymentRepository.findAllByContractId(id);
-        return paymentMapper.toResponseList(payment);
+    @Transactional(readOnly = true)
+    public PaymentResponse findPaymentsById(UUID id, FieldSelection selection) {
+        selection.requireExpandable(EXPANDABLE);
+        Payment payment = paymentRepository.findById(id, selection).orElseThrow(() -> new ResourceNotFoundException("Payment not found with this id " + id));
+        return toResponse(payment, selection);
     }
 
-    @Transactional
-    public PaymentResponse confirmPayment(UUID id, UUID ownerId) {
-        Payment payment = paymentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Payment not found this id " + id));
-        ownerRepository.findByIdAndRole(ownerId, EnumUser.LOCATOR).orElseThrow(() -> new ResourceNotFoundException("Owner not found or permission denied with this id " + id));
+    @Transactional(readOnly = true)
+    public List<PaymentResponse> findPaymentByContract(UUID id, FieldSelection selection) {
+        selection.requireExpandable(EXPANDABLE);
+        List<Payment> payment = paymentRepository.findAllByContractId(id, selection);
+        Contract contract = payment.isEmpty() ? contractRepository.findById(id, selection).orElse(null) : payment.get(0).getContract();
+        if (contract != null && contract.isVirtual_schedule()) {
+            payment = withVirtualInstallments(contract, payment);
+        }
+        if (selection.isAll()) {
+            return paymentMapper.toResponseList(payment);
+        }
+        return payment.stream()
+                .map(item -> toResponse(item, selection))
+                .toList();
+    }
 
-        UUID actualOwnerId = payment.getContract().getOwner().getId();
-        if(!actualOwnerId.equals(ownerId)) {
-            throw new ResourceNotFoundException("This owner does not belong to this contract");
+    /**
+     * The stored installments plus the computed ones for every month that has no row yet, ordered by due date.
+     * Computed installments have no id. They are listed whatever the contract's status, as the export does.
+     */
+    private List<Payment> withVirtualInstallments(Contract contract, List<Payment> stored) {
+        Map<LocalDate, Payment> byDueDate = new HashMap<>();
+        for (Payment payment : buildSchedule(contract)) {
+            byDueDate.put(payment.getDue_date(), payment);
+        }
+        for (Payment payment : stored) {
+            byDueDate.put(payment.getDue_date(), payment);
         }
+        List<Payment> installments = new ArrayList<>(byDueDate.values());
+        installments.sort(Comparator.comparing(Payment::getDue_date));
+        return installments;
+    }
 
-        if (payment.getStatus() != EnumPayment.PENDING && payment.getStatus() != EnumPayment.OVERDUE) {
-            throw new IllegalStateException("Payment cannot be confirmed as its current status is '" + payment.getStatus() + "'.");
+    private PaymentResponse toResponse(Payment payment, FieldSelection selection) {
+        if (selection.isAll()) {
+            return paymentMapper.toResponse(payment);
         }
-        payment.setStatus(EnumPayment.PAID);
-        payment.setPayment_date(LocalDate.now());
+        return new PaymentResponse(
+                payment.getId(),
+                payment.getDue_date(),
+                payment.getPayment_date(),
+                payment.getAmount(),
+                contractMappper.toResponse(payment.getContract(), selection, "contract."));
+    }
+
+    /**
+     * Confirms the payment with a single conditional UPDATE, then adds it to the owner's revenue.
+     * Only when the UPDATE matches nothing are the payment and owner read again, to tell which check failed.
+     */
+    @Transactional
+    public PaymentResponse confirmPayment(UUID id, UUID ownerId) {
+        PaymentResponse confirmed = paymentConfirmationRepository.confirm(id, ownerId, LocalDate.now(clock))
+                .orElseThrow(() -> confirmationFailure(id, ownerId));
+        ownerRevenueRepository.addConfirmed(ownerId, confirmed.due_date(), confirmed.payment_date(), confirmed.amount(),
+                confirmed.contract().status() == EnumContract.TERMINATED);
+        return confirmed;
+    }
 
-        Payment savedPayment = paymentRepository.save(payment);
+    private RuntimeException confirmationFailure(UUID id, UUID ownerId) {
+        Payment payment = paymentRepository.findById(id).orElse(null);
+        if (payment == null) {
+            return new ResourceNotFoundException("Payment not found this id " + id);
+        }
+        if (ownerRepository.findByIdAndRole(ownerId, EnumUser.LOCATOR).isEmpty()) {
+            return new ResourceNotFoundException("Owner not found or permission denied with this id " + id);
+        }
+        if (!payment.getContract().getOwner().getId().equals(ownerId)) {
+            return new ResourceNotFoundException("This owner does not belong to this contract");
+        }
+        return new IllegalStateException("Payment cannot be confirmed as its current status is '" + payment.getStatus() + "'.");
+    }
 
-        return paymentMapper.toResponse(savedPayment);
+    /**
+     * Confirms the contract's installment due on {@code dueDate}, writing it first when it is still virtual.
+     */
+    @Transactional
+    public PaymentResponse confirmInstallment(UUID contractId, LocalDate dueDate, UUID ownerId) {
+        Contract contract = contractRepository.findById(contractId)
+                .orElseThrow(() -> new ResourceNotFoundException("Contract not found with this id " + contractId));
+        boolean scheduled = buildSchedule(contract).stream().anyMatch(payment -> payment.getDue_date().equals(dueDate));
+        if (!scheduled) {
+            throw new ResourceNotFoundException("No installment of contract " + contractId + " is due on " + dueDate);
+        }
+        return confirmPayment(paymentScheduleRepository.materialize(contract, dueDate), ownerId);
     }
 
 
@@ -0,0 +1,82 @@
+package com.example.apiRent.services;
+
+import com.example.apiRent.dtos.pagination.CursorPage;
+import com.example.apiRent.dtos.property.DatePeriod;
+import com.example.apiRent.dtos.property.PropertyAvailabilityFilter;
+import com.example.apiRent.dtos.property.PropertyAvailabilityResponse;
+import com.example.apiRent.dtos.property.PropertyCursor;
+import com.example.apiRent.dtos.property.PropertyResponse;
+import com.example.apiRent.dtos.property.PropertyRow;
+import com.example.apiRent.enums.EnumPropertySort;
+import com.example.apiRent.exceptions.InvalidRequestException;
+import com.example.apiRent.exceptions.ResourceNotFoundException;
+import com.example.apiRent.repositories.PropertyAvailabilityRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class PropertyAvailabilityService {
+
+    private final PropertyAvailabilityRepository propertyAvailabilityRepository;
+
+    public PropertyAvailabilityService(PropertyAvailabilityRepository propertyAvailabilityRepository) {
+        this.propertyAvailabilityRepository = propertyAvailabilityRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public PropertyAvailabilityResponse findAvailability(UUID propertyId, LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new InvalidRequestException("Both from and to are required");
+        }
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from cannot be after to");
+        }
+        List<DatePeriod> leased = propertyAvailabilityRepository.findLeasedPeriods(propertyId, from, to)
+                .orElseThrow(() -> new ResourceNotFoundException("Property not found with this id " + propertyId));
+
+        List<DatePeriod> free = new ArrayList<>();
+        LocalDate nextFree = from;
+        for (DatePeriod period : leased) {
+            if (period.start_date().isAfter(nextFree)) {
+                free.add(new DatePeriod(nextFree, period.start_date().minusDays(1)));
+            }
+            if (!period.end_date().isBefore(nextFree)) {
+                nextFree = period.end_date().plusDays(1);
+            }
+        }
+        if (!nextFree.isAfter(to)) {
+            free.add(new DatePeriod(nextFree, to));
+        }
+        return new PropertyAvailabilityResponse(propertyId, from, to, leased.isEmpty(), leased, free);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<PropertyResponse> findAvailableProperties(PropertyAvailabilityFilter filter, String cursor, int size) {
+        if (filter.from() == null || filter.to() == null) {
+            throw new InvalidRequestException("Both from and to are required");
+        }
+        if (filter.from().isAfter(filter.to())) {
+            throw new InvalidRequestException("from cannot be after to");
+        }
+        if (filter.minPrice() != null && filter.maxPrice() != null && filter.minPrice().compareTo(filter.maxPrice()) > 0) {
+            throw new InvalidRequestException("minPrice cannot be greater than maxPrice");
+        }
+        if (size < 1 || size > PropertyService.MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + PropertyService.MAX_PAGE_SIZE);
+        }
+        PropertyCursor after = cursor == null || cursor.isBlank() ? null : PropertyCursor.decode(cursor, EnumPropertySort.PRICE);
+
+        List<PropertyRow> rows = propertyAvailabilityRepository.findAvailablePage(filter, after, size + 1);
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = PropertyCursor.after(rows.get(size - 1), EnumPropertySort.PRICE).encode();
+        }
+        return new CursorPage<>(rows.stream().map(PropertyRow::toResponse).toList(), nextCursor);
+    }
+}
@@ -1,17 +1,28 @@
 package com.example.apiRent.services;
 
+import com.example.apiRent.configs.CacheConfig;
+import com.example.apiRent.dtos.pagination.CursorPage;
+import com.example.apiRent.dtos.property.PropertyCursor;
+import com.example.apiRent.dtos.property.PropertyFilter;
 import com.example.apiRent.dtos.property.PropertyRequest;
 import com.example.apiRent.dtos.property.PropertyResponse;
+import com.example.apiRent.dtos.property.PropertyRow;
 import com.example.apiRent.enums.EnumProperty;
+import com.example.apiRent.enums.EnumPropertySort;
+import com.example.apiRent.enums.EnumSearchMode;
 import com.example.apiRent.enums.EnumUser;
+import com.example.apiRent.exceptions.InvalidRequestException;
 import com.example.apiRent.exceptions.ResourceNotFoundException;
 import com.example.apiRent.mappers.PropertyMapper;
 import com.example.apiRent.models.Owner;
 import com.example.apiRent.models.Property;
 import com.example.apiRent.repositories.OwnerRepository;
 import com.example.apiRent.repositories.PropertyRepository;
-import jakarta.transaction.Transactional;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
@@ -19,6 +30,11 @@ import java.util.UUID;
 @Service
 public class PropertyService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 50;
+
     private final PropertyRepository propertyRepository;
     private final PropertyMapper propertyMapper;
     private final OwnerRepository ownerRepository;
@@ -29,10 +45,23 @@ public class PropertyService {
         this.ownerRepository = ownerRepository;
     }
 
-    @Transactional
-    public List<PropertyResponse> findAllProperties() {
-        List<Property> properties = propertyRepository.findAll();
-        return propertyMapper.toResponseList(properties);
+    @Transactional(readOnly = true)
+    public CursorPage<PropertyResponse> findPropertiesPage(PropertyFilter filter, EnumPropertySort sort, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (filter.minPrice() != null && filter.maxPrice() != null && filter.minPrice().compareTo(filter.maxPrice()) > 0) {
+            throw new InvalidRequestException("minPrice cannot be greater than maxPrice");
+        }
+        PropertyCursor after = cursor == null || cursor.isBlank() ? null : PropertyCursor.decode(cursor, sort);
+
+        List<PropertyRow> rows = propertyRepository.findPage(filter, sort, after, size + 1);
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = PropertyCursor.after(rows.get(size - 1), sort).encode();
+        }
+        return new CursorPage<>(rows.stream().map(PropertyRow::toResponse).toList(), nextCursor);
     }
 
     @Transactional
@@ -48,6 +77,7 @@ public class PropertyService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROPERTIES, key = "#id")
     public PropertyResponse updateProperties(UUID id, PropertyRequest propertyRequest) {
         UUID ownerId = propertyRequest.ownerId();
         Owner foundOwner = ownerRepository.findByIdAndRole(ownerId, EnumUser.LOCATOR).orElseThrow(() -> new ResourceNotFoundException("LOCATOR with ID " + ownerId + " not found or permission denied."));
@@ -63,21 +93,31 @@ public class PropertyService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROPERTIES, key = "#id")
     public void deletePropertyById(UUID id) {
         Property property = propertyRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Property not found with this id " + id));
         propertyRepository.deleteById(id);
     }
 
     @Transactional
+    @Cacheable(cacheNames = CacheConfig.PROPERTIES, key = "#id")
     public PropertyResponse findPropertyById(UUID id) {
         Property property = propertyRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Property not found with this id " + id));
         return propertyMapper.toResponse(property);
     }
 
-    @Transactional
-    public List<PropertyResponse> queryPropertyByName(String name) {
-        List<Property> properties = propertyRepository.findByTitleContainingIgnoreCase(name);
-        return propertyMapper.toResponseList(properties);
+    @Transactional(readOnly = true)
+    public List<PropertyResponse> queryPropertyByName(String name, EnumSearchMode mode, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new InvalidRequestException("Search limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        if (name == null || name.isBlank()) {
+            throw new InvalidRequestException("Search term cannot be blank");
+        }
+        if (mode == EnumSearchMode.FUZZY) {
+            return propertyMapper.toResponseList(propertyRepository.searchBySimilarity(name.trim(), limit));
+        }
+        return propertyRepository.findResponsesByTitle(name, Limit.of(limit));
     }
 
 
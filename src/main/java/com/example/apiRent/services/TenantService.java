@@ -1,5 +1,6 @@
 package com.example.apiRent.services;
 
+import com.example.apiRent.configs.CacheConfig;
 import com.example.apiRent.dtos.tenant.TenantRequest;
 import com.example.apiRent.dtos.tenant.TenantResponse;
 import com.example.apiRent.enums.EnumUser;
@@ -7,8 +8,10 @@ import com.example.apiRent.exceptions.ResourceNotFoundException;
 import com.example.apiRent.mappers.TenantMapper;
 import com.example.apiRent.models.Tenant;
 import com.example.apiRent.repositories.TenantRepository;
-import jakarta.transaction.Transactional;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
@@ -25,10 +28,9 @@ public class TenantService {
         this.tenantRepository = tenantRepository;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<TenantResponse> findAllTenants() {
-        List<Tenant> tenants = tenantRepository.findAll();
-        return tenantMapper.toResponseList(tenants);
+        return tenantRepository.findAllResponses();
     }
 
     @Transactional
@@ -40,6 +42,7 @@ public class TenantService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TENANTS, key = "#id")
     public TenantResponse updateTenants(UUID id, TenantRequest tenantRequest) {
         Tenant tenant = tenantRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Tenant not found with this id"));
         tenant.setName(tenantRequest.name());
@@ -49,21 +52,22 @@ public class TenantService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TENANTS, key = "#id")
     public void deleteById(UUID id) {
         Tenant tenant = tenantRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Tenant not found with this id"));
         tenantRepository.deleteById(id);
     }
 
     @Transactional
+    @Cacheable(cacheNames = CacheConfig.TENANTS, key = "#id")
     public TenantResponse findById(UUID id) {
         Tenant tenant = tenantRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Tenant not found with this id"));
         return tenantMapper.toResponse(tenant);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<TenantResponse> queryName(String name) {
-        List<Tenant> tenants = tenantRepository.findByNameContainingIgnoreCase(name);
-        return tenantMapper.toResponseList(tenants);
+        return tenantRepository.findResponsesByName(name);
     }
 
 
@@ -0,0 +1 @@
+CREATE INDEX idx_contract_active_end_date ON contract (end_date) WHERE status = 'ACTIVE';
@@ -0,0 +1,2 @@
+CREATE INDEX idx_contract_owner_status_start ON contract (owner_id, status, start_date, id);
+CREATE INDEX idx_contract_tenant_status_start ON contract (tenant_id, status, start_date, id);
@@ -0,0 +1,8 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- end_date is the last day of the lease (the expiration job expires contracts with end_date < today)
+ALTER TABLE contract ADD COLUMN period daterange GENERATED ALWAYS AS (daterange(start_date, end_date, '[]')) STORED;
+
+-- No two active leases of a property may overlap; the backing GiST index also serves availability lookups
+ALTER TABLE contract ADD CONSTRAINT excl_contract_property_period
+    EXCLUDE USING gist (property_id WITH =, period WITH &&) WHERE (status = 'ACTIVE');
@@ -0,0 +1,2 @@
+-- Serves the per-contract schedule reads (payment listing and the renewal/amendment delta)
+CREATE INDEX idx_payment_contract_due_date ON payment (contract_id, due_date);
@@ -0,0 +1,6 @@
+-- Contracts created with payments.schedule.virtual=true keep only the installments that were confirmed or adjusted
+ALTER TABLE contract ADD COLUMN virtual_schedule BOOLEAN NOT NULL DEFAULT false;
+
+-- One installment per month; lets a virtual installment be materialized with ON CONFLICT DO NOTHING
+CREATE UNIQUE INDEX uq_payment_contract_due_date ON payment (contract_id, due_date);
+DROP INDEX idx_payment_contract_due_date;
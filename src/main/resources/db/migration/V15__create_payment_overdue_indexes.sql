@@ -0,0 +1,6 @@
+-- Candidates of the overdue job; rows leave the index as soon as they stop being pending
+CREATE INDEX idx_payment_pending_due_date ON payment (due_date) WHERE status = 'PENDING';
+
+-- Virtual schedules have no pending rows, so the job tracks up to which date their installments were written as overdue
+ALTER TABLE contract ADD COLUMN overdue_marked_until DATE;
+CREATE INDEX idx_contract_virtual_overdue ON contract ((coalesce(overdue_marked_until, start_date))) WHERE virtual_schedule;
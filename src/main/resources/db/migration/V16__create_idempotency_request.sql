@@ -0,0 +1,14 @@
+-- Responses kept for replay under an Idempotency-Key. Unlogged: writes skip the WAL, and after a crash the table comes back empty, which only makes a retry run again
+CREATE UNLOGGED TABLE idempotency_request (
+    idempotency_key VARCHAR(255) NOT NULL,
+    scope           VARCHAR(512) NOT NULL,
+    fingerprint     CHAR(64)     NOT NULL,
+    status          INTEGER,
+    content_type    VARCHAR(255),
+    body            BYTEA,
+    created_at      TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    expires_at      TIMESTAMPTZ  NOT NULL,
+    PRIMARY KEY (idempotency_key, scope)
+);
+
+CREATE INDEX idx_idempotency_request_expires_at ON idempotency_request (expires_at);
@@ -0,0 +1,62 @@
+-- payment becomes range-partitioned by year of due_date. The primary key has to include the partition key; ids stay unique on their own since they are generated UUIDs
+ALTER TABLE payment RENAME TO payment_unpartitioned;
+ALTER TABLE payment_unpartitioned RENAME CONSTRAINT payment_pkey TO payment_unpartitioned_pkey;
+DROP INDEX uq_payment_contract_due_date;
+DROP INDEX idx_payment_pending_due_date;
+
+CREATE TABLE payment (
+    id UUID NOT NULL DEFAULT uuid_generate_v4(),
+    contract_id UUID NOT NULL,
+    amount NUMERIC(12,2) NOT NULL,
+    due_date DATE NOT NULL,
+    payment_date DATE,
+    status VARCHAR(255) NOT NULL DEFAULT 'PENDING',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
+
+    CONSTRAINT payment_pkey PRIMARY KEY (id, due_date),
+    CONSTRAINT fk_contract FOREIGN KEY (contract_id) REFERENCES contract(id),
+    CONSTRAINT chk_payment_status CHECK (status IN ('PENDING', 'PAID', 'OVERDUE'))
+) PARTITION BY RANGE (due_date);
+
+-- Rows due in a year without a partition yet land here until create_payment_partitions moves them out
+CREATE TABLE payment_default PARTITION OF payment DEFAULT;
+
+-- Creates the yearly partitions payment_yYYYY covering from_date through through_date that do not exist yet, moving their rows out of payment_default first
+CREATE FUNCTION create_payment_partitions(from_date DATE, through_date DATE) RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    year_start DATE := date_trunc('year', from_date)::date;
+    year_end DATE;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('create_payment_partitions'));
+    WHILE year_start <= through_date LOOP
+        year_end := (year_start + interval '1 year')::date;
+        partition_name := 'payment_y' || extract(year FROM year_start);
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I (LIKE payment INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+            EXECUTE format('WITH moved AS (DELETE FROM payment_default WHERE due_date >= %L AND due_date < %L RETURNING *) INSERT INTO %I SELECT * FROM moved',
+                    year_start, year_end, partition_name);
+            EXECUTE format('ALTER TABLE payment ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', partition_name, year_start, year_end);
+            created := created + 1;
+        END IF;
+        year_start := year_end;
+    END LOOP;
+    RETURN created;
+END
+$$;
+
+SELECT create_payment_partitions(
+        least(current_date, (SELECT min(due_date) FROM payment_unpartitioned)),
+        greatest((current_date + interval '2 years')::date, (SELECT max(due_date) FROM payment_unpartitioned)));
+
+INSERT INTO payment (id, contract_id, amount, due_date, payment_date, status, created_at, version)
+SELECT id, contract_id, amount, due_date, payment_date, status, created_at, version FROM payment_unpartitioned;
+
+DROP TABLE payment_unpartitioned;
+
+-- Created on the parent, so every partition gets its own copy, including the ones created later
+CREATE UNIQUE INDEX uq_payment_contract_due_date ON payment (contract_id, due_date);
+CREATE INDEX idx_payment_pending_due_date ON payment (due_date) WHERE status = 'PENDING';
@@ -0,0 +1,37 @@
+-- What each contract is worth to its owner per month. expected counts installments by due month, virtual ones included, leaving out the unpaid ones of a terminated contract; received counts paid installments by payment month
+CREATE VIEW contract_monthly_revenue AS
+SELECT contract_id, owner_id, month, sum(expected) AS expected, sum(received) AS received
+FROM (
+    SELECT c.id AS contract_id, c.owner_id, date_trunc('month', p.due_date)::date AS month, p.amount AS expected, 0 AS received
+    FROM payment p
+    JOIN contract c ON c.id = p.contract_id
+    WHERE c.status <> 'TERMINATED' OR p.status = 'PAID'
+    UNION ALL
+    SELECT c.id, c.owner_id, date_trunc('month', p.payment_date)::date, 0, p.amount
+    FROM payment p
+    JOIN contract c ON c.id = p.contract_id
+    WHERE p.status = 'PAID'
+    UNION ALL
+    SELECT c.id, c.owner_id, date_trunc('month', d)::date, c.monthly_value, 0
+    FROM contract c
+    CROSS JOIN LATERAL generate_series(c.start_date::timestamp, c.end_date::timestamp, interval '1 month') AS d
+    WHERE c.virtual_schedule AND c.status <> 'TERMINATED'
+      AND NOT EXISTS (SELECT 1 FROM payment p WHERE p.contract_id = c.id AND p.due_date = d::date)
+) AS revenue
+GROUP BY contract_id, owner_id, month;
+
+-- contract_monthly_revenue summed per owner, kept up to date by the writes that change it
+CREATE TABLE owner_monthly_revenue (
+    owner_id UUID NOT NULL,
+    month DATE NOT NULL,
+    expected NUMERIC(14,2) NOT NULL DEFAULT 0,
+    received NUMERIC(14,2) NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_owner_monthly_revenue PRIMARY KEY (owner_id, month),
+    CONSTRAINT fk_owner_monthly_revenue_owner FOREIGN KEY (owner_id) REFERENCES owner(id) ON DELETE CASCADE
+);
+
+INSERT INTO owner_monthly_revenue (owner_id, month, expected, received)
+SELECT owner_id, month, sum(expected), sum(received)
+FROM contract_monthly_revenue
+GROUP BY owner_id, month;
@@ -0,0 +1,3 @@
+-- Only active contracts fall overdue; terminated and expired ones leave the index instead of being skipped on every run
+DROP INDEX idx_contract_virtual_overdue;
+CREATE INDEX idx_contract_virtual_overdue ON contract ((coalesce(overdue_marked_until, start_date))) WHERE virtual_schedule AND status = 'ACTIVE';
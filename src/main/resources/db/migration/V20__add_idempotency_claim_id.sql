@@ -0,0 +1,3 @@
+-- Identifies who holds a claim, so a request whose stale claim was taken over can no longer complete or release it
+ALTER TABLE idempotency_request ADD COLUMN claim_id UUID NOT NULL DEFAULT uuid_generate_v4();
+ALTER TABLE idempotency_request ALTER COLUMN claim_id DROP DEFAULT;
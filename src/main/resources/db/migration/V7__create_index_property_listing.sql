@@ -0,0 +1,10 @@
+UPDATE property SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+
+ALTER TABLE property ALTER COLUMN created_at SET NOT NULL;
+
+CREATE INDEX idx_property_price_id ON property (price, id);
+CREATE INDEX idx_property_created_at_id ON property (created_at, id);
+CREATE INDEX idx_property_status_price_id ON property (status, price, id);
+CREATE INDEX idx_property_status_created_at_id ON property (status, created_at, id);
+CREATE INDEX idx_property_owner_price_id ON property (owner_id, price, id);
+CREATE INDEX idx_property_owner_created_at_id ON property (owner_id, created_at, id);
@@ -0,0 +1,8 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_property_title_trgm ON property USING gin (title gin_trgm_ops);
+CREATE INDEX idx_property_description_trgm ON property USING gin (description gin_trgm_ops);
+CREATE INDEX idx_property_address_trgm ON property USING gin (address gin_trgm_ops);
+
+-- Backs the CONTAINS search mode, which Hibernate renders as upper(title) like upper(?)
+CREATE INDEX idx_property_upper_title_trgm ON property USING gin (upper(title) gin_trgm_ops);
@@ -0,0 +1,3 @@
+ALTER TABLE property ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE contract ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE payment ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
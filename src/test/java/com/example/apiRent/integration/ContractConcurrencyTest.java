@@ -0,0 +1,167 @@
+package com.example.apiRent.integration;
+
+import com.example.apiRent.dtos.contract.ContractBatchItemResult;
+import com.example.apiRent.dtos.contract.ContractBatchResponse;
+import com.example.apiRent.dtos.contract.ContractRequest;
+import com.example.apiRent.enums.EnumBatchItemStatus;
+import com.example.apiRent.enums.EnumProperty;
+import com.example.apiRent.exceptions.ContractOverlapException;
+import com.example.apiRent.models.Owner;
+import com.example.apiRent.models.Tenant;
+import com.example.apiRent.services.ContractBatchService;
+import com.example.apiRent.services.ContractService;
+import com.example.apiRent.unitests.mappers.mocks.IntegrationFixture;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires a burst of parallel contract creations at a handful of properties. Every property must end up
+ * with exactly one contract: attempts queue on the property row lock, the first commit wins, and every
+ * other attempt is rejected by the exclusion constraint on overlapping lease periods. Throughput under the
+ * same contention is measured by {@code ContractCreationBenchmark}.
+ */
+@SpringBootTest
+class ContractConcurrencyTest {
+
+    private static final int PROPERTIES = 5;
+    private static final int ATTEMPTS = 2000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private ContractBatchService contractBatchService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Owner owner;
+    private Tenant tenant;
+    private final List<UUID> propertyIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            IntegrationFixture fixture = new IntegrationFixture(entityManager);
+            owner = fixture.owner("Concurrency owner");
+            tenant = fixture.tenant("Concurrency tenant");
+            for (int i = 0; i < PROPERTIES; i++) {
+                propertyIds.add(fixture.property(owner, "contended " + i, new BigDecimal(1000 + i), EnumProperty.AVAILABLE).getId());
+            }
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        Object[] ids = propertyIds.toArray();
+        String in = String.join(",", propertyIds.stream().map(id -> "?").toList());
+        jdbcTemplate.update("DELETE FROM payment WHERE contract_id IN (SELECT id FROM contract WHERE property_id IN (" + in + "))", ids);
+        jdbcTemplate.update("DELETE FROM contract WHERE property_id IN (" + in + ")", ids);
+        jdbcTemplate.update("DELETE FROM property WHERE id IN (" + in + ")", ids);
+        jdbcTemplate.update("DELETE FROM tenant WHERE id = ?", tenant.getId());
+        jdbcTemplate.update("DELETE FROM owner WHERE id = ?", owner.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", tenant.getId(), owner.getId());
+    }
+
+    @Test
+    void parallelCreationsNeverDoubleBookAProperty() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger overlapping = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        LocalDate start = LocalDate.now().plusDays(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                UUID propertyId = propertyIds.get(i % PROPERTIES);
+                futures.add(executor.submit(() -> {
+                    try {
+                        contractService.createContracts(new ContractRequest(
+                                start, start.plusMonths(1), new BigDecimal("1500.00"), tenant.getId(), owner.getId(), propertyId));
+                        created.incrementAndGet();
+                    } catch (ContractOverlapException e) {
+                        overlapping.incrementAndGet();
+                    } catch (OptimisticLockingFailureException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(ATTEMPTS, created.get() + overlapping.get() + conflicts.get());
+        assertEquals(PROPERTIES, created.get());
+        for (UUID propertyId : propertyIds) {
+            Integer contracts = jdbcTemplate.queryForObject("SELECT count(*) FROM contract WHERE property_id = ?", Integer.class, propertyId);
+            assertEquals(1, contracts, "property " + propertyId + " is booked " + contracts + " times");
+        }
+    }
+
+    @Test
+    void futureLeaseIsAcceptedUnlessItOverlaps() {
+        UUID propertyId = propertyIds.get(0);
+        LocalDate start = LocalDate.now().plusDays(1);
+        contractService.createContracts(new ContractRequest(
+                start, start.plusMonths(6).minusDays(1), new BigDecimal("1500.00"), tenant.getId(), owner.getId(), propertyId));
+
+        contractService.createContracts(new ContractRequest(
+                start.plusMonths(6), start.plusMonths(12).minusDays(1), new BigDecimal("1600.00"), tenant.getId(), owner.getId(), propertyId));
+
+        assertThrows(ContractOverlapException.class, () -> contractService.createContracts(new ContractRequest(
+                start.plusMonths(11), start.plusMonths(13), new BigDecimal("1700.00"), tenant.getId(), owner.getId(), propertyId)));
+        Integer contracts = jdbcTemplate.queryForObject("SELECT count(*) FROM contract WHERE property_id = ?", Integer.class, propertyId);
+        assertEquals(2, contracts);
+    }
+
+    @Test
+    void batchFollowsTheSameRulesPerItem() {
+        UUID propertyId = propertyIds.get(1);
+        LocalDate start = LocalDate.now().plusDays(1);
+        contractService.createContracts(new ContractRequest(
+                start, start.plusMonths(6).minusDays(1), new BigDecimal("1500.00"), tenant.getId(), owner.getId(), propertyId));
+
+        ContractBatchResponse response = contractBatchService.createContracts(List.of(
+                new ContractRequest(start.plusMonths(5), start.plusMonths(7), new BigDecimal("1600.00"), tenant.getId(), owner.getId(), propertyId),
+                new ContractRequest(start.plusMonths(6), start.plusMonths(12).minusDays(1), new BigDecimal("1600.00"), tenant.getId(), owner.getId(), propertyId),
+                new ContractRequest(start.plusMonths(11), start.plusMonths(13), new BigDecimal("1700.00"), tenant.getId(), owner.getId(), propertyId),
+                new ContractRequest(start.plusMonths(12), start.plusMonths(18), new BigDecimal("1700.00"), tenant.getId(), owner.getId(), propertyId)));
+
+        assertEquals(List.of(EnumBatchItemStatus.REJECTED, EnumBatchItemStatus.CREATED, EnumBatchItemStatus.REJECTED, EnumBatchItemStatus.CREATED),
+                response.results().stream().map(ContractBatchItemResult::status).toList());
+        assertTrue(response.results().get(0).message().contains("already leased"));
+        assertTrue(response.results().get(2).message().contains("already requested by item 1"));
+        Integer contracts = jdbcTemplate.queryForObject("SELECT count(*) FROM contract WHERE property_id = ?", Integer.class, propertyId);
+        assertEquals(3, contracts);
+    }
+}
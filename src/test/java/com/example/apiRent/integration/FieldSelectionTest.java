@@ -0,0 +1,107 @@
+package com.example.apiRent.integration;
+
+import com.example.apiRent.enums.EnumPayment;
+import com.example.apiRent.models.Contract;
+import com.example.apiRent.unitests.mappers.mocks.IntegrationFixture;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@code ?fields=} and {@code ?expand=} are applied by the JSON filter, so the rendered shape is checked end to end.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class FieldSelectionTest {
+
+    private static final int PAYMENTS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Contract contract;
+
+    @BeforeEach
+    void seed() {
+        IntegrationFixture fixture = new IntegrationFixture(entityManager);
+        contract = fixture.lease("selection", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 1), new BigDecimal("1500"));
+        for (int month = 0; month < PAYMENTS; month++) {
+            fixture.payment(contract, contract.getStart_date().plusMonths(month), EnumPayment.PENDING);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findContractByIdExpandsEverythingByDefault() throws Exception {
+        mockMvc.perform(get("/contracts/{id}", contract.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.property.title").value("selection"))
+                .andExpect(jsonPath("$.tenant.name").value("selection tenant"))
+                .andExpect(jsonPath("$.owner.name").value("selection owner"));
+    }
+
+    @Test
+    void findContractByIdRendersUnexpandedAssociationsAsReferences() throws Exception {
+        mockMvc.perform(get("/contracts/{id}", contract.getId()).param("expand", "owner"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.owner.name").value("selection owner"))
+                .andExpect(jsonPath("$.property", aMapWithSize(1)))
+                .andExpect(jsonPath("$.property.id").value(contract.getProperty().getId().toString()))
+                .andExpect(jsonPath("$.tenant", aMapWithSize(1)))
+                .andExpect(jsonPath("$._links.findContractsByTenant.href").exists());
+    }
+
+    @Test
+    void findPaymentByContractKeepsOnlySelectedFields() throws Exception {
+        mockMvc.perform(get("/payments/contracts/{id}", contract.getId()).param("fields", "id,amount,contract.status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.paymentResponseList", hasSize(PAYMENTS)))
+                .andExpect(jsonPath("$._embedded.paymentResponseList[0].due_date").doesNotExist())
+                .andExpect(jsonPath("$._embedded.paymentResponseList[0].amount").value(1500))
+                .andExpect(jsonPath("$._embedded.paymentResponseList[0].contract", aMapWithSize(1)))
+                .andExpect(jsonPath("$._embedded.paymentResponseList[0].contract.status").value("ACTIVE"))
+                .andExpect(jsonPath("$._embedded.paymentResponseList[0]._links.confirmPayment.href").exists());
+    }
+
+    @Test
+    void findPaymentByContractWithoutExpansion() throws Exception {
+        mockMvc.perform(get("/payments/contracts/{id}", contract.getId()).param("expand", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.paymentResponseList[0].due_date").value("2025-01-01"))
+                .andExpect(jsonPath("$._embedded.paymentResponseList[0].contract", aMapWithSize(1)))
+                .andExpect(jsonPath("$._embedded.paymentResponseList[0].contract.id").value(contract.getId().toString()));
+    }
+
+    @Test
+    void findOwnersKeepsOnlySelectedFields() throws Exception {
+        mockMvc.perform(get("/owners/{id}", contract.getOwner().getId()).param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("selection owner"))
+                .andExpect(jsonPath("$.email").doesNotExist());
+    }
+
+    @Test
+    void rejectsUnknownExpansion() throws Exception {
+        mockMvc.perform(get("/payments/contracts/{id}", contract.getId()).param("expand", "contract.payments"))
+                .andExpect(status().isBadRequest());
+    }
+}
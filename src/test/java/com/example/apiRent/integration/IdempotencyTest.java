@@ -0,0 +1,215 @@
+package com.example.apiRent.integration;
+
+import com.example.apiRent.configs.IdempotencyFilter;
+import com.example.apiRent.enums.EnumPayment;
+import com.example.apiRent.models.Contract;
+import com.example.apiRent.models.Payment;
+import com.example.apiRent.repositories.IdempotencyRepository;
+import com.example.apiRent.unitests.mappers.mocks.IntegrationFixture;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keys are random per test: the in-memory side of the store outlives the rolled-back transactions.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class IdempotencyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdempotencyRepository idempotencyRepository;
+
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
+
+    private Contract contract;
+    private UUID paymentId;
+
+    @BeforeEach
+    void seed() {
+        IntegrationFixture fixture = new IntegrationFixture(entityManager);
+        contract = fixture.lease("idempotency", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 1), new BigDecimal("700"));
+        Payment payment = fixture.payment(contract, contract.getStart_date(), EnumPayment.PENDING);
+        entityManager.flush();
+        paymentId = payment.getId();
+    }
+
+    private String paymentStatus() {
+        return jdbcTemplate.queryForObject("SELECT status FROM payment WHERE id = ?", String.class, paymentId);
+    }
+
+    @Test
+    void replaysTheConfirmationWithoutRunningItAgain() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String first = mockMvc.perform(patch("/payments/{paymentId}/owner/{ownerId}/confirm", paymentId, contract.getOwner().getId())
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+        jdbcTemplate.update("UPDATE payment SET status = 'PENDING', payment_date = NULL WHERE id = ?", paymentId);
+
+        mockMvc.perform(patch("/payments/{paymentId}/owner/{ownerId}/confirm", paymentId, contract.getOwner().getId())
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().json(first, JsonCompareMode.STRICT));
+
+        assertEquals("PENDING", paymentStatus());
+    }
+
+    @Test
+    void replaysAClientErrorAsWell() throws Exception {
+        String key = UUID.randomUUID().toString();
+        UUID stranger = UUID.randomUUID();
+        mockMvc.perform(patch("/payments/{paymentId}/owner/{ownerId}/confirm", paymentId, stranger)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(patch("/payments/{paymentId}/owner/{ownerId}/confirm", paymentId, stranger)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+    }
+
+    @Test
+    void requestsWithoutAKeyRunEveryTime() throws Exception {
+        mockMvc.perform(patch("/payments/{paymentId}/owner/{ownerId}/confirm", paymentId, contract.getOwner().getId()))
+                .andExpect(status().isOk());
+        jdbcTemplate.update("UPDATE payment SET status = 'PENDING', payment_date = NULL WHERE id = ?", paymentId);
+
+        mockMvc.perform(patch("/payments/{paymentId}/owner/{ownerId}/confirm", paymentId, contract.getOwner().getId()))
+                .andExpect(status().isOk());
+
+        assertEquals("PAID", paymentStatus());
+    }
+
+    @Test
+    void rejectsAKeyReusedWithAnotherBody() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = """
+                {"ownerId": "%s", "paymentIds": ["%s"]}
+                """.formatted(contract.getOwner().getId(), paymentId);
+        mockMvc.perform(patch("/payments/confirm").header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch("/payments/confirm").header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(body.replace(paymentId.toString(), UUID.randomUUID().toString())))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void rejectsARequestWhileTheFirstIsUnderWay() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String scope = "PATCH /payments/" + paymentId + "/owner/" + contract.getOwner().getId() + "/confirm";
+        // No query string and no body
+        String fingerprint = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(new byte[]{'\n'}));
+        idempotencyRepository.claim(key, scope, fingerprint, UUID.randomUUID(), Duration.ofHours(1), Duration.ofMinutes(1));
+
+        mockMvc.perform(patch("/payments/{paymentId}/owner/{ownerId}/confirm", paymentId, contract.getOwner().getId())
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key))
+                .andExpect(status().isConflict());
+        assertEquals("PENDING", paymentStatus());
+
+        mockMvc.perform(patch("/payments/{paymentId}/owner/{ownerId}/confirm", paymentId, contract.getOwner().getId())
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key + "-other"))
+                .andExpect(status().isOk());
+        assertEquals("PAID", paymentStatus());
+    }
+
+    @Test
+    void aStaleClaimTakenOverCanNoLongerCompleteOrRelease() {
+        String key = UUID.randomUUID().toString();
+        String scope = "PATCH /payments/confirm";
+        UUID stale = UUID.randomUUID();
+        UUID current = UUID.randomUUID();
+        assertTrue(idempotencyRepository.claim(key, scope, "fingerprint", stale, Duration.ofHours(1), Duration.ofMinutes(1)));
+        assertFalse(idempotencyRepository.claim(key, scope, "fingerprint", current, Duration.ofHours(1), Duration.ofMinutes(1)));
+        assertTrue(idempotencyRepository.claim(key, scope, "fingerprint", current, Duration.ofHours(1), Duration.ZERO));
+
+        idempotencyRepository.release(key, scope, stale);
+        assertFalse(idempotencyRepository.complete(key, scope, stale, 500, null, new byte[0]));
+        assertTrue(idempotencyRepository.complete(key, scope, current, 200, MediaType.APPLICATION_JSON_VALUE, "{}".getBytes()));
+
+        assertEquals(200, idempotencyRepository.find(key, scope).orElseThrow().status());
+    }
+
+    @Test
+    void releasesTheKeyAfterAConflictOrTooManyRequests() throws Exception {
+        for (HttpStatus retryable : List.of(HttpStatus.CONFLICT, HttpStatus.TOO_MANY_REQUESTS)) {
+            String key = UUID.randomUUID().toString();
+            AtomicInteger runs = new AtomicInteger();
+            FilterChain failingOnce = (request, response) -> ((HttpServletResponse) response)
+                    .setStatus(runs.incrementAndGet() == 1 ? retryable.value() : HttpStatus.OK.value());
+
+            assertEquals(retryable.value(), confirmThroughFilter(key, failingOnce).getStatus());
+            assertTrue(idempotencyRepository.find(key, "PATCH /payments/confirm").isEmpty());
+            assertEquals(HttpStatus.OK.value(), confirmThroughFilter(key, failingOnce).getStatus());
+            MockHttpServletResponse replayed = confirmThroughFilter(key, failingOnce);
+
+            assertEquals(HttpStatus.OK.value(), replayed.getStatus());
+            assertEquals("true", replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+            assertEquals(2, runs.get());
+        }
+    }
+
+    private MockHttpServletResponse confirmThroughFilter(String key, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/payments/confirm");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent("{}".getBytes());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        idempotencyFilter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void rejectsABlankKey() throws Exception {
+        mockMvc.perform(patch("/payments/{paymentId}/owner/{ownerId}/confirm", paymentId, contract.getOwner().getId())
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, " "))
+                .andExpect(status().isBadRequest());
+
+        assertEquals("PENDING", paymentStatus());
+    }
+}
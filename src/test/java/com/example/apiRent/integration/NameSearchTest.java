@@ -0,0 +1,72 @@
+package com.example.apiRent.integration;
+
+import com.example.apiRent.dtos.owner.OwnerResponse;
+import com.example.apiRent.dtos.property.PropertyResponse;
+import com.example.apiRent.dtos.tenant.TenantResponse;
+import com.example.apiRent.enums.EnumProperty;
+import com.example.apiRent.models.Owner;
+import com.example.apiRent.repositories.OwnerRepository;
+import com.example.apiRent.repositories.PropertyRepository;
+import com.example.apiRent.repositories.TenantRepository;
+import com.example.apiRent.unitests.mappers.mocks.IntegrationFixture;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The search terms carry a random marker, so rows left by other tests never match.
+ */
+@SpringBootTest
+@Transactional
+class NameSearchTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    private String marker;
+
+    @BeforeEach
+    void seed() {
+        IntegrationFixture fixture = new IntegrationFixture(entityManager);
+        marker = UUID.randomUUID().toString().substring(0, 8);
+        Owner owner = fixture.owner(marker + " 50% off");
+        fixture.owner(marker + " 500");
+        fixture.tenant(marker + " a_b");
+        fixture.tenant(marker + " axb");
+        fixture.property(owner, marker + " 100%", new BigDecimal("1000"), EnumProperty.AVAILABLE);
+        fixture.property(owner, marker + " 1000", new BigDecimal("1000"), EnumProperty.AVAILABLE);
+        entityManager.flush();
+    }
+
+    @Test
+    void wildcardsInTheSearchTermMatchLiterally() {
+        assertEquals(List.of(marker + " 50% off"), ownerRepository.findResponsesByName(marker + " 50%").stream().map(OwnerResponse::name).toList());
+        assertEquals(List.of(marker + " a_b"), tenantRepository.findResponsesByName(marker.toUpperCase() + " A_B").stream().map(TenantResponse::name).toList());
+        assertEquals(List.of(marker + " 100%"), propertyRepository.findResponsesByTitle(marker + " 100%", Limit.of(10)).stream().map(PropertyResponse::title).toList());
+    }
+
+    @Test
+    void wildcardAloneMatchesOnlyNamesContainingIt() {
+        assertEquals(0, ownerRepository.findResponsesByName("%" + marker).size());
+        assertEquals(2, ownerRepository.findResponsesByName(marker).size());
+    }
+}
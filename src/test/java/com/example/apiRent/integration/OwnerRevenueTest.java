@@ -0,0 +1,196 @@
+package com.example.apiRent.integration;
+
+import com.example.apiRent.enums.EnumContract;
+import com.example.apiRent.enums.EnumProperty;
+import com.example.apiRent.models.Contract;
+import com.example.apiRent.models.Owner;
+import com.example.apiRent.models.Property;
+import com.example.apiRent.models.Tenant;
+import com.example.apiRent.repositories.OwnerRevenueRepository;
+import com.example.apiRent.services.OwnerRevenueService;
+import com.example.apiRent.unitests.mappers.mocks.IntegrationFixture;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Drives the writes through the API and checks the maintained aggregate against a rebuild from scratch.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class OwnerRevenueTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OwnerRevenueRepository ownerRevenueRepository;
+
+    @Autowired
+    private OwnerRevenueService ownerRevenueService;
+
+    private Owner owner;
+    private Tenant tenant;
+    private Property property;
+
+    @BeforeEach
+    void seed() {
+        IntegrationFixture fixture = new IntegrationFixture(entityManager);
+        owner = fixture.owner("Revenue owner");
+        tenant = fixture.tenant("Revenue tenant");
+        property = fixture.property(owner, "revenue", new BigDecimal("1000"), EnumProperty.AVAILABLE);
+        entityManager.flush();
+    }
+
+    private UUID createContract() throws Exception {
+        String body = """
+                {"start_date": "2031-01-10", "end_date": "2031-03-10", "monthly_value": 1000,
+                 "tenantId": "%s", "ownerId": "%s", "propertyId": "%s"}
+                """.formatted(tenant.getId(), owner.getId(), property.getId());
+        String response = mockMvc.perform(post("/contracts/create").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return UUID.fromString(JsonPath.read(response, "$.id"));
+    }
+
+    private UUID paymentDue(UUID contractId, LocalDate dueDate) {
+        return jdbcTemplate.queryForObject("SELECT id FROM payment WHERE contract_id = ? AND due_date = ?", UUID.class, contractId, dueDate);
+    }
+
+    private List<Map<String, Object>> storedRevenue() {
+        return jdbcTemplate.queryForList("SELECT month, expected, received FROM owner_monthly_revenue WHERE owner_id = ? AND (expected <> 0 OR received <> 0) ORDER BY month", owner.getId());
+    }
+
+    private void assertMatchesRebuild() {
+        List<Map<String, Object>> maintained = storedRevenue();
+        ownerRevenueService.rebuildRevenue();
+        assertEquals(storedRevenue(), maintained);
+    }
+
+    @Test
+    void findOwnerRevenueListsEveryMonthOfTheRange() throws Exception {
+        createContract();
+
+        mockMvc.perform(get("/owners/{id}/revenue", owner.getId()).param("from", "2030-12-15").param("to", "2031-04-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.months", hasSize(5)))
+                .andExpect(jsonPath("$.months[0].month").value("2030-12-01"))
+                .andExpect(jsonPath("$.months[0].expected").value(0))
+                .andExpect(jsonPath("$.months[1].expected").value(1000))
+                .andExpect(jsonPath("$.months[3].expected").value(1000))
+                .andExpect(jsonPath("$.months[4].expected").value(0))
+                .andExpect(jsonPath("$.expected").value(3000))
+                .andExpect(jsonPath("$.received").value(0))
+                .andExpect(jsonPath("$._links.findOwnerById.href").exists());
+    }
+
+    @Test
+    void confirmationsAndTerminationKeepTheAggregateInStep() throws Exception {
+        UUID contractId = createContract();
+
+        mockMvc.perform(patch("/payments/{paymentId}/owner/{ownerId}/confirm", paymentDue(contractId, LocalDate.of(2031, 1, 10)), owner.getId()))
+                .andExpect(status().isOk());
+        LocalDate today = LocalDate.now();
+        mockMvc.perform(get("/owners/{id}/revenue", owner.getId()).param("from", today.toString()).param("to", today.toString()))
+                .andExpect(jsonPath("$.received").value(1000));
+        assertMatchesRebuild();
+
+        mockMvc.perform(put("/contracts/terminate/{id}", contractId))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/owners/{id}/revenue", owner.getId()).param("from", "2031-01-01").param("to", "2031-03-31"))
+                .andExpect(jsonPath("$.expected").value(1000))
+                .andExpect(jsonPath("$.months[1].expected").value(0));
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void confirmationsAfterTerminationCountAsExpected() throws Exception {
+        UUID contractId = createContract();
+        mockMvc.perform(put("/contracts/terminate/{id}", contractId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch("/payments/{paymentId}/owner/{ownerId}/confirm", paymentDue(contractId, LocalDate.of(2031, 1, 10)), owner.getId()))
+                .andExpect(status().isOk());
+        assertMatchesRebuild();
+
+        mockMvc.perform(patch("/payments/confirm").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"ownerId": "%s", "paymentIds": ["%s"]}
+                        """.formatted(owner.getId(), paymentDue(contractId, LocalDate.of(2031, 2, 10)))))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/owners/{id}/revenue", owner.getId()).param("from", "2031-01-01").param("to", "2031-03-31"))
+                .andExpect(jsonPath("$.expected").value(2000))
+                .andExpect(jsonPath("$.months[1].expected").value(1000));
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void amendmentsKeepTheAggregateInStep() throws Exception {
+        UUID contractId = createContract();
+        mockMvc.perform(patch("/payments/confirm").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"ownerId": "%s", "paymentIds": ["%s"]}
+                        """.formatted(owner.getId(), paymentDue(contractId, LocalDate.of(2031, 1, 10)))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/contracts/amend/{id}", contractId).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"end_date": "2031-05-10", "monthly_value": 1200, "effective_from": "2031-03-01"}
+                        """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/owners/{id}/revenue", owner.getId()).param("from", "2031-01-01").param("to", "2031-05-31"))
+                .andExpect(jsonPath("$.expected").value(1000 + 1000 + 1200 * 3));
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void virtualInstallmentsCountAsExpected() {
+        Contract contract = new IntegrationFixture(entityManager).contract(owner, tenant, property, LocalDate.of(2032, 1, 1), LocalDate.of(2032, 2, 1), EnumContract.ACTIVE);
+        contract.setMonthly_value(new BigDecimal("500"));
+        contract.setVirtual_schedule(true);
+        entityManager.flush();
+
+        ownerRevenueRepository.addContracts(List.of(contract.getId()));
+
+        assertEquals(new BigDecimal("1000.00"), ownerRevenueService.findRevenue(owner.getId(), LocalDate.of(2032, 1, 1), LocalDate.of(2032, 12, 31)).expected());
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void findOwnerRevenueRejectsUnknownOwnersAndBadRanges() throws Exception {
+        mockMvc.perform(get("/owners/{id}/revenue", UUID.randomUUID()).param("from", "2031-01-01").param("to", "2031-02-01"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/owners/{id}/revenue", owner.getId()).param("from", "2031-02-01").param("to", "2031-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/owners/{id}/revenue", owner.getId()).param("from", "2000-01-01").param("to", "2031-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.apiRent.integration;
+
+import com.example.apiRent.enums.EnumPayment;
+import com.example.apiRent.models.Contract;
+import com.example.apiRent.unitests.mappers.mocks.IntegrationFixture;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class PaymentConfirmationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Contract contract(String name) {
+        return new IntegrationFixture(entityManager).lease(name, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 1), new BigDecimal("900"));
+    }
+
+    private UUID payment(Contract contract, int month, EnumPayment status) {
+        return new IntegrationFixture(entityManager).payment(contract, LocalDate.of(2025, month, 1), status).getId();
+    }
+
+    @Test
+    void confirmPaymentReturnsThePaymentWithItsContract() throws Exception {
+        Contract contract = contract("single");
+        UUID id = payment(contract, 1, EnumPayment.OVERDUE);
+        entityManager.flush();
+
+        mockMvc.perform(patch("/payments/{paymentId}/owner/{ownerId}/confirm", id, contract.getOwner().getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id.toString()))
+                .andExpect(jsonPath("$.payment_date").value(LocalDate.now().toString()))
+                .andExpect(jsonPath("$.contract.property.title").value("single"))
+                .andExpect(jsonPath("$.contract.tenant.name").value("single tenant"))
+                .andExpect(jsonPath("$.contract.owner.name").value("single owner"))
+                .andExpect(jsonPath("$._links.confirmPayment.href").exists());
+
+        assertEquals("PAID", jdbcTemplate.queryForObject("SELECT status FROM payment WHERE id = ?", String.class, id));
+    }
+
+    @Test
+    void confirmPaymentRejectsAnotherOwnersPayment() throws Exception {
+        Contract contract = contract("single");
+        Contract other = contract("other");
+        UUID id = payment(contract, 1, EnumPayment.PENDING);
+        entityManager.flush();
+
+        mockMvc.perform(patch("/payments/{paymentId}/owner/{ownerId}/confirm", id, other.getOwner().getId()))
+                .andExpect(status().isNotFound());
+
+        assertEquals("PENDING", jdbcTemplate.queryForObject("SELECT status FROM payment WHERE id = ?", String.class, id));
+    }
+
+    @Test
+    void confirmPaymentsConfirmsOnlyTheOwnersPendingPayments() throws Exception {
+        Contract contract = contract("batch");
+        Contract other = contract("other");
+        List<UUID> ids = List.of(
+                payment(contract, 1, EnumPayment.PENDING),
+                payment(contract, 2, EnumPayment.OVERDUE),
+                payment(contract, 3, EnumPayment.PAID),
+                payment(other, 1, EnumPayment.PENDING));
+        entityManager.flush();
+
+        String body = """
+                {"ownerId": "%s", "paymentIds": ["%s", "%s", "%s", "%s", "%s"]}
+                """.formatted(contract.getOwner().getId(), ids.get(0), ids.get(1), ids.get(2), ids.get(3), UUID.randomUUID());
+        mockMvc.perform(patch("/payments/confirm").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.confirmed").value(2))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.results[0].status").value("CONFIRMED"))
+                .andExpect(jsonPath("$.results[1].status").value("CONFIRMED"))
+                .andExpect(jsonPath("$.results[2].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[3].message").value("This owner does not belong to this contract"))
+                .andExpect(jsonPath("$.results[4].status").value("REJECTED"));
+
+        assertEquals(List.of("PAID", "PAID", "PAID"), jdbcTemplate.queryForList(
+                "SELECT status FROM payment WHERE contract_id = ? ORDER BY due_date", String.class, contract.getId()));
+        assertEquals("PENDING", jdbcTemplate.queryForObject("SELECT status FROM payment WHERE id = ?", String.class, ids.get(3)));
+    }
+
+    @Test
+    void confirmPaymentsValidatesTheRequestBody() throws Exception {
+        for (String body : List.of(
+                "{\"ownerId\": \"%s\"}".formatted(UUID.randomUUID()),
+                "{\"ownerId\": \"%s\", \"paymentIds\": []}".formatted(UUID.randomUUID()),
+                "{\"paymentIds\": [\"%s\"]}".formatted(UUID.randomUUID()))) {
+            mockMvc.perform(patch("/payments/confirm").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(result -> assertInstanceOf(MethodArgumentNotValidException.class, result.getResolvedException()));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.apiRent.integration;
+
+import com.example.apiRent.dtos.contract.ContractRequest;
+import com.example.apiRent.dtos.contract.ContractResponse;
+import com.example.apiRent.dtos.fields.FieldSelection;
+import com.example.apiRent.dtos.payment.PaymentResponse;
+import com.example.apiRent.enums.EnumProperty;
+import com.example.apiRent.models.Owner;
+import com.example.apiRent.models.Property;
+import com.example.apiRent.models.Tenant;
+import com.example.apiRent.services.ContractService;
+import com.example.apiRent.services.PaymentService;
+import com.example.apiRent.unitests.mappers.mocks.IntegrationFixture;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The export streams on another thread, in its own transaction, so the data is committed here and removed
+ * after each test instead of rolled back.
+ */
+@SpringBootTest(properties = "payments.schedule.virtual=true")
+@AutoConfigureMockMvc
+class PaymentExportTest {
+
+    private static final LocalDate START = LocalDate.of(2033, 1, 10);
+    private static final LocalDate END = LocalDate.of(2033, 4, 10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Owner owner;
+    private Tenant tenant;
+    private Property property;
+    private ContractResponse contract;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            IntegrationFixture fixture = new IntegrationFixture(entityManager);
+            owner = fixture.owner("Export owner");
+            tenant = fixture.tenant("Export tenant");
+            property = fixture.property(owner, "export", new BigDecimal("1000"), EnumProperty.AVAILABLE);
+        });
+        contract = contractService.createContracts(new ContractRequest(START, END, new BigDecimal("1000.00"), tenant.getId(), owner.getId(), property.getId()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM payment WHERE contract_id = ?", contract.id());
+        jdbcTemplate.update("DELETE FROM contract WHERE id = ?", contract.id());
+        jdbcTemplate.update("DELETE FROM property WHERE id = ?", property.getId());
+        jdbcTemplate.update("DELETE FROM tenant WHERE id = ?", tenant.getId());
+        jdbcTemplate.update("DELETE FROM owner WHERE id = ?", owner.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", tenant.getId(), owner.getId());
+    }
+
+    private List<String> exportedLines(String from, String to) throws Exception {
+        MvcResult started = mockMvc.perform(get("/payments/export")
+                        .param("from", from)
+                        .param("to", to)
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"payments-" + from + "-" + to + ".csv\""))
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = csv.lines().toList();
+        assertEquals("id,contract_id,owner_id,tenant_id,property_id,due_date,payment_date,amount,status", lines.get(0));
+        return lines.stream()
+                .filter(line -> line.contains(contract.id().toString()))
+                .sorted((a, b) -> a.split(",")[5].compareTo(b.split(",")[5]))
+                .toList();
+    }
+
+    @Test
+    void exportListsStoredPaymentsAndVirtualInstallmentsInRange() throws Exception {
+        PaymentResponse paid = paymentService.confirmInstallment(contract.id(), LocalDate.of(2033, 2, 10), owner.getId());
+        String parties = contract.id() + "," + owner.getId() + "," + tenant.getId() + "," + property.getId();
+
+        List<String> lines = exportedLines("2033-01-01", "2033-03-31");
+
+        assertEquals(List.of(
+                "," + parties + ",2033-01-10,,1000.00,PENDING",
+                paid.id() + "," + parties + ",2033-02-10," + paid.payment_date() + ",1000.00,PAID",
+                "," + parties + ",2033-03-10,,1000.00,PENDING"), lines);
+    }
+
+    @Test
+    void exportLeavesOutInstallmentsOutsideTheRange() throws Exception {
+        assertEquals(1, exportedLines("2033-04-10", "2033-12-31").size());
+        assertEquals(0, exportedLines("2032-01-01", "2033-01-09").size());
+    }
+
+    @Test
+    void exportListsTheSameInstallmentsAsTheContractListingAfterTermination() throws Exception {
+        paymentService.confirmInstallment(contract.id(), LocalDate.of(2033, 2, 10), owner.getId());
+        contractService.closeContract(contract.id());
+
+        List<String> exported = exportedLines("2033-01-01", "2033-12-31").stream()
+                .map(line -> line.split(",")[0] + "," + line.split(",")[5])
+                .toList();
+        List<String> listed = paymentService.findPaymentByContract(contract.id(), FieldSelection.ALL).stream()
+                .map(payment -> (payment.id() == null ? "" : payment.id().toString()) + "," + payment.due_date())
+                .toList();
+
+        assertEquals(4, listed.size());
+        assertEquals(listed, exported);
+    }
+
+    @Test
+    void exportRejectsBadParametersBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/payments/export").param("from", "2033-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/payments/export").param("from", "2033-02-01").param("to", "2033-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/payments/export").param("from", "2033-01-01").param("to", "2033-01-31").param("format", "xlsx"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.apiRent.integration;
+
+import com.example.apiRent.enums.EnumContract;
+import com.example.apiRent.enums.EnumPayment;
+import com.example.apiRent.models.Contract;
+import com.example.apiRent.repositories.PaymentOverdueRepository;
+import com.example.apiRent.repositories.PaymentOverdueRepository.VirtualChunk;
+import com.example.apiRent.unitests.mappers.mocks.IntegrationFixture;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the overdue chunks against contracts from 1990, so no other data in the database is due before
+ * the chosen day.
+ */
+@SpringBootTest
+@Transactional
+class PaymentOverdueTest {
+
+    private static final LocalDate TODAY = LocalDate.of(1990, 4, 20);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PaymentOverdueRepository paymentOverdueRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Contract contract(LocalDate start, LocalDate end, boolean virtualSchedule) {
+        Contract contract = new IntegrationFixture(entityManager).lease("overdue", start, end, new BigDecimal("800"));
+        contract.setVirtual_schedule(virtualSchedule);
+        return contract;
+    }
+
+    private void payment(Contract contract, LocalDate dueDate, EnumPayment status) {
+        new IntegrationFixture(entityManager).payment(contract, dueDate, status);
+    }
+
+    private List<String> statuses(Contract contract) {
+        return jdbcTemplate.queryForList("SELECT status FROM payment WHERE contract_id = ? ORDER BY due_date", String.class, contract.getId());
+    }
+
+    @Test
+    void markChunkMovesOnlyPastDuePendingPayments() {
+        Contract contract = contract(LocalDate.of(1990, 1, 5), LocalDate.of(1990, 6, 5), false);
+        payment(contract, LocalDate.of(1990, 1, 5), EnumPayment.PAID);
+        payment(contract, LocalDate.of(1990, 2, 5), EnumPayment.PENDING);
+        payment(contract, LocalDate.of(1990, 3, 5), EnumPayment.PENDING);
+        payment(contract, LocalDate.of(1990, 4, 5), EnumPayment.PENDING);
+        payment(contract, LocalDate.of(1990, 5, 5), EnumPayment.PENDING);
+        entityManager.flush();
+
+        assertEquals(2, paymentOverdueRepository.markChunk(TODAY, 2));
+        assertEquals(1, paymentOverdueRepository.markChunk(TODAY, 2));
+        assertEquals(0, paymentOverdueRepository.markChunk(TODAY, 2));
+
+        assertEquals(List.of("PAID", "OVERDUE", "OVERDUE", "OVERDUE", "PENDING"), statuses(contract));
+    }
+
+    @Test
+    void markChunkSkipsInactiveContracts() {
+        Contract terminated = contract(LocalDate.of(1990, 1, 5), LocalDate.of(1990, 6, 5), false);
+        terminated.setStatus(EnumContract.TERMINATED);
+        payment(terminated, LocalDate.of(1990, 2, 5), EnumPayment.PENDING);
+        Contract expired = contract(LocalDate.of(1990, 1, 5), LocalDate.of(1990, 3, 5), false);
+        expired.setStatus(EnumContract.EXPIRED);
+        payment(expired, LocalDate.of(1990, 2, 5), EnumPayment.PENDING);
+        entityManager.flush();
+
+        assertEquals(0, paymentOverdueRepository.markChunk(TODAY, 10));
+        assertEquals(List.of("PENDING"), statuses(terminated));
+        assertEquals(List.of("PENDING"), statuses(expired));
+    }
+
+    @Test
+    void materializeChunkWritesOverdueInstallmentsOnce() {
+        Contract running = contract(LocalDate.of(1990, 1, 5), LocalDate.of(1990, 12, 5), true);
+        Contract ended = contract(LocalDate.of(1989, 11, 5), LocalDate.of(1990, 1, 5), true);
+        payment(running, LocalDate.of(1990, 2, 5), EnumPayment.PAID);
+        entityManager.flush();
+
+        VirtualChunk first = paymentOverdueRepository.materializeChunk(TODAY, 10);
+        VirtualChunk again = paymentOverdueRepository.materializeChunk(TODAY, 10);
+        VirtualChunk nextMonth = paymentOverdueRepository.materializeChunk(LocalDate.of(1990, 5, 20), 10);
+
+        assertEquals(new VirtualChunk(2, 6), first);
+        assertEquals(new VirtualChunk(0, 0), again);
+        assertEquals(new VirtualChunk(1, 1), nextMonth);
+        assertEquals(List.of("OVERDUE", "PAID", "OVERDUE", "OVERDUE", "OVERDUE"), statuses(running));
+        assertEquals(List.of("OVERDUE", "OVERDUE", "OVERDUE"), statuses(ended));
+    }
+
+    @Test
+    void materializeChunkSkipsInactiveContracts() {
+        Contract terminated = contract(LocalDate.of(1990, 1, 5), LocalDate.of(1990, 12, 5), true);
+        terminated.setStatus(EnumContract.TERMINATED);
+        Contract expired = contract(LocalDate.of(1990, 1, 5), LocalDate.of(1990, 3, 5), true);
+        expired.setStatus(EnumContract.EXPIRED);
+        entityManager.flush();
+
+        assertEquals(new VirtualChunk(0, 0), paymentOverdueRepository.materializeChunk(TODAY, 10));
+        assertEquals(List.of(), statuses(terminated));
+        assertEquals(List.of(), statuses(expired));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.apiRent.integration;
+
+import com.example.apiRent.enums.EnumPayment;
+import com.example.apiRent.models.Contract;
+import com.example.apiRent.models.Payment;
+import com.example.apiRent.repositories.PaymentPartitionRepository;
+import com.example.apiRent.unitests.mappers.mocks.IntegrationFixture;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Uses years far enough ahead that no partition exists for them yet; the partitions created here go away
+ * with the rolled-back transaction.
+ */
+@SpringBootTest
+@Transactional
+class PaymentPartitionTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PaymentPartitionRepository paymentPartitionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID payment(LocalDate dueDate) {
+        IntegrationFixture fixture = new IntegrationFixture(entityManager);
+        Contract contract = fixture.lease("partition", dueDate, dueDate, new BigDecimal("600"));
+        Payment payment = fixture.payment(contract, dueDate, EnumPayment.PENDING);
+        entityManager.flush();
+        return payment.getId();
+    }
+
+    private String partitionOf(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM payment WHERE id = ?", String.class, id);
+    }
+
+    @Test
+    void createPartitionsMovesRowsOutOfTheDefaultPartition() {
+        UUID id = payment(LocalDate.of(2201, 3, 10));
+        assertEquals("payment_default", partitionOf(id));
+
+        assertEquals(2, paymentPartitionRepository.createPartitions(LocalDate.of(2200, 6, 1), LocalDate.of(2201, 1, 1)));
+
+        assertEquals("payment_y2201", partitionOf(id));
+        assertEquals(0, paymentPartitionRepository.createPartitions(LocalDate.of(2200, 1, 1), LocalDate.of(2201, 12, 31)));
+    }
+
+    @Test
+    void rowsOfANewYearGoToItsPartition() {
+        paymentPartitionRepository.createPartitions(LocalDate.of(2210, 1, 1), LocalDate.of(2210, 1, 1));
+
+        assertEquals("payment_y2210", partitionOf(payment(LocalDate.of(2210, 12, 31))));
+        assertEquals("payment_default", partitionOf(payment(LocalDate.of(2211, 1, 1))));
+    }
+
+    @Test
+    void dueDateRangesPruneOtherYears() {
+        paymentPartitionRepository.createPartitions(LocalDate.of(2220, 1, 1), LocalDate.of(2221, 1, 1));
+
+        String plan = String.join("\n", jdbcTemplate.queryForList("""
+                EXPLAIN SELECT id FROM payment
+                WHERE status = 'PENDING' AND due_date >= DATE '2220-01-01' AND due_date < DATE '2221-01-01'
+                """, String.class));
+
+        assertTrue(plan.contains("payment_y2220"), plan);
+        assertFalse(plan.contains("payment_y2221"), plan);
+        assertFalse(plan.contains("payment_default"), plan);
+    }
+}
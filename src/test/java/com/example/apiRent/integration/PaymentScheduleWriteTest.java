@@ -0,0 +1,69 @@
+package com.example.apiRent.integration;
+
+import com.example.apiRent.models.Contract;
+import com.example.apiRent.models.Payment;
+import com.example.apiRent.repositories.PaymentScheduleRepository;
+import com.example.apiRent.repositories.PaymentScheduleRepository.ScheduledPayment;
+import com.example.apiRent.services.PaymentService;
+import com.example.apiRent.unitests.mappers.mocks.IntegrationFixture;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The schedule is expanded by {@code generate_series} in the database, so its dates are checked against
+ * {@link PaymentService#buildSchedule}, which the schedule delta still diffs with.
+ */
+@SpringBootTest
+@Transactional
+class PaymentScheduleWriteTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentScheduleRepository paymentScheduleRepository;
+
+    private Contract contract(LocalDate start, LocalDate end, String monthlyValue) {
+        Contract contract = new IntegrationFixture(entityManager).lease("schedule", start, end, new BigDecimal(monthlyValue));
+        entityManager.flush();
+        return contract;
+    }
+
+    @Test
+    void insertSchedulesMatchesBuildScheduleAtMonthEnd() {
+        Contract contract = contract(LocalDate.of(2025, 1, 31), LocalDate.of(2054, 12, 31), "1234.56");
+
+        int inserted = paymentScheduleRepository.insertSchedules(List.of(contract));
+
+        List<ScheduledPayment> stored = paymentScheduleRepository.findSchedule(contract.getId());
+        List<Payment> expected = paymentService.buildSchedule(contract);
+        assertEquals(360, inserted);
+        assertEquals(expected.stream().map(Payment::getDue_date).toList(), stored.stream().map(ScheduledPayment::due_date).toList());
+        assertEquals(0, stored.get(359).amount().compareTo(new BigDecimal("1234.56")));
+    }
+
+    @Test
+    void insertSchedulesWritesEveryContract() {
+        Contract first = contract(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 1), "100");
+        Contract second = contract(LocalDate.of(2025, 2, 10), LocalDate.of(2025, 2, 20), "200");
+
+        int inserted = paymentScheduleRepository.insertSchedules(List.of(first, second));
+
+        assertEquals(4, inserted);
+        assertEquals(3, paymentScheduleRepository.findSchedule(first.getId()).size());
+        assertEquals(List.of(LocalDate.of(2025, 2, 10)),
+                paymentScheduleRepository.findSchedule(second.getId()).stream().map(ScheduledPayment::due_date).toList());
+    }
+}
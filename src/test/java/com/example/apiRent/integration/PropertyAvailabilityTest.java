@@ -0,0 +1,102 @@
+package com.example.apiRent.integration;
+
+import com.example.apiRent.enums.EnumContract;
+import com.example.apiRent.enums.EnumProperty;
+import com.example.apiRent.models.Owner;
+import com.example.apiRent.models.Property;
+import com.example.apiRent.models.Tenant;
+import com.example.apiRent.unitests.mappers.mocks.IntegrationFixture;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Availability reads run as plain SQL against the contract period column, so they are checked end to end:
+ * only active leases overlapping the requested window make a property unavailable.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class PropertyAvailabilityTest {
+
+    // Prices above anything other tests leave behind, so the search can be narrowed to this fixture
+    private static final BigDecimal BASE_PRICE = new BigDecimal("987000");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Property leasedInWindow;
+    private Property leasedOutsideWindow;
+    private Property expiredInWindow;
+
+    @BeforeEach
+    void seed() {
+        IntegrationFixture fixture = new IntegrationFixture(entityManager);
+        Owner owner = fixture.owner("Availability owner");
+        Tenant tenant = fixture.tenant("Availability tenant");
+        leasedInWindow = fixture.property(owner, "availability 0", BASE_PRICE, EnumProperty.AVAILABLE);
+        leasedOutsideWindow = fixture.property(owner, "availability 1", BASE_PRICE.add(BigDecimal.ONE), EnumProperty.AVAILABLE);
+        expiredInWindow = fixture.property(owner, "availability 2", BASE_PRICE.add(BigDecimal.TWO), EnumProperty.AVAILABLE);
+        fixture.contract(owner, tenant, leasedInWindow, LocalDate.of(2025, 5, 1), LocalDate.of(2025, 7, 31), EnumContract.ACTIVE);
+        fixture.contract(owner, tenant, leasedOutsideWindow, LocalDate.of(2025, 9, 1), LocalDate.of(2026, 2, 28), EnumContract.ACTIVE);
+        fixture.contract(owner, tenant, expiredInWindow, LocalDate.of(2024, 6, 1), LocalDate.of(2025, 6, 30), EnumContract.EXPIRED);
+        entityManager.flush();
+    }
+
+    @Test
+    void findAvailablePropertiesSkipsActiveOverlappingLeases() throws Exception {
+        mockMvc.perform(get("/properties/search/available")
+                        .param("from", "2025-06-01").param("to", "2025-08-31")
+                        .param("minPrice", BASE_PRICE.toPlainString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.propertyResponseList[*].id",
+                        contains(leasedOutsideWindow.getId().toString(), expiredInWindow.getId().toString())));
+    }
+
+    @Test
+    void findAvailablePropertiesPagesByPrice() throws Exception {
+        mockMvc.perform(get("/properties/search/available")
+                        .param("from", "2025-01-01").param("to", "2025-01-31")
+                        .param("minPrice", BASE_PRICE.toPlainString()).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.propertyResponseList", hasSize(2)))
+                .andExpect(jsonPath("$._links.next.href").exists());
+    }
+
+    @Test
+    void findPropertyAvailabilityListsLeasesAndGaps() throws Exception {
+        mockMvc.perform(get("/properties/{id}/availability", leasedInWindow.getId())
+                        .param("from", "2025-06-01").param("to", "2025-08-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(false))
+                .andExpect(jsonPath("$.leased[0].start_date").value("2025-05-01"))
+                .andExpect(jsonPath("$.free", hasSize(1)))
+                .andExpect(jsonPath("$.free[0].start_date").value("2025-08-01"))
+                .andExpect(jsonPath("$.free[0].end_date").value("2025-08-31"));
+    }
+
+    @Test
+    void findPropertyAvailabilityOfUnknownProperty() throws Exception {
+        mockMvc.perform(get("/properties/{id}/availability", UUID.randomUUID())
+                        .param("from", "2025-06-01").param("to", "2025-08-31"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.apiRent.integration;
+
+import com.example.apiRent.enums.EnumPayment;
+import com.example.apiRent.models.Contract;
+import com.example.apiRent.models.Payment;
+import com.example.apiRent.unitests.mappers.mocks.IntegrationFixture;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query budgets for the read endpoints. Every budget is independent of the number of rows returned,
+ * so a lazy association touched per item shows up as a failure instead of a slow page.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.apiRent.integration.SqlStatementCounter")
+@AutoConfigureMockMvc
+@Transactional
+class QueryBudgetTest {
+
+    private static final int CONTRACTS = 3;
+    private static final int PAYMENTS_PER_CONTRACT = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Contract contract;
+    private Payment payment;
+
+    @BeforeEach
+    void seed() {
+        IntegrationFixture fixture = new IntegrationFixture(entityManager);
+        for (int i = 0; i < CONTRACTS; i++) {
+            contract = fixture.lease("budget " + i, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 1), new BigDecimal(1000 + i));
+            for (int month = 0; month < PAYMENTS_PER_CONTRACT; month++) {
+                payment = fixture.payment(contract, contract.getStart_date().plusMonths(month), EnumPayment.PENDING);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        SqlStatementCounter.reset();
+    }
+
+    @Test
+    void findAllContracts() throws Exception {
+        mockMvc.perform(get("/contracts")).andExpect(status().isOk());
+        SqlStatementCounter.assertBudget("GET /contracts", 1);
+    }
+
+    @Test
+    void findContractById() throws Exception {
+        mockMvc.perform(get("/contracts/{id}", contract.getId())).andExpect(status().isOk());
+        SqlStatementCounter.assertBudget("GET /contracts/{id}", 1);
+    }
+
+    @Test
+    void findContractsByOwner() throws Exception {
+        mockMvc.perform(get("/contracts/owners/{id}", contract.getOwner().getId()).param("status", "ACTIVE")).andExpect(status().isOk());
+        SqlStatementCounter.assertBudget("GET /contracts/owners/{id}", 1);
+    }
+
+    @Test
+    void findContractsByTenant() throws Exception {
+        mockMvc.perform(get("/contracts/tenants/{id}", contract.getTenant().getId())).andExpect(status().isOk());
+        SqlStatementCounter.assertBudget("GET /contracts/tenants/{id}", 1);
+    }
+
+    @Test
+    void findPaymentById() throws Exception {
+        mockMvc.perform(get("/payments/{id}", payment.getId())).andExpect(status().isOk());
+        SqlStatementCounter.assertBudget("GET /payments/{id}", 1);
+    }
+
+    @Test
+    void findPaymentByContract() throws Exception {
+        mockMvc.perform(get("/payments/contracts/{id}", contract.getId())).andExpect(status().isOk());
+        SqlStatementCounter.assertBudget("GET /payments/contracts/{id}", 1);
+    }
+
+    @Test
+    void findContractsWithoutExpansion() throws Exception {
+        mockMvc.perform(get("/contracts").param("expand", "")).andExpect(status().isOk());
+        SqlStatementCounter.assertBudget("GET /contracts?expand=", 1);
+        assertEquals(0, SqlStatementCounter.joins(), "GET /contracts?expand= joined an association");
+    }
+
+    @Test
+    void findPaymentByContractWithoutExpansion() throws Exception {
+        mockMvc.perform(get("/payments/contracts/{id}", contract.getId()).param("expand", "")).andExpect(status().isOk());
+        SqlStatementCounter.assertBudget("GET /payments/contracts/{id}?expand=", 1);
+        assertEquals(1, SqlStatementCounter.joins(), "GET /payments/contracts/{id}?expand= should only join the contract");
+    }
+
+    @Test
+    void findAllOwners() throws Exception {
+        mockMvc.perform(get("/owners")).andExpect(status().isOk());
+        SqlStatementCounter.assertBudget("GET /owners", 1);
+    }
+
+    @Test
+    void findAllTenants() throws Exception {
+        mockMvc.perform(get("/tenants")).andExpect(status().isOk());
+        SqlStatementCounter.assertBudget("GET /tenants", 1);
+    }
+
+    @Test
+    void findPropertiesPage() throws Exception {
+        mockMvc.perform(get("/properties").param("size", "2")).andExpect(status().isOk());
+        SqlStatementCounter.assertBudget("GET /properties", 1);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.apiRent.integration;
+
+import com.example.apiRent.configs.ReplicaRoutingDataSource;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Each pool reports its own application_name, so the test can tell which one served a transaction. The replica
+ * defaults to a second pool on the primary server; pass {@code -Dreplica.url=jdbc:postgresql://localhost:5433/apirent?ApplicationName=replica}
+ * to run against a streaming standby.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:postgresql://localhost:5432/apirent?ApplicationName=primary",
+        "datasource.replica.url=${replica.url:jdbc:postgresql://localhost:5432/apirent?ApplicationName=replica}",
+        "datasource.replica.read-your-writes-window=5s"
+})
+class ReplicaRoutingTest {
+
+    private static final String WHICH_POOL = "SELECT current_setting('application_name')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void bindRequest() {
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+    }
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private String pool(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject(WHICH_POOL, String.class));
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertEquals("replica", pool(true));
+    }
+
+    @Test
+    void readWriteTransactionsUseThePrimary() {
+        assertEquals("primary", pool(false));
+    }
+
+    @Test
+    void readsAfterAWriteInTheSameRequestStayOnThePrimary() {
+        pool(false);
+
+        assertEquals("primary", pool(true));
+        assertNotNull(response.getCookie(ReplicaRoutingDataSource.LAST_WRITE_COOKIE));
+    }
+
+    @Test
+    void lastWriteCookieKeepsReadsOnThePrimaryUntilTheWindowEnds() {
+        request.setCookies(new Cookie(ReplicaRoutingDataSource.LAST_WRITE_COOKIE, Long.toString(System.currentTimeMillis())));
+        assertEquals("primary", pool(true));
+
+        request.setCookies(new Cookie(ReplicaRoutingDataSource.LAST_WRITE_COOKIE, Long.toString(System.currentTimeMillis() - 10_000)));
+        assertEquals("replica", pool(true));
+    }
+}
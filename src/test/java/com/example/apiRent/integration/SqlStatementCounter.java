@@ -0,0 +1,50 @@
+package com.example.apiRent.integration;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Hibernate statement inspector that records every SQL statement issued on the current thread.
+ * Register it with {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+
+    /**
+     * Number of joins across the recorded statements.
+     */
+    public static int joins() {
+        int joins = 0;
+        for (String statement : STATEMENTS.get()) {
+            joins += statement.toLowerCase().split(" join ", -1).length - 1;
+        }
+        return joins;
+    }
+
+    public static void assertBudget(String endpoint, int budget) {
+        List<String> statements = statements();
+        if (statements.size() > budget) {
+            fail(endpoint + " issued " + statements.size() + " SQL statements, budget is " + budget + ":\n"
+                    + String.join("\n", statements));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.apiRent.integration;
+
+import com.example.apiRent.dtos.contract.ContractAmendRequest;
+import com.example.apiRent.dtos.contract.ContractRequest;
+import com.example.apiRent.dtos.contract.ContractResponse;
+import com.example.apiRent.enums.EnumProperty;
+import com.example.apiRent.models.Owner;
+import com.example.apiRent.models.Property;
+import com.example.apiRent.models.Tenant;
+import com.example.apiRent.services.ContractService;
+import com.example.apiRent.unitests.mappers.mocks.IntegrationFixture;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With {@code payments.schedule.virtual} on, contracts are created without payment rows; the listing computes
+ * the installments and rows appear only when one is confirmed or must keep its amount.
+ */
+@SpringBootTest(properties = "payments.schedule.virtual=true")
+@AutoConfigureMockMvc
+@Transactional
+class VirtualScheduleTest {
+
+    private static final LocalDate START = LocalDate.of(2031, 1, 10);
+    private static final LocalDate END = LocalDate.of(2031, 12, 10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ContractResponse contract;
+
+    @BeforeEach
+    void seed() {
+        IntegrationFixture fixture = new IntegrationFixture(entityManager);
+        Owner owner = fixture.owner("Virtual owner");
+        Tenant tenant = fixture.tenant("Virtual tenant");
+        Property property = fixture.property(owner, "virtual", new BigDecimal("1000"), EnumProperty.AVAILABLE);
+        entityManager.flush();
+
+        contract = contractService.createContracts(new ContractRequest(START, END, new BigDecimal("1000"), tenant.getId(), owner.getId(), property.getId()));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private List<BigDecimal> storedAmounts() {
+        return jdbcTemplate.queryForList("SELECT amount FROM payment WHERE contract_id = ? ORDER BY due_date", BigDecimal.class, contract.id());
+    }
+
+    @Test
+    void createContractsWritesNoPayments() throws Exception {
+        assertEquals(0, storedAmounts().size());
+
+        mockMvc.perform(get("/payments/contracts/{id}", contract.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.paymentResponseList", hasSize(12)))
+                .andExpect(jsonPath("$._embedded.paymentResponseList[0].id").value(nullValue()))
+                .andExpect(jsonPath("$._embedded.paymentResponseList[0].due_date").value("2031-01-10"))
+                .andExpect(jsonPath("$._embedded.paymentResponseList[11].due_date").value("2031-12-10"))
+                .andExpect(jsonPath("$._embedded.paymentResponseList[0]._links.confirmInstallment.href").exists())
+                .andExpect(jsonPath("$._embedded.paymentResponseList[0]._links.confirmPayment").doesNotExist());
+    }
+
+    @Test
+    void confirmInstallmentWritesOnlyThatInstallment() throws Exception {
+        mockMvc.perform(patch("/payments/contracts/{contractId}/installments/{dueDate}/owner/{ownerId}/confirm",
+                        contract.id(), "2031-03-10", contract.owner().id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").exists())
+                .andExpect(jsonPath("$.payment_date").exists())
+                .andExpect(jsonPath("$._links.findPaymentById.href").exists());
+
+        assertEquals(1, storedAmounts().size());
+        mockMvc.perform(get("/payments/contracts/{id}", contract.id()))
+                .andExpect(jsonPath("$._embedded.paymentResponseList", hasSize(12)))
+                .andExpect(jsonPath("$._embedded.paymentResponseList[2].payment_date").exists())
+                .andExpect(jsonPath("$._embedded.paymentResponseList[2]._links.confirmPayment.href").exists());
+    }
+
+    @Test
+    void confirmInstallmentRejectsDatesOffTheSchedule() throws Exception {
+        mockMvc.perform(patch("/payments/contracts/{contractId}/installments/{dueDate}/owner/{ownerId}/confirm",
+                        contract.id(), "2031-03-11", contract.owner().id()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(patch("/payments/contracts/{contractId}/installments/{dueDate}/owner/{ownerId}/confirm",
+                        contract.id(), "march", contract.owner().id()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void amendContractKeepsTheAmountOfEarlierInstallments() throws Exception {
+        contractService.amendContract(contract.id(), new ContractAmendRequest(null, new BigDecimal("1200"), LocalDate.of(2031, 4, 1)));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(3, storedAmounts().size());
+        mockMvc.perform(get("/payments/contracts/{id}", contract.id()))
+                .andExpect(jsonPath("$._embedded.paymentResponseList", hasSize(12)))
+                .andExpect(jsonPath("$._embedded.paymentResponseList[2].amount").value(1000))
+                .andExpect(jsonPath("$._embedded.paymentResponseList[3].amount").value(1200));
+    }
+}
@@ -1,13 +1,23 @@
 package com.example.apiRent.services;
 
+import com.example.apiRent.configs.CacheConfig;
+import com.example.apiRent.dtos.contract.ContractAmendRequest;
+import com.example.apiRent.dtos.contract.ContractCursor;
+import com.example.apiRent.dtos.contract.ContractFilter;
 import com.example.apiRent.dtos.contract.ContractRequest;
 import com.example.apiRent.dtos.contract.ContractResponse;
+import com.example.apiRent.dtos.contract.ContractRow;
+import com.example.apiRent.dtos.fields.FieldSelection;
 import com.example.apiRent.dtos.owner.OwnerResponse;
+import com.example.apiRent.dtos.pagination.CursorPage;
 import com.example.apiRent.dtos.property.PropertyResponse;
 import com.example.apiRent.dtos.tenant.TenantResponse;
 import com.example.apiRent.enums.EnumContract;
 import com.example.apiRent.enums.EnumProperty;
 import com.example.apiRent.enums.EnumUser;
+import com.example.apiRent.exceptions.ContractOverlapException;
+import com.example.apiRent.exceptions.IllegalStateException;
+import com.example.apiRent.exceptions.InvalidRequestException;
 import com.example.apiRent.mappers.ContractMappper;
 import com.example.apiRent.mappers.PropertyMapper;
 import com.example.apiRent.models.Contract;
@@ -25,24 +35,34 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @ExtendWith(MockitoExtension.class)
 public class ConctractServiceTest {
 
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
     private ContractService contractService;
 
     @Mock
@@ -65,10 +85,13 @@ public class ConctractServiceTest {
 
     private ContractMock input = new ContractMock();
 
+    private CacheManager cacheManager;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        contractService = new ContractService(contractRepository, contractMappper, ownerRepository, tenantRepository, propertyRepository, paymentService);
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.PROPERTIES);
+        contractService = new ContractService(contractRepository, contractMappper, ownerRepository, tenantRepository, propertyRepository, paymentService, cacheManager, Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
     }
 
     @Test
@@ -98,11 +121,19 @@ public class ConctractServiceTest {
 
 
 
-        when(contractRepository.findAll()).thenReturn(mockEntityList);
-        when(contractMappper.toResponseList(mockEntityList)).thenReturn(mockDtoList);
+        List<ContractRow> mockRowList = mockDtoList.stream()
+                .map(response -> new ContractRow(
+                        response.id(), response.start_date(), response.end_date(), response.monthly_value(), response.status(),
+                        response.property().id(), response.property().title(), response.property().description(),
+                        response.property().address(), response.property().price(), response.property().status(),
+                        response.tenant().id(), response.tenant().name(), response.tenant().email(), response.tenant().role(),
+                        response.owner().id(), response.owner().name(), response.owner().role(), response.owner().email()))
+                .toList();
+
+        when(contractRepository.findAllRows(FieldSelection.ALL)).thenReturn(mockRowList);
 
 
-        List<ContractResponse> responseEntity = contractService.findAllContracts();
+        List<ContractResponse> responseEntity = contractService.findAllContracts(FieldSelection.ALL);
 
         assertNotNull(responseEntity);
         assertEquals(14, responseEntity.size());
@@ -158,16 +189,17 @@ public class ConctractServiceTest {
         Tenant tenant = input.mockTenant(1);
         Property property = input.mockProperty(1);
         property.setStatus(EnumProperty.AVAILABLE);
+        cacheManager.getCache(CacheConfig.PROPERTIES).put(property.getId(), input.mockPropertyResponse(1));
 
         Contract savedContract = input.mockEntity(1);
         ContractResponse expectedResponse = input.mockResponse(1);
 
         when(ownerRepository.findByIdAndRole(request.ownerId(), EnumUser.LOCATOR)).thenReturn(Optional.of(owner));
         when(tenantRepository.findByIdAndRole(request.tenantId(), EnumUser.TENANT)).thenReturn(Optional.of(tenant));
-        when(propertyRepository.findByIdAndStatus(request.propertyId(), EnumProperty.AVAILABLE)).thenReturn(Optional.of(property));
+        when(propertyRepository.findByIdForUpdate(request.propertyId())).thenReturn(Optional.of(property));
 
         when(contractMappper.toEntity(request)).thenReturn(savedContract);
-        when(contractRepository.save(any(Contract.class))).thenReturn(savedContract);
+        when(contractRepository.saveAndFlush(any(Contract.class))).thenReturn(savedContract);
         when(contractMappper.toResponse(savedContract)).thenReturn(expectedResponse);
 
         ArgumentCaptor<Contract> contractCaptor = ArgumentCaptor.forClass(Contract.class);
@@ -183,6 +215,34 @@ public class ConctractServiceTest {
 
         Contract capturedContract = contractCaptor.getValue();
         assertEquals(savedContract.getId(), capturedContract.getId());
+        assertEquals(EnumProperty.RENTED, property.getStatus());
+        assertNull(cacheManager.getCache(CacheConfig.PROPERTIES).get(property.getId()));
+    }
+
+    @Test
+    void createContractsRejectsOverlappingLease() {
+        ContractRequest request = input.mockRequest(1);
+        Property property = input.mockProperty(1);
+
+        when(ownerRepository.findByIdAndRole(request.ownerId(), EnumUser.LOCATOR)).thenReturn(Optional.of(input.mockOwner(1)));
+        when(tenantRepository.findByIdAndRole(request.tenantId(), EnumUser.TENANT)).thenReturn(Optional.of(input.mockTenant(1)));
+        when(propertyRepository.findByIdForUpdate(request.propertyId())).thenReturn(Optional.of(property));
+        when(contractMappper.toEntity(request)).thenReturn(input.mockEntity(1));
+        when(contractRepository.saveAndFlush(any(Contract.class))).thenThrow(new DataIntegrityViolationException("overlap",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        assertThrows(ContractOverlapException.class, () -> contractService.createContracts(request));
+        verify(paymentService, never()).generatePaymentsForContracts(any(Contract.class));
+    }
+
+    @Test
+    void createContractsRejectsEndBeforeStart() {
+        ContractRequest request = input.mockRequest(1);
+        ContractRequest reversed = new ContractRequest(request.start_date(), request.start_date().minusDays(1),
+                request.monthly_value(), request.tenantId(), request.ownerId(), request.propertyId());
+
+        assertThrows(InvalidRequestException.class, () -> contractService.createContracts(reversed));
+        verifyNoInteractions(contractRepository);
     }
 
     @Test
@@ -190,10 +250,10 @@ public class ConctractServiceTest {
         Contract contract = input.mockEntity(1);
         ContractResponse contractResponse = input.mockResponse(1);
 
-        when(contractRepository.findById(contract.getId())).thenReturn(Optional.of(contract));
-        when(contractMappper.toResponse(contract)).thenReturn(contractResponse);
+        when(contractRepository.findById(contract.getId(), FieldSelection.ALL)).thenReturn(Optional.of(contract));
+        when(contractMappper.toResponse(contract, FieldSelection.ALL, "")).thenReturn(contractResponse);
 
-        ContractResponse result = contractService.findContractById(contract.getId());
+        ContractResponse result = contractService.findContractById(contract.getId(), FieldSelection.ALL);
 
         assertNotNull(result);
 
@@ -211,55 +271,57 @@ public class ConctractServiceTest {
     }
 
     @Test
-    void findContractByTenant() {
-        Contract contract = input.mockEntity(1);
+    void findContractsByTenant() {
+        List<ContractRow> mockRowList = input.mockRowList();
         Tenant tenant = input.mockTenant(1);
-        ContractResponse contractResponse = input.mockResponse(1);
+        ContractFilter filter = ContractFilter.byTenant(tenant.getId(), EnumContract.ACTIVE);
 
-        when(contractRepository.findByTenantId(tenant.getId())).thenReturn(Optional.of(contract));
-        when(contractMappper.toResponse(contract)).thenReturn(contractResponse);
+        when(contractRepository.findPage(filter, null, 11, FieldSelection.ALL)).thenReturn(mockRowList.subList(0, 11));
 
-        ContractResponse result = contractService.findContractByTenant(tenant.getId());
+        CursorPage<ContractResponse> result = contractService.findContractsByTenant(tenant.getId(), EnumContract.ACTIVE, null, 10, FieldSelection.ALL);
 
         assertNotNull(result);
-
-        OwnerResponse ownerResponse = input.mockOwnerResponse(1);
-        TenantResponse tenantResponse = input.mockTenantResponse(1);
-        PropertyResponse propertyResponse = input.mockPropertyResponse(1);
-
-        assertEquals(LocalDate.of(2025,1,1), result.start_date());
-        assertEquals(EnumContract.ACTIVE, result.status());
-        assertNull(result.end_date());
-        assertEquals(new BigDecimal(1), result.monthly_value());
-        assertEquals(ownerResponse, result.owner());
-        assertEquals(tenantResponse, result.tenant());
-        assertEquals(propertyResponse, result.property());
+        assertEquals(10, result.content().size());
+        assertTrue(result.hasNext());
+
+        ContractCursor next = ContractCursor.decode(result.nextCursor());
+        assertEquals(mockRowList.get(9).id(), next.id());
+        assertEquals(mockRowList.get(9).start_date(), next.start_date());
+
+        ContractResponse contractFour = result.content().get(4);
+        assertEquals(LocalDate.of(2024, 9, 1), contractFour.start_date());
+        assertEquals(EnumContract.ACTIVE, contractFour.status());
+        assertEquals(input.mockTenantResponse(1), contractFour.tenant());
+        assertEquals(input.mockOwnerResponse(1), contractFour.owner());
     }
 
     @Test
-    void findContractByOwner() {
-        Contract contract = input.mockEntity(1);
+    void findContractsByOwnerFromCursor() {
+        List<ContractRow> lastPage = input.mockRowList().subList(10, 14);
+        ContractRow cursorRow = input.mockRow(9);
         Owner owner = input.mockOwner(1);
-        ContractResponse contractResponse = input.mockResponse(1);
+        ContractFilter filter = ContractFilter.byOwner(owner.getId(), null);
 
-        when(contractRepository.findByOwnerId(owner.getId())).thenReturn(Optional.of(contract));
-        when(contractMappper.toResponse(contract)).thenReturn(contractResponse);
+        when(contractRepository.findPage(eq(filter), any(ContractCursor.class), eq(11), eq(FieldSelection.ALL))).thenReturn(lastPage);
 
-        ContractResponse result = contractService.findContractByOwner(owner.getId());
+        CursorPage<ContractResponse> result = contractService.findContractsByOwner(owner.getId(), null, ContractCursor.after(cursorRow).encode(), 10, FieldSelection.ALL);
 
-        assertNotNull(result);
+        assertEquals(4, result.content().size());
+        assertFalse(result.hasNext());
+        ArgumentCaptor<ContractCursor> captor = ArgumentCaptor.forClass(ContractCursor.class);
+        verify(contractRepository).findPage(eq(filter), captor.capture(), eq(11), eq(FieldSelection.ALL));
+        assertEquals(cursorRow.id(), captor.getValue().id());
+        assertEquals(cursorRow.start_date(), captor.getValue().start_date());
+    }
 
-        OwnerResponse ownerResponse = input.mockOwnerResponse(1);
-        TenantResponse tenantResponse = input.mockTenantResponse(1);
-        PropertyResponse propertyResponse = input.mockPropertyResponse(1);
+    @Test
+    void findContractsByOwnerRejectsMalformedCursor() {
+        Owner owner = input.mockOwner(1);
 
-        assertEquals(LocalDate.of(2025,1,1), result.start_date());
-        assertEquals(EnumContract.ACTIVE, result.status());
-        assertNull(result.end_date());
-        assertEquals(new BigDecimal(1), result.monthly_value());
-        assertEquals(ownerResponse, result.owner());
-        assertEquals(tenantResponse, result.tenant());
-        assertEquals(propertyResponse, result.property());
+        assertThrows(InvalidRequestException.class,
+                () -> contractService.findContractsByOwner(owner.getId(), null, "not-a-cursor", 10, FieldSelection.ALL));
+        assertThrows(InvalidRequestException.class,
+                () -> contractService.findContractsByOwner(owner.getId(), null, null, ContractService.MAX_PAGE_SIZE + 1, FieldSelection.ALL));
     }
 
     @Test
@@ -279,9 +341,10 @@ public class ConctractServiceTest {
         ContractResponse expectedResponse = input.mockResponse(1);
 
         when(contractRepository.findById(contractId)).thenReturn(Optional.of(existingContract));
+        when(propertyRepository.findByIdForUpdate(request.propertyId())).thenReturn(Optional.of(property));
         when(ownerRepository.findByIdAndRole(request.ownerId(), EnumUser.LOCATOR)).thenReturn(Optional.of(existingContract.getOwner()));
         when(tenantRepository.findByIdAndRole(request.tenantId(), EnumUser.TENANT)).thenReturn(Optional.of(existingContract.getTenant()));
-        when(contractRepository.save(any(Contract.class))).thenReturn(existingContract);
+        when(contractRepository.saveAndFlush(any(Contract.class))).thenReturn(existingContract);
         when(contractMappper.toResponse(existingContract)).thenReturn(expectedResponse);
 
         ContractResponse result = contractService.updateContract(contractId, request);
@@ -294,6 +357,68 @@ public class ConctractServiceTest {
         assertEquals(expectedResponse.tenant(), result.tenant());
         assertEquals(expectedResponse.property(), result.property());
         assertEquals(EnumContract.ACTIVE, result.status());
+        verify(paymentService).applyScheduleDelta(existingContract, TODAY);
+    }
+
+    @Test
+    void updateContractRejectsInactiveContract() {
+        Contract contract = input.mockEntity(1);
+        contract.setStatus(EnumContract.EXPIRED);
+
+        when(contractRepository.findById(contract.getId())).thenReturn(Optional.of(contract));
+
+        assertThrows(IllegalStateException.class, () -> contractService.updateContract(contract.getId(), input.mockRequest(1)));
+        verifyNoInteractions(paymentService);
+        verify(contractRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void amendContract() {
+        Contract contract = input.mockEntity(1);
+        contract.setStatus(EnumContract.ACTIVE);
+        contract.setEnd_date(LocalDate.of(2025, 12, 1));
+        ContractAmendRequest request = new ContractAmendRequest(LocalDate.of(2026, 12, 1), new BigDecimal(2), LocalDate.of(2026, 1, 1));
+        ContractResponse expectedResponse = input.mockResponse(1);
+
+        when(contractRepository.findById(contract.getId())).thenReturn(Optional.of(contract));
+        when(propertyRepository.findByIdForUpdate(contract.getProperty().getId())).thenReturn(Optional.of(contract.getProperty()));
+        when(contractRepository.saveAndFlush(contract)).thenReturn(contract);
+        when(contractMappper.toResponse(contract)).thenReturn(expectedResponse);
+
+        ContractResponse result = contractService.amendContract(contract.getId(), request);
+
+        assertEquals(expectedResponse, result);
+        assertEquals(LocalDate.of(2026, 12, 1), contract.getEnd_date());
+        assertEquals(new BigDecimal(2), contract.getMonthly_value());
+        verify(paymentService).applyScheduleDelta(contract, LocalDate.of(2026, 1, 1));
+    }
+
+    @Test
+    void amendContractTakesEffectTodayByDefault() {
+        Contract contract = input.mockEntity(1);
+        contract.setEnd_date(LocalDate.of(2025, 12, 1));
+        ContractAmendRequest request = new ContractAmendRequest(null, new BigDecimal(2), null);
+
+        when(contractRepository.findById(contract.getId())).thenReturn(Optional.of(contract));
+        when(propertyRepository.findByIdForUpdate(contract.getProperty().getId())).thenReturn(Optional.of(contract.getProperty()));
+        when(contractRepository.saveAndFlush(contract)).thenReturn(contract);
+
+        contractService.amendContract(contract.getId(), request);
+
+        verify(paymentService).keepVirtualInstallmentsBefore(contract, new BigDecimal(2), TODAY);
+        verify(paymentService).applyScheduleDelta(contract, TODAY);
+    }
+
+    @Test
+    void amendContractRejectsInactiveContract() {
+        Contract contract = input.mockEntity(1);
+        contract.setStatus(EnumContract.TERMINATED);
+
+        when(contractRepository.findById(contract.getId())).thenReturn(Optional.of(contract));
+
+        assertThrows(IllegalStateException.class,
+                () -> contractService.amendContract(contract.getId(), new ContractAmendRequest(LocalDate.of(2026, 12, 1), null, null)));
+        verifyNoInteractions(paymentService);
     }
 
     @Test
@@ -314,12 +439,26 @@ public class ConctractServiceTest {
                 baseResponse.owner()
         );
 
+        Property property = contract.getProperty();
+        property.setStatus(EnumProperty.RENTED);
+        cacheManager.getCache(CacheConfig.PROPERTIES).put(property.getId(), input.mockPropertyResponse(1));
+
         when(contractRepository.findById(contract.getId())).thenReturn(Optional.of(contract));
-        when(contractRepository.save(any(Contract.class))).thenReturn(contract);
+        when(propertyRepository.findByIdForUpdate(property.getId())).thenReturn(Optional.of(property));
+        when(contractRepository.existsByPropertyIdAndStatusAndIdNot(property.getId(), EnumContract.ACTIVE, contract.getId())).thenReturn(false);
+        when(contractRepository.saveAndFlush(any(Contract.class))).thenReturn(contract);
         when(contractMappper.toResponse(any(Contract.class))).thenReturn(expectedFinalResponse);
 
         ContractResponse result = contractService.closeContract(contract.getId());
 
+        assertEquals(EnumProperty.AVAILABLE, property.getStatus());
+        assertNull(cacheManager.getCache(CacheConfig.PROPERTIES).get(property.getId()));
+
+        InOrder revenue = inOrder(paymentService, contractRepository);
+        revenue.verify(paymentService).subtractFromRevenue(contract);
+        revenue.verify(contractRepository).saveAndFlush(contract);
+        revenue.verify(paymentService).addToRevenue(contract);
+
 
         assertNotNull(result);
 
@@ -327,4 +466,22 @@ public class ConctractServiceTest {
         assertEquals(expectedFinalResponse.end_date(), result.end_date());
         assertEquals(expectedFinalResponse.owner(), result.owner());
     }
+
+    @Test
+    void closeContractKeepsThePropertyRentedWhileAnotherLeaseIsActive() {
+        Contract contract = input.mockEntity(1);
+        contract.setStatus(EnumContract.ACTIVE);
+        Property property = contract.getProperty();
+        property.setStatus(EnumProperty.RENTED);
+
+        when(contractRepository.findById(contract.getId())).thenReturn(Optional.of(contract));
+        when(propertyRepository.findByIdForUpdate(property.getId())).thenReturn(Optional.of(property));
+        when(contractRepository.existsByPropertyIdAndStatusAndIdNot(property.getId(), EnumContract.ACTIVE, contract.getId())).thenReturn(true);
+        when(contractRepository.saveAndFlush(contract)).thenReturn(contract);
+
+        contractService.closeContract(contract.getId());
+
+        assertEquals(EnumContract.TERMINATED, contract.getStatus());
+        assertEquals(EnumProperty.RENTED, property.getStatus());
+    }
 }
@@ -0,0 +1,148 @@
+package com.example.apiRent.services;
+
+import com.example.apiRent.configs.CacheConfig;
+import com.example.apiRent.dtos.contract.ContractBatchResponse;
+import com.example.apiRent.dtos.contract.ContractRequest;
+import com.example.apiRent.enums.EnumBatchItemStatus;
+import com.example.apiRent.enums.EnumContract;
+import com.example.apiRent.exceptions.InvalidRequestException;
+import com.example.apiRent.models.Contract;
+import com.example.apiRent.repositories.ContractBatchRepository;
+import com.example.apiRent.unitests.mappers.mocks.ContractMock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+public class ContractBatchServiceTest {
+
+    private ContractBatchService contractBatchService;
+
+    @Mock
+    private ContractBatchRepository contractBatchRepository;
+
+    @Mock
+    private PaymentService paymentService;
+
+    private ContractMock input = new ContractMock();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        contractBatchService = new ContractBatchService(contractBatchRepository, paymentService, new ConcurrentMapCacheManager(CacheConfig.PROPERTIES));
+    }
+
+    private ContractRequest request(int owner, int tenant, int property) {
+        return new ContractRequest(
+                LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 3, 1),
+                new BigDecimal(100),
+                input.mockTenant(tenant).getId(),
+                input.mockOwner(owner).getId(),
+                input.mockProperty(property).getId());
+    }
+
+    @Test
+    void createContractsReportsEveryItem() {
+        UUID owner = input.mockOwner(1).getId();
+        UUID tenant = input.mockTenant(1).getId();
+        UUID property = input.mockProperty(1).getId();
+        List<ContractRequest> requests = List.of(
+                request(1, 1, 1),
+                request(1, 2, 2),
+                request(1, 1, 1));
+
+        when(contractBatchRepository.findOwnerIds(any())).thenReturn(Set.of(owner));
+        when(contractBatchRepository.findTenantIds(any())).thenReturn(Set.of(tenant));
+        when(contractBatchRepository.lockProperties(Set.of(property))).thenReturn(Set.of(property));
+        when(contractBatchRepository.findOverlapping(anyList())).thenReturn(Set.of());
+
+        ContractBatchResponse response = contractBatchService.createContracts(requests);
+
+        assertEquals(1, response.created());
+        assertEquals(2, response.rejected());
+        assertEquals(EnumBatchItemStatus.CREATED, response.results().get(0).status());
+        assertNotNull(response.results().get(0).contractId());
+        assertEquals(EnumBatchItemStatus.REJECTED, response.results().get(1).status());
+        assertTrue(response.results().get(1).message().startsWith("Tenant not found"));
+        assertEquals(EnumBatchItemStatus.REJECTED, response.results().get(2).status());
+        assertTrue(response.results().get(2).message().contains("already requested by item 0 for an overlapping period"));
+
+        ArgumentCaptor<List<Contract>> contracts = ArgumentCaptor.forClass(List.class);
+        verify(contractBatchRepository, times(1)).markRented(Set.of(property));
+        verify(contractBatchRepository, times(1)).insertContracts(contracts.capture());
+        assertEquals(1, contracts.getValue().size());
+        assertEquals(response.results().get(0).contractId(), contracts.getValue().get(0).getId());
+        assertEquals(EnumContract.ACTIVE, contracts.getValue().get(0).getStatus());
+        assertEquals(property, contracts.getValue().get(0).getProperty().getId());
+        verify(paymentService, times(1)).generatePaymentsForContracts(contracts.getValue());
+    }
+
+    @Test
+    void createContractsRejectsMissingProperties() {
+        UUID owner = input.mockOwner(1).getId();
+        UUID tenant = input.mockTenant(1).getId();
+
+        when(contractBatchRepository.findOwnerIds(any())).thenReturn(Set.of(owner));
+        when(contractBatchRepository.findTenantIds(any())).thenReturn(Set.of(tenant));
+        when(contractBatchRepository.lockProperties(any())).thenReturn(Set.of());
+
+        ContractBatchResponse response = contractBatchService.createContracts(List.of(request(1, 1, 1)));
+
+        assertEquals(0, response.created());
+        assertTrue(response.results().get(0).message().startsWith("Property not found"));
+        verify(contractBatchRepository, never()).findOverlapping(anyList());
+        verify(contractBatchRepository, never()).insertContracts(anyList());
+        verify(paymentService, never()).generatePaymentsForContracts(anyList());
+    }
+
+    @Test
+    void createContractsRejectsOnlyTheOverlappingItems() {
+        UUID owner = input.mockOwner(1).getId();
+        UUID tenant = input.mockTenant(1).getId();
+        UUID property = input.mockProperty(1).getId();
+        UUID otherProperty = input.mockProperty(2).getId();
+
+        when(contractBatchRepository.findOwnerIds(any())).thenReturn(Set.of(owner));
+        when(contractBatchRepository.findTenantIds(any())).thenReturn(Set.of(tenant));
+        when(contractBatchRepository.lockProperties(Set.of(property, otherProperty))).thenReturn(Set.of(property, otherProperty));
+        when(contractBatchRepository.findOverlapping(anyList())).thenAnswer(invocation -> {
+            List<Contract> candidates = invocation.getArgument(0);
+            return Set.of(candidates.get(0).getId());
+        });
+
+        ContractBatchResponse response = contractBatchService.createContracts(List.of(request(1, 1, 1), request(1, 1, 2)));
+
+        assertEquals(1, response.created());
+        assertTrue(response.results().get(0).message().contains("is already leased between 2025-01-01 and 2025-03-01"));
+        assertEquals(EnumBatchItemStatus.CREATED, response.results().get(1).status());
+        verify(contractBatchRepository, times(1)).markRented(Set.of(otherProperty));
+    }
+
+    @Test
+    void createContractsRejectsBatchAboveCap() {
+        List<ContractRequest> requests = Collections.nCopies(ContractBatchService.MAX_BATCH_SIZE + 1, request(1, 1, 1));
+
+        assertThrows(InvalidRequestException.class, () -> contractBatchService.createContracts(requests));
+        verifyNoInteractions(contractBatchRepository);
+    }
+}
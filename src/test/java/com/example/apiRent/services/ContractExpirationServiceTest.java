@@ -0,0 +1,85 @@
+package com.example.apiRent.services;
+
+import com.example.apiRent.configs.CacheConfig;
+import com.example.apiRent.repositories.ContractExpirationRepository;
+import com.example.apiRent.repositories.ContractExpirationRepository.ExpiredChunk;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+public class ContractExpirationServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    private ContractExpirationService contractExpirationService;
+
+    @Mock
+    private ContractExpirationRepository contractExpirationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CacheManager cacheManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.PROPERTIES);
+        meterRegistry = new SimpleMeterRegistry();
+        Clock clock = Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        contractExpirationService = new ContractExpirationService(contractExpirationRepository, new TransactionTemplate(transactionManager), cacheManager, meterRegistry, clock, 2);
+    }
+
+    @Test
+    void expireDueContractsRunsChunksUntilOneIsShort() {
+        UUID freed = UUID.randomUUID();
+        cacheManager.getCache(CacheConfig.PROPERTIES).put(freed, "cached");
+        when(contractExpirationRepository.expireChunk(TODAY, 2))
+                .thenReturn(new ExpiredChunk(2, List.of(freed)))
+                .thenReturn(new ExpiredChunk(2, List.of()))
+                .thenReturn(new ExpiredChunk(1, List.of(UUID.randomUUID())));
+
+        contractExpirationService.expireDueContracts();
+
+        verify(contractExpirationRepository, times(3)).expireChunk(TODAY, 2);
+        verify(transactionManager, times(3)).commit(any());
+        assertNull(cacheManager.getCache(CacheConfig.PROPERTIES).get(freed));
+        assertEquals(5, meterRegistry.counter("contracts.expired").count());
+        assertEquals(2, meterRegistry.counter("contracts.expiration.properties.freed").count());
+        assertEquals(1, meterRegistry.timer("contracts.expiration.duration").count());
+        assertEquals(5, meterRegistry.summary("contracts.expiration.rows").totalAmount());
+    }
+
+    @Test
+    void expireDueContractsWithNothingDue() {
+        when(contractExpirationRepository.expireChunk(TODAY, 2)).thenReturn(new ExpiredChunk(0, List.of()));
+
+        int expired = contractExpirationService.expireContractsEndedBefore(TODAY);
+
+        assertEquals(0, expired);
+        verify(contractExpirationRepository, times(1)).expireChunk(TODAY, 2);
+        assertEquals(1, meterRegistry.summary("contracts.expiration.rows").count());
+    }
+}
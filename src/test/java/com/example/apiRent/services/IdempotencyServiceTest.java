@@ -0,0 +1,122 @@
+package com.example.apiRent.services;
+
+import com.example.apiRent.repositories.IdempotencyRepository;
+import com.example.apiRent.repositories.IdempotencyRepository.IdempotencyRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyServiceTest {
+
+    private static final String KEY = "key";
+    private static final String SCOPE = "PATCH /payments/confirm";
+    private static final Duration TTL = Duration.ofHours(24);
+    private static final Duration IN_FLIGHT_TIMEOUT = Duration.ofMinutes(1);
+    private static final UUID CLAIM = new UUID(3L, 1L);
+
+    @Mock
+    private IdempotencyRepository idempotencyRepository;
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        idempotencyService = new IdempotencyService(idempotencyRepository, TTL, IN_FLIGHT_TIMEOUT, 100);
+    }
+
+    private static IdempotencyRecord completed() {
+        return new IdempotencyRecord("fingerprint", 200, "application/json", "{}".getBytes());
+    }
+
+    @Test
+    void beginClaimsANewKey() {
+        when(idempotencyRepository.claim(KEY, SCOPE, "fingerprint", CLAIM, TTL, IN_FLIGHT_TIMEOUT)).thenReturn(true);
+
+        assertTrue(idempotencyService.begin(KEY, SCOPE, "fingerprint", CLAIM).isEmpty());
+        verify(idempotencyRepository, never()).find(anyString(), anyString());
+    }
+
+    @Test
+    void beginReturnsTheRecordedResponseAndKeepsItInMemory() {
+        IdempotencyRecord record = completed();
+        when(idempotencyRepository.claim(KEY, SCOPE, "fingerprint", CLAIM, TTL, IN_FLIGHT_TIMEOUT)).thenReturn(false);
+        when(idempotencyRepository.find(KEY, SCOPE)).thenReturn(Optional.of(record));
+
+        assertSame(record, idempotencyService.begin(KEY, SCOPE, "fingerprint", CLAIM).orElseThrow());
+        assertSame(record, idempotencyService.begin(KEY, SCOPE, "fingerprint", CLAIM).orElseThrow());
+
+        verify(idempotencyRepository, times(1)).claim(KEY, SCOPE, "fingerprint", CLAIM, TTL, IN_FLIGHT_TIMEOUT);
+        verify(idempotencyRepository, times(1)).find(KEY, SCOPE);
+    }
+
+    @Test
+    void beginDoesNotKeepARequestUnderWayInMemory() {
+        IdempotencyRecord underWay = new IdempotencyRecord("fingerprint", null, null, null);
+        when(idempotencyRepository.claim(KEY, SCOPE, "fingerprint", CLAIM, TTL, IN_FLIGHT_TIMEOUT)).thenReturn(false);
+        when(idempotencyRepository.find(KEY, SCOPE)).thenReturn(Optional.of(underWay));
+
+        idempotencyService.begin(KEY, SCOPE, "fingerprint", CLAIM);
+        idempotencyService.begin(KEY, SCOPE, "fingerprint", CLAIM);
+
+        verify(idempotencyRepository, times(2)).find(KEY, SCOPE);
+    }
+
+    @Test
+    void beginClaimsAgainWhenTheRecordWentAwayMeanwhile() {
+        when(idempotencyRepository.claim(KEY, SCOPE, "fingerprint", CLAIM, TTL, IN_FLIGHT_TIMEOUT)).thenReturn(false, true);
+        when(idempotencyRepository.find(KEY, SCOPE)).thenReturn(Optional.empty());
+
+        assertTrue(idempotencyService.begin(KEY, SCOPE, "fingerprint", CLAIM).isEmpty());
+        verify(idempotencyRepository, times(2)).claim(KEY, SCOPE, "fingerprint", CLAIM, TTL, IN_FLIGHT_TIMEOUT);
+    }
+
+    @Test
+    void completeServesLaterRequestsFromMemory() {
+        IdempotencyRecord record = completed();
+        when(idempotencyRepository.complete(KEY, SCOPE, CLAIM, 200, "application/json", record.body())).thenReturn(true);
+
+        idempotencyService.complete(KEY, SCOPE, CLAIM, record);
+
+        assertSame(record, idempotencyService.begin(KEY, SCOPE, "fingerprint", CLAIM).orElseThrow());
+        verify(idempotencyRepository, never()).claim(anyString(), anyString(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void completeKeepsNothingWhenTheClaimWasTakenOver() {
+        IdempotencyRecord record = completed();
+        when(idempotencyRepository.complete(KEY, SCOPE, CLAIM, 200, "application/json", record.body())).thenReturn(false);
+
+        idempotencyService.complete(KEY, SCOPE, CLAIM, record);
+
+        when(idempotencyRepository.claim(KEY, SCOPE, "fingerprint", CLAIM, TTL, IN_FLIGHT_TIMEOUT)).thenReturn(true);
+        assertTrue(idempotencyService.begin(KEY, SCOPE, "fingerprint", CLAIM).isEmpty());
+    }
+
+    @Test
+    void completeDoesNotFailTheRequestWhenTheRecordCannotBeWritten() {
+        IdempotencyRecord record = completed();
+        doThrow(new DataAccessResourceFailureException("down"))
+                .when(idempotencyRepository).complete(KEY, SCOPE, CLAIM, 200, "application/json", record.body());
+
+        assertDoesNotThrow(() -> idempotencyService.complete(KEY, SCOPE, CLAIM, record));
+        when(idempotencyRepository.claim(KEY, SCOPE, "fingerprint", CLAIM, TTL, IN_FLIGHT_TIMEOUT)).thenReturn(true);
+        assertTrue(idempotencyService.begin(KEY, SCOPE, "fingerprint", CLAIM).isEmpty());
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.apiRent.services;
 
+import com.example.apiRent.configs.CacheConfig;
 import com.example.apiRent.dtos.owner.OwnerRequest;
 import com.example.apiRent.dtos.owner.OwnerResponse;
 import com.example.apiRent.enums.EnumUser;
 import com.example.apiRent.mappers.OwnerMapper;
 import com.example.apiRent.models.Owner;
+import com.example.apiRent.models.Property;
 import com.example.apiRent.repositories.OwnerRepository;
 import com.example.apiRent.unitests.mappers.mocks.OwnerMock;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +17,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.http.HttpStatus;
@@ -48,10 +52,13 @@ public class OwnerServiceTest {
 
     private OwnerMock input = new OwnerMock();
 
+    private CacheManager cacheManager;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        ownerService = new OwnerService(ownerRepository, ownerMapper);
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.PROPERTIES, CacheConfig.OWNERS);
+        ownerService = new OwnerService(ownerRepository, ownerMapper, cacheManager);
     }
 
     @Test
@@ -65,8 +72,7 @@ public class OwnerServiceTest {
                         owner.getEmail()))
                 .toList();
 
-        when(ownerRepository.findAll()).thenReturn(mockOwnerList);
-        when(ownerMapper.toResponseList(mockOwnerList)).thenReturn(mockDtoList);
+        when(ownerRepository.findAllResponses()).thenReturn(mockDtoList);
 
 
         List<OwnerResponse> responseEntity = ownerService.findAllOwners();
@@ -161,6 +167,10 @@ public class OwnerServiceTest {
     void delete() {
         Owner owner = input.mockEntity(1);
         UUID predictableId = owner.getId();
+        Property property = new Property();
+        property.setId(UUID.nameUUIDFromBytes("property-1".getBytes()));
+        owner.getProperties().add(property);
+        cacheManager.getCache(CacheConfig.PROPERTIES).put(property.getId(), "cached");
 
         when(ownerRepository.findById(predictableId)).thenReturn(Optional.of(owner));
 
@@ -168,6 +178,7 @@ public class OwnerServiceTest {
 
         verify(ownerRepository, times(1)).findById(predictableId);
         verify(ownerRepository, times(1)).delete(owner);
+        assertNull(cacheManager.getCache(CacheConfig.PROPERTIES).get(property.getId()));
     }
 
     @Test
@@ -203,8 +214,7 @@ public class OwnerServiceTest {
                 .map(owner -> new OwnerResponse(owner.getId(), owner.getName(), owner.getRole(), owner.getEmail()))
                 .toList();
 
-        when(ownerRepository.findByNameContainingIgnoreCase(searchName)).thenReturn(mockOwnerList);
-        when(ownerMapper.toResponseList(mockOwnerList)).thenReturn(mockDtoList);
+        when(ownerRepository.findResponsesByName(searchName)).thenReturn(mockDtoList);
 
         List<OwnerResponse> responseEntity = ownerService.queryByName(searchName);
 
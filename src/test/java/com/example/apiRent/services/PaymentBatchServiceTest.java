@@ -0,0 +1,118 @@
+package com.example.apiRent.services;
+
+import com.example.apiRent.dtos.payment.PaymentConfirmBatchResponse;
+import com.example.apiRent.enums.EnumBatchItemStatus;
+import com.example.apiRent.enums.EnumPayment;
+import com.example.apiRent.exceptions.InvalidRequestException;
+import com.example.apiRent.repositories.OwnerRevenueRepository;
+import com.example.apiRent.repositories.PaymentBatchRepository;
+import com.example.apiRent.repositories.PaymentBatchRepository.PaymentOwnership;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+public class PaymentBatchServiceTest {
+
+    private static final UUID OWNER = new UUID(1L, 1L);
+    private static final UUID OTHER_OWNER = new UUID(1L, 2L);
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    private PaymentBatchService paymentBatchService;
+
+    @Mock
+    private PaymentBatchRepository paymentBatchRepository;
+
+    @Mock
+    private OwnerRevenueRepository ownerRevenueRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        paymentBatchService = new PaymentBatchService(paymentBatchRepository, ownerRevenueRepository, Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    private static UUID payment(int number) {
+        return new UUID(2L, number);
+    }
+
+    @Test
+    void confirmPaymentsReportsEveryItem() {
+        List<UUID> paymentIds = Arrays.asList(payment(1), payment(2), payment(3), payment(4), payment(1), null, payment(5), payment(6));
+        when(paymentBatchRepository.findOwnership(any())).thenReturn(Map.of(
+                payment(1), new PaymentOwnership(EnumPayment.PENDING, OWNER, true),
+                payment(2), new PaymentOwnership(EnumPayment.OVERDUE, OWNER, true),
+                payment(3), new PaymentOwnership(EnumPayment.PAID, OWNER, true),
+                payment(4), new PaymentOwnership(EnumPayment.PENDING, OTHER_OWNER, true),
+                payment(6), new PaymentOwnership(EnumPayment.PENDING, OWNER, true)));
+        when(paymentBatchRepository.confirm(any(), eq(TODAY))).thenReturn(Set.of(payment(1), payment(2)));
+
+        PaymentConfirmBatchResponse response = paymentBatchService.confirmPayments(OWNER, paymentIds);
+
+        assertEquals(2, response.confirmed());
+        assertEquals(6, response.rejected());
+        assertEquals(EnumBatchItemStatus.CONFIRMED, response.results().get(0).status());
+        assertEquals(EnumBatchItemStatus.CONFIRMED, response.results().get(1).status());
+        assertTrue(response.results().get(2).message().contains("'PAID'"));
+        assertTrue(response.results().get(3).message().startsWith("This owner does not belong"));
+        assertTrue(response.results().get(4).message().contains("already requested by item 0"));
+        assertEquals("Payment id is missing", response.results().get(5).message());
+        assertTrue(response.results().get(6).message().startsWith("Payment not found"));
+        assertTrue(response.results().get(7).message().contains("confirmed by another request"));
+        verify(paymentBatchRepository, times(1)).findOwnership(Set.of(payment(1), payment(2), payment(3), payment(4), payment(5), payment(6)));
+        verify(paymentBatchRepository, times(1)).confirm(argThat(ids -> Set.copyOf(ids).equals(Set.of(payment(1), payment(2), payment(6)))), eq(TODAY));
+        verify(ownerRevenueRepository, times(1)).addConfirmed(Set.of(payment(1), payment(2)));
+    }
+
+    @Test
+    void confirmPaymentsRejectsOwnersWithoutTheLocatorRole() {
+        when(paymentBatchRepository.findOwnership(any())).thenReturn(Map.of(
+                payment(1), new PaymentOwnership(EnumPayment.PENDING, OWNER, false)));
+
+        PaymentConfirmBatchResponse response = paymentBatchService.confirmPayments(OWNER, List.of(payment(1)));
+
+        assertEquals(0, response.confirmed());
+        assertTrue(response.results().get(0).message().startsWith("Owner not found or permission denied"));
+        verify(paymentBatchRepository, never()).confirm(any(), any());
+        verifyNoInteractions(ownerRevenueRepository);
+    }
+
+    @Test
+    void confirmPaymentsSkipsTheUpdateWhenNothingIsAccepted() {
+        when(paymentBatchRepository.findOwnership(any())).thenReturn(Map.of());
+
+        PaymentConfirmBatchResponse response = paymentBatchService.confirmPayments(OWNER, List.of(payment(1)));
+
+        assertEquals(0, response.confirmed());
+        verify(paymentBatchRepository, never()).confirm(any(), any());
+        verifyNoInteractions(ownerRevenueRepository);
+    }
+
+    @Test
+    void confirmPaymentsRejectsBatchAboveCap() {
+        List<UUID> paymentIds = Collections.nCopies(PaymentBatchService.MAX_BATCH_SIZE + 1, payment(1));
+
+        assertThrows(InvalidRequestException.class, () -> paymentBatchService.confirmPayments(OWNER, paymentIds));
+        assertThrows(InvalidRequestException.class, () -> paymentBatchService.confirmPayments(null, List.of(payment(1))));
+        verifyNoInteractions(paymentBatchRepository);
+    }
+}
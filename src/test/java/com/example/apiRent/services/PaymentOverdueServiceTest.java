@@ -0,0 +1,87 @@
+package com.example.apiRent.services;
+
+import com.example.apiRent.repositories.PaymentOverdueRepository;
+import com.example.apiRent.repositories.PaymentOverdueRepository.VirtualChunk;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+public class PaymentOverdueServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    @Mock
+    private PaymentOverdueRepository paymentOverdueRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private PaymentOverdueService service(int workers) {
+        Clock clock = Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        return new PaymentOverdueService(paymentOverdueRepository, new TransactionTemplate(transactionManager), meterRegistry, clock, 2, workers);
+    }
+
+    @Test
+    void markOverduePaymentsRunsChunksUntilOneIsShort() {
+        when(paymentOverdueRepository.materializeChunk(TODAY, 2))
+                .thenReturn(new VirtualChunk(2, 5))
+                .thenReturn(new VirtualChunk(1, 3));
+        when(paymentOverdueRepository.markChunk(TODAY, 2))
+                .thenReturn(2)
+                .thenReturn(2)
+                .thenReturn(0);
+
+        service(1).markOverduePayments();
+
+        verify(paymentOverdueRepository, times(2)).materializeChunk(TODAY, 2);
+        verify(paymentOverdueRepository, times(3)).markChunk(TODAY, 2);
+        verify(transactionManager, times(5)).commit(any());
+        assertEquals(12, meterRegistry.counter("payments.overdue").count());
+        assertEquals(1, meterRegistry.timer("payments.overdue.duration").count());
+        assertEquals(12, meterRegistry.summary("payments.overdue.rows").totalAmount());
+    }
+
+    @Test
+    void markOverdueBeforeStartsEveryWorker() {
+        when(paymentOverdueRepository.materializeChunk(TODAY, 2)).thenReturn(new VirtualChunk(0, 0));
+        when(paymentOverdueRepository.markChunk(TODAY, 2)).thenReturn(1);
+
+        int overdue = service(3).markOverdueBefore(TODAY);
+
+        assertEquals(3, overdue);
+        verify(paymentOverdueRepository, times(3)).materializeChunk(TODAY, 2);
+        verify(paymentOverdueRepository, times(3)).markChunk(TODAY, 2);
+    }
+
+    @Test
+    void markOverdueBeforePropagatesWorkerFailures() {
+        when(paymentOverdueRepository.materializeChunk(TODAY, 2)).thenThrow(new IllegalStateException("connection lost"));
+
+        assertThrows(IllegalStateException.class, () -> service(2).markOverdueBefore(TODAY));
+        assertEquals(0, meterRegistry.timer("payments.overdue.duration").count());
+    }
+}
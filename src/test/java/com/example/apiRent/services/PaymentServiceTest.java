@@ -1,15 +1,24 @@
 package com.example.apiRent.services;
 
 
+import com.example.apiRent.dtos.fields.FieldSelection;
 import com.example.apiRent.dtos.payment.PaymentResponse;
+import com.example.apiRent.dtos.payment.PaymentScheduleDelta;
 import com.example.apiRent.enums.EnumPayment;
 import com.example.apiRent.enums.EnumUser;
+import com.example.apiRent.exceptions.InvalidRequestException;
+import com.example.apiRent.exceptions.ResourceNotFoundException;
+import com.example.apiRent.mappers.ContractMappper;
 import com.example.apiRent.mappers.PaymentMapper;
 import com.example.apiRent.mappers.PropertyMapper;
 import com.example.apiRent.models.*;
 import com.example.apiRent.repositories.ContractRepository;
 import com.example.apiRent.repositories.OwnerRepository;
+import com.example.apiRent.repositories.OwnerRevenueRepository;
+import com.example.apiRent.repositories.PaymentConfirmationRepository;
 import com.example.apiRent.repositories.PaymentRepository;
+import com.example.apiRent.repositories.PaymentScheduleRepository;
+import com.example.apiRent.repositories.PaymentScheduleRepository.ScheduledPayment;
 import com.example.apiRent.repositories.PropertyRepository;
 import com.example.apiRent.unitests.mappers.mocks.PaymentMock;
 import com.example.apiRent.unitests.mappers.mocks.PropertyMock;
@@ -23,13 +32,19 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.when;
 
@@ -48,49 +63,135 @@ public class PaymentServiceTest {
     @Mock
     private PaymentMapper paymentMapper;
 
+    @Mock
+    private PaymentScheduleRepository paymentScheduleRepository;
+
+    @Mock
+    private ContractMappper contractMappper;
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @Mock
+    private PaymentConfirmationRepository paymentConfirmationRepository;
+
+    @Mock
+    private OwnerRevenueRepository ownerRevenueRepository;
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
     private PaymentMock input = new PaymentMock();
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        paymentService = new PaymentService(paymentRepository,paymentMapper, ownerRepository);
+        paymentService = new PaymentService(paymentRepository,paymentMapper, contractMappper, ownerRepository, paymentScheduleRepository, contractRepository, paymentConfirmationRepository, ownerRevenueRepository, Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC), false);
     }
 
     @Test
     void generatePaymentsForContracts() {
         Contract mockContract = input.mockContract(1);
 
-        ArgumentCaptor<List<Payment>> paymentListCaptor = ArgumentCaptor.forClass(List.class);
+        paymentService.generatePaymentsForContracts(mockContract);
+
+        verify(paymentScheduleRepository, times(1)).insertSchedules(List.of(mockContract));
+        verify(ownerRevenueRepository, times(1)).addContracts(List.of(mockContract.getId()));
+        verify(paymentRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void generatePaymentsForContractsSkipsVirtualSchedules() {
+        Contract mockContract = input.mockContract(1);
+        mockContract.setVirtual_schedule(true);
 
         paymentService.generatePaymentsForContracts(mockContract);
 
+        verifyNoInteractions(paymentScheduleRepository);
+        verify(ownerRevenueRepository, times(1)).addContracts(List.of(mockContract.getId()));
+    }
 
-        verify(paymentRepository, times(1)).saveAll(paymentListCaptor.capture());
+    @Test
+    void buildSchedule() {
+        Contract mockContract = input.mockContract(1);
 
-        List<Payment> capturedPayments = paymentListCaptor.getValue();
+        List<Payment> schedule = paymentService.buildSchedule(mockContract);
 
-        assertNotNull(capturedPayments);
-        assertEquals(3, capturedPayments.size());
+        assertNotNull(schedule);
+        assertEquals(3, schedule.size());
 
-        Payment firstPayment = capturedPayments.get(0);
+        Payment firstPayment = schedule.get(0);
         assertEquals(mockContract, firstPayment.getContract());
         assertEquals(new BigDecimal(1), firstPayment.getAmount());
         assertEquals(LocalDate.of(2025, 1, 15), firstPayment.getDue_date());
         assertEquals(EnumPayment.PENDING, firstPayment.getStatus());
 
-        Payment lastPayment = capturedPayments.get(2);
+        Payment lastPayment = schedule.get(2);
         assertEquals(LocalDate.of(2025, 3, 15), lastPayment.getDue_date());
     }
 
+    private ScheduledPayment scheduled(int month, String amount, EnumPayment status) {
+        return new ScheduledPayment(new UUID(0L, month), LocalDate.of(2025, month, 15), new BigDecimal(amount), status);
+    }
+
+    @Test
+    void applyScheduleDeltaOnRenewal() {
+        Contract mockContract = input.mockContract(1);
+        mockContract.setEnd_date(LocalDate.of(2025, 6, 15));
+        mockContract.setMonthly_value(new BigDecimal(2));
+        when(paymentScheduleRepository.findSchedule(mockContract.getId())).thenReturn(List.of(
+                scheduled(1, "1", EnumPayment.PAID),
+                scheduled(2, "1", EnumPayment.PENDING),
+                scheduled(3, "1", EnumPayment.PENDING)));
+
+        PaymentScheduleDelta delta = paymentService.applyScheduleDelta(mockContract, LocalDate.of(2025, 2, 1));
+
+        assertEquals(List.of(LocalDate.of(2025, 4, 15), LocalDate.of(2025, 5, 15), LocalDate.of(2025, 6, 15)),
+                delta.appended().stream().map(Payment::getDue_date).toList());
+        assertEquals(new BigDecimal(2), delta.appended().get(0).getAmount());
+        assertEquals(List.of(new UUID(0L, 2), new UUID(0L, 3)), delta.repriced());
+        assertTrue(delta.dropped().isEmpty());
+        verify(paymentScheduleRepository).insertPayments(delta.appended());
+        verify(paymentScheduleRepository).repricePending(delta.repriced(), new BigDecimal(2), LocalDate.of(2025, 2, 1));
+        verify(paymentScheduleRepository, never()).deletePending(any());
+    }
+
+    @Test
+    void diffScheduleOnShortening() {
+        Contract mockContract = input.mockContract(1);
+        List<ScheduledPayment> existing = List.of(
+                scheduled(1, "1", EnumPayment.PAID),
+                scheduled(2, "1", EnumPayment.OVERDUE),
+                scheduled(3, "1", EnumPayment.PENDING),
+                scheduled(4, "1", EnumPayment.PENDING),
+                scheduled(5, "1", EnumPayment.PENDING));
+
+        PaymentScheduleDelta delta = paymentService.diffSchedule(mockContract, existing, LocalDate.of(2025, 1, 1));
+
+        assertTrue(delta.appended().isEmpty());
+        assertTrue(delta.repriced().isEmpty());
+        assertEquals(List.of(new UUID(0L, 4), new UUID(0L, 5)), delta.dropped());
+    }
+
+    @Test
+    void diffScheduleRejectsSettledPaymentOutsidePeriod() {
+        Contract mockContract = input.mockContract(1);
+        List<ScheduledPayment> existing = List.of(
+                scheduled(3, "1", EnumPayment.PENDING),
+                scheduled(4, "1", EnumPayment.PAID));
+
+        assertThrows(InvalidRequestException.class,
+                () -> paymentService.diffSchedule(mockContract, existing, LocalDate.of(2025, 1, 1)));
+    }
+
     @Test
     void findPaymentsById() {
         Payment payment = input.mockEntity(1);
         PaymentResponse paymentResponse = input.mockResponse(1);
 
-        when(paymentRepository.findById(payment.getId())).thenReturn(Optional.of(payment));
+        when(paymentRepository.findById(payment.getId(), FieldSelection.ALL)).thenReturn(Optional.of(payment));
         when(paymentMapper.toResponse(payment)).thenReturn(paymentResponse);
 
-        PaymentResponse resource = paymentService.findPaymentsById(payment.getId());
+        PaymentResponse resource = paymentService.findPaymentsById(payment.getId(), FieldSelection.ALL);
 
         assertNotNull(resource);
 
@@ -107,11 +208,11 @@ public class PaymentServiceTest {
 
         List<PaymentResponse> mockPaymentResponses = input.mockEntityResponseList();
 
-        when(paymentRepository.findAllByContractId(contractId)).thenReturn(mockPaymentEntities);
+        when(paymentRepository.findAllByContractId(contractId, FieldSelection.ALL)).thenReturn(mockPaymentEntities);
         when(paymentMapper.toResponseList(mockPaymentEntities)).thenReturn(mockPaymentResponses);
 
 
-        List<PaymentResponse> actualResponses = paymentService.findPaymentByContract(contractId);
+        List<PaymentResponse> actualResponses = paymentService.findPaymentByContract(contractId, FieldSelection.ALL);
 
         assertNotNull(actualResponses);
         assertEquals(mockPaymentResponses.size(), actualResponses.size());
@@ -119,30 +220,61 @@ public class PaymentServiceTest {
         assertEquals(mockPaymentResponses, actualResponses);
     }
 
+    @Test
+    void findPaymentByContractAddsVirtualInstallments() {
+        Contract mockContract = input.mockContract(1);
+        mockContract.setVirtual_schedule(true);
+        Payment confirmed = input.mockEntity(1);
+        confirmed.setContract(mockContract);
+        confirmed.setDue_date(LocalDate.of(2025, 2, 15));
+        confirmed.setStatus(EnumPayment.PAID);
+
+        when(paymentRepository.findAllByContractId(mockContract.getId(), FieldSelection.ALL)).thenReturn(List.of(confirmed));
+        ArgumentCaptor<List<Payment>> installments = ArgumentCaptor.forClass(List.class);
+        when(paymentMapper.toResponseList(installments.capture())).thenReturn(List.of());
+
+        paymentService.findPaymentByContract(mockContract.getId(), FieldSelection.ALL);
+
+        assertEquals(List.of(LocalDate.of(2025, 1, 15), LocalDate.of(2025, 2, 15), LocalDate.of(2025, 3, 15)),
+                installments.getValue().stream().map(Payment::getDue_date).toList());
+        assertNull(installments.getValue().get(0).getId());
+        assertSame(confirmed, installments.getValue().get(1));
+        verifyNoInteractions(contractRepository);
+    }
+
     @Test
     void confirmPayment() {
         Owner owner = input.mockOwner(1);
-        Contract mockContract = input.mockContract(1);
         Payment mockPayment = input.mockEntity(1);
-        mockPayment.setContract(mockContract);
         PaymentResponse expectedResponse = input.mockResponse(1);
 
-
-        when(paymentRepository.findById(mockPayment.getId())).thenReturn(Optional.of(mockPayment));
-        when(ownerRepository.findByIdAndRole(owner.getId(), EnumUser.LOCATOR)).thenReturn(Optional.of(owner));
-        when(paymentRepository.save(any(Payment.class))).thenReturn(mockPayment);
-        when(paymentMapper.toResponse(any(Payment.class))).thenReturn(expectedResponse);
+        when(paymentConfirmationRepository.confirm(mockPayment.getId(), owner.getId(), TODAY)).thenReturn(Optional.of(expectedResponse));
 
         PaymentResponse actualResponse = paymentService.confirmPayment(mockPayment.getId(), owner.getId());
 
         assertNotNull(actualResponse);
         assertEquals(expectedResponse, actualResponse);
+        verify(ownerRevenueRepository).addConfirmed(owner.getId(), expectedResponse.due_date(), expectedResponse.payment_date(), expectedResponse.amount(), false);
+        verifyNoInteractions(paymentRepository, ownerRepository);
+    }
+
+    @Test
+    void confirmPaymentExplainsWhyNothingWasConfirmed() {
+        Owner owner = input.mockOwner(1);
+        Contract mockContract = input.mockContract(1);
+        mockContract.setOwner(owner);
+        Payment mockPayment = input.mockEntity(1);
+        mockPayment.setContract(mockContract);
+        mockPayment.setStatus(EnumPayment.PAID);
 
-        ArgumentCaptor<Payment> paymentCaptor = ArgumentCaptor.forClass(Payment.class);
-        verify(paymentRepository, times(1)).save(paymentCaptor.capture());
+        when(paymentConfirmationRepository.confirm(any(), any(), any())).thenReturn(Optional.empty());
+        when(paymentRepository.findById(mockPayment.getId())).thenReturn(Optional.of(mockPayment));
+        when(ownerRepository.findByIdAndRole(any(), eq(EnumUser.LOCATOR))).thenReturn(Optional.of(owner));
 
-        Payment savedPayment = paymentCaptor.getValue();
-        assertEquals(EnumPayment.PAID, savedPayment.getStatus());
-        assertNotNull(savedPayment.getPayment_date());
+        IllegalStateException paid = assertThrows(IllegalStateException.class, () -> paymentService.confirmPayment(mockPayment.getId(), owner.getId()));
+        assertTrue(paid.getMessage().contains("'PAID'"));
+        assertThrows(ResourceNotFoundException.class, () -> paymentService.confirmPayment(mockPayment.getId(), UUID.randomUUID()));
+        assertThrows(ResourceNotFoundException.class, () -> paymentService.confirmPayment(UUID.randomUUID(), owner.getId()));
+        verifyNoInteractions(ownerRevenueRepository);
     }
 }
@@ -0,0 +1,111 @@
+package com.example.apiRent.services;
+
+import com.example.apiRent.dtos.pagination.CursorPage;
+import com.example.apiRent.dtos.property.DatePeriod;
+import com.example.apiRent.dtos.property.PropertyAvailabilityFilter;
+import com.example.apiRent.dtos.property.PropertyAvailabilityResponse;
+import com.example.apiRent.dtos.property.PropertyCursor;
+import com.example.apiRent.dtos.property.PropertyResponse;
+import com.example.apiRent.dtos.property.PropertyRow;
+import com.example.apiRent.enums.EnumPropertySort;
+import com.example.apiRent.exceptions.InvalidRequestException;
+import com.example.apiRent.exceptions.ResourceNotFoundException;
+import com.example.apiRent.repositories.PropertyAvailabilityRepository;
+import com.example.apiRent.unitests.mappers.mocks.PropertyMock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+public class PropertyAvailabilityServiceTest {
+
+    private static final UUID PROPERTY_ID = new UUID(0L, 1L);
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 12, 31);
+
+    private PropertyAvailabilityService propertyAvailabilityService;
+
+    private PropertyMock propertyInput = new PropertyMock();
+
+    @Mock
+    private PropertyAvailabilityRepository propertyAvailabilityRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        propertyAvailabilityService = new PropertyAvailabilityService(propertyAvailabilityRepository);
+    }
+
+    @Test
+    void findAvailabilityComputesFreePeriods() {
+        List<DatePeriod> leased = List.of(
+                new DatePeriod(LocalDate.of(2024, 7, 1), LocalDate.of(2025, 2, 28)),
+                new DatePeriod(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 8, 31)),
+                new DatePeriod(LocalDate.of(2025, 9, 1), LocalDate.of(2026, 3, 31)));
+        when(propertyAvailabilityRepository.findLeasedPeriods(PROPERTY_ID, FROM, TO)).thenReturn(Optional.of(leased));
+
+        PropertyAvailabilityResponse result = propertyAvailabilityService.findAvailability(PROPERTY_ID, FROM, TO);
+
+        assertFalse(result.available());
+        assertEquals(leased, result.leased());
+        assertEquals(List.of(new DatePeriod(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 5, 31))), result.free());
+    }
+
+    @Test
+    void findAvailabilityWithoutLeases() {
+        when(propertyAvailabilityRepository.findLeasedPeriods(PROPERTY_ID, FROM, TO)).thenReturn(Optional.of(List.of()));
+
+        PropertyAvailabilityResponse result = propertyAvailabilityService.findAvailability(PROPERTY_ID, FROM, TO);
+
+        assertTrue(result.available());
+        assertEquals(List.of(new DatePeriod(FROM, TO)), result.free());
+    }
+
+    @Test
+    void findAvailabilityRejectsUnknownPropertyAndReversedWindow() {
+        when(propertyAvailabilityRepository.findLeasedPeriods(PROPERTY_ID, FROM, TO)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> propertyAvailabilityService.findAvailability(PROPERTY_ID, FROM, TO));
+        assertThrows(InvalidRequestException.class, () -> propertyAvailabilityService.findAvailability(PROPERTY_ID, TO, FROM));
+    }
+
+    @Test
+    void findAvailablePropertiesPage() {
+        List<PropertyRow> mockRowList = propertyInput.mockRowList();
+        PropertyAvailabilityFilter filter = new PropertyAvailabilityFilter(FROM, TO, null, new BigDecimal(5000));
+        when(propertyAvailabilityRepository.findAvailablePage(filter, null, 11)).thenReturn(mockRowList.subList(0, 11));
+
+        CursorPage<PropertyResponse> result = propertyAvailabilityService.findAvailableProperties(filter, null, 10);
+
+        assertEquals(10, result.content().size());
+        assertTrue(result.hasNext());
+        PropertyCursor next = PropertyCursor.decode(result.nextCursor(), EnumPropertySort.PRICE);
+        assertEquals(mockRowList.get(9).id(), next.id());
+        assertEquals(mockRowList.get(9).price(), next.price());
+    }
+
+    @Test
+    void findAvailablePropertiesRejectsInvalidFilter() {
+        assertThrows(InvalidRequestException.class, () -> propertyAvailabilityService.findAvailableProperties(
+                new PropertyAvailabilityFilter(FROM, null, null, null), null, 10));
+        assertThrows(InvalidRequestException.class, () -> propertyAvailabilityService.findAvailableProperties(
+                new PropertyAvailabilityFilter(FROM, TO, new BigDecimal(10), new BigDecimal(5)), null, 10));
+        assertThrows(InvalidRequestException.class, () -> propertyAvailabilityService.findAvailableProperties(
+                new PropertyAvailabilityFilter(FROM, TO, null, null), null, PropertyService.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(propertyAvailabilityRepository);
+    }
+}
@@ -1,12 +1,19 @@
 package com.example.apiRent.services;
 
 import com.example.apiRent.dtos.owner.OwnerResponse;
+import com.example.apiRent.dtos.pagination.CursorPage;
+import com.example.apiRent.dtos.property.PropertyCursor;
+import com.example.apiRent.dtos.property.PropertyFilter;
 import com.example.apiRent.dtos.property.PropertyRequest;
 import com.example.apiRent.dtos.property.PropertyResponse;
+import com.example.apiRent.dtos.property.PropertyRow;
 import com.example.apiRent.dtos.tenant.TenantRequest;
 import com.example.apiRent.dtos.tenant.TenantResponse;
 import com.example.apiRent.enums.EnumProperty;
+import com.example.apiRent.enums.EnumPropertySort;
+import com.example.apiRent.enums.EnumSearchMode;
 import com.example.apiRent.enums.EnumUser;
+import com.example.apiRent.exceptions.InvalidRequestException;
 import com.example.apiRent.mappers.PropertyMapper;
 import com.example.apiRent.mappers.TenantMapper;
 import com.example.apiRent.models.Owner;
@@ -21,18 +28,20 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -59,42 +68,24 @@ public class PropertyServiceTest {
     }
 
     @Test
-    void findPropertiesAll() {
-        List<Property> mockEntityList = input.mockEntityList();
-
-        List<PropertyResponse> mockDtoList = mockEntityList.stream()
-                .map(property -> new PropertyResponse(
-                        property.getId(),
-                        property.getTitle(),
-                        property.getDescription(),
-                        property.getAddress(),
-                        property.getPrice(),
-                        property.getStatus()
-                ))
-                .toList();
-
-
+    void findPropertiesPage() {
+        List<PropertyRow> mockRowList = input.mockRowList();
+        List<PropertyRow> firstPage = mockRowList.subList(0, 10);
 
-        when(propertyRepository.findAll()).thenReturn(mockEntityList);
-        when(propertyMapper.toResponseList(mockEntityList)).thenReturn(mockDtoList);
+        PropertyFilter filter = new PropertyFilter(EnumProperty.AVAILABLE, null, null, null);
+        when(propertyRepository.findPage(filter, EnumPropertySort.PRICE, null, 11)).thenReturn(mockRowList.subList(0, 11));
 
-
-        List<PropertyResponse> responseEntity = propertyService.findAllProperties();
+        CursorPage<PropertyResponse> responseEntity = propertyService.findPropertiesPage(filter, EnumPropertySort.PRICE, null, 10);
 
         assertNotNull(responseEntity);
-        assertEquals(14, responseEntity.size());
-
-        PropertyResponse propertyResponse = responseEntity.get(1);
-        assertNotNull(propertyResponse);
+        assertEquals(10, responseEntity.content().size());
+        assertTrue(responseEntity.hasNext());
 
-        assertEquals(mockDtoList.get(1).title(), propertyResponse.title());
-        assertEquals(mockDtoList.get(1).description(), propertyResponse.description());
-        assertEquals(mockDtoList.get(1).address(), propertyResponse.address());
-        assertEquals(mockDtoList.get(1).status(), propertyResponse.status());
-        assertEquals(mockDtoList.get(1).price(), propertyResponse.price());
+        PropertyCursor next = PropertyCursor.decode(responseEntity.nextCursor(), EnumPropertySort.PRICE);
+        assertEquals(firstPage.get(9).id(), next.id());
+        assertEquals(firstPage.get(9).price(), next.price());
 
-        var PropertyFour = responseEntity.get(4);
-        Owner OwnerFour = input.mockOwner(4);
+        var PropertyFour = responseEntity.content().get(4);
         assertNotNull(PropertyFour);
         assertNotNull(PropertyFour.id());
 
@@ -103,17 +94,31 @@ public class PropertyServiceTest {
         assertEquals("address 4", PropertyFour.address());
         assertEquals("description 4", PropertyFour.description());
         assertEquals(new BigDecimal(4), PropertyFour.price());
+    }
+
+    @Test
+    void findPropertiesPageFromCursor() {
+        List<PropertyRow> lastPage = input.mockRowList().subList(10, 14);
+        PropertyRow cursorRow = input.mockRow(9);
+        String cursor = PropertyCursor.after(cursorRow, EnumPropertySort.PRICE).encode();
+
+        when(propertyRepository.findPage(eq(PropertyFilter.empty()), eq(EnumPropertySort.PRICE), any(PropertyCursor.class), eq(11))).thenReturn(lastPage);
+
+        CursorPage<PropertyResponse> responseEntity = propertyService.findPropertiesPage(PropertyFilter.empty(), EnumPropertySort.PRICE, cursor, 10);
 
-        var PropertySeven = responseEntity.get(7);
-        Owner OwnerSeven = input.mockOwner(7);
-        assertNotNull(PropertySeven);
-        assertNotNull(PropertySeven.id());
+        assertFalse(responseEntity.hasNext());
+        ArgumentCaptor<PropertyCursor> captor = ArgumentCaptor.forClass(PropertyCursor.class);
+        verify(propertyRepository).findPage(eq(PropertyFilter.empty()), eq(EnumPropertySort.PRICE), captor.capture(), eq(11));
+        assertEquals(cursorRow.id(), captor.getValue().id());
+        assertEquals(cursorRow.price(), captor.getValue().price());
+    }
+
+    @Test
+    void findPropertiesPageRejectsCursorOfOtherSort() {
+        String cursor = PropertyCursor.after(input.mockRow(1), EnumPropertySort.PRICE).encode();
 
-        assertEquals("title 7", PropertySeven.title());
-        assertEquals(EnumProperty.AVAILABLE, PropertySeven.status());
-        assertEquals("address 7", PropertySeven.address());
-        assertEquals("description 7", PropertySeven.description());
-        assertEquals(new BigDecimal(7), PropertySeven.price());
+        assertThrows(InvalidRequestException.class,
+                () -> propertyService.findPropertiesPage(PropertyFilter.empty(), EnumPropertySort.RECENT, cursor, 10));
     }
 
     @Test
@@ -252,10 +257,9 @@ public class PropertyServiceTest {
                 )
                 .toList();
 
-        when(propertyRepository.findByTitleContainingIgnoreCase(queryName)).thenReturn(properties);
-        when(propertyMapper.toResponseList(properties)).thenReturn(propertyResponses);
+        when(propertyRepository.findResponsesByTitle(queryName, Limit.of(20))).thenReturn(propertyResponses);
 
-        List<PropertyResponse> responseEntity = propertyService.queryPropertyByName(queryName);
+        List<PropertyResponse> responseEntity = propertyService.queryPropertyByName(queryName, EnumSearchMode.CONTAINS, 20);
 
         assertNotNull(responseEntity);
 
@@ -269,5 +273,22 @@ public class PropertyServiceTest {
         assertEquals(new BigDecimal(1), resultData.price());
     }
 
+    @Test
+    void queryPropertiesBySimilarity() {
+        List<Property> properties = input.mockEntityList().subList(0, 5);
+
+        when(propertyRepository.searchBySimilarity("titel", 5)).thenReturn(properties);
+        when(propertyMapper.toResponseList(properties)).thenReturn(List.of());
 
+        propertyService.queryPropertyByName(" titel ", EnumSearchMode.FUZZY, 5);
+
+        verify(propertyRepository, times(1)).searchBySimilarity("titel", 5);
+        verify(propertyRepository, never()).findResponsesByTitle(any(), any());
+    }
+
+    @Test
+    void queryPropertiesRejectsLimitAboveCap() {
+        assertThrows(InvalidRequestException.class,
+                () -> propertyService.queryPropertyByName("title", EnumSearchMode.FUZZY, PropertyService.MAX_SEARCH_LIMIT + 1));
+    }
 }
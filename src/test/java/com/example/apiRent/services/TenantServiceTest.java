@@ -60,8 +60,7 @@ public class TenantServiceTest {
                         tenant.getRole()))
                 .toList();
 
-        when(tenantRepository.findAll()).thenReturn(mockEntityList);
-        when(tenantMapper.toResponseList(mockEntityList)).thenReturn(mockDtoList);
+        when(tenantRepository.findAllResponses()).thenReturn(mockDtoList);
 
 
         List<TenantResponse> responseEntity = tenantService.findAllTenants();
@@ -199,8 +198,7 @@ public class TenantServiceTest {
                 .map(tenant -> new TenantResponse(tenant.getId(), tenant.getName(), tenant.getEmail(), tenant.getRole()))
                 .toList();
 
-        when(tenantRepository.findByNameContainingIgnoreCase(searchName)).thenReturn(mockEntityList);
-        when(tenantMapper.toResponseList(mockEntityList)).thenReturn(mockDtoList);
+        when(tenantRepository.findResponsesByName(searchName)).thenReturn(mockDtoList);
 
         List<TenantResponse> responseEntity = tenantService.queryName(searchName);
 
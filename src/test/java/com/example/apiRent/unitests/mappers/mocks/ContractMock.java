@@ -2,6 +2,7 @@ package com.example.apiRent.unitests.mappers.mocks;
 
 import com.example.apiRent.dtos.contract.ContractRequest;
 import com.example.apiRent.dtos.contract.ContractResponse;
+import com.example.apiRent.dtos.contract.ContractRow;
 import com.example.apiRent.dtos.owner.OwnerResponse;
 import com.example.apiRent.dtos.property.PropertyRequest;
 import com.example.apiRent.dtos.property.PropertyResponse;
@@ -159,4 +160,28 @@ public class ContractMock {
                 owner
         );
     }
+
+    public List<ContractRow> mockRowList() {
+        List<ContractRow> rows = new ArrayList<>();
+        for (int i = 0; i < 14; i++) {
+            rows.add(mockRow(i));
+        }
+        return rows;
+    }
+
+    public ContractRow mockRow(Integer number) {
+        OwnerResponse owner = mockOwnerResponse(1);
+        TenantResponse tenant = mockTenantResponse(1);
+        PropertyResponse property = mockPropertyResponse(number);
+        return new ContractRow(
+                new UUID(0L, number + 1L),
+                LocalDate.of(2025, 1, 1).minusMonths(number),
+                null,
+                new BigDecimal(number),
+                EnumContract.ACTIVE,
+                property.id(), property.title(), property.description(), property.address(), property.price(), property.status(),
+                tenant.id(), tenant.name(), tenant.email(), tenant.role(),
+                owner.id(), owner.name(), owner.role(), owner.email()
+        );
+    }
 }
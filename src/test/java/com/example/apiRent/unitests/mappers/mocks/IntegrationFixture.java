@@ -0,0 +1,97 @@
+package com.example.apiRent.unitests.mappers.mocks;
+
+import com.example.apiRent.enums.EnumContract;
+import com.example.apiRent.enums.EnumPayment;
+import com.example.apiRent.enums.EnumProperty;
+import com.example.apiRent.enums.EnumUser;
+import com.example.apiRent.models.Contract;
+import com.example.apiRent.models.Owner;
+import com.example.apiRent.models.Payment;
+import com.example.apiRent.models.Property;
+import com.example.apiRent.models.Tenant;
+import jakarta.persistence.EntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Persists the owners, tenants, properties, contracts and payments the integration tests start from, through
+ * the caller's {@link EntityManager} and so in the caller's transaction. Emails get a random suffix, so the
+ * rows never collide with those other tests leave behind.
+ */
+public class IntegrationFixture {
+
+    private final EntityManager entityManager;
+
+    public IntegrationFixture(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public Owner owner(String name) {
+        Owner owner = new Owner();
+        owner.setName(name);
+        owner.setEmail("owner-" + UUID.randomUUID() + "@test.com");
+        owner.setRole(EnumUser.LOCATOR);
+        entityManager.persist(owner);
+        return owner;
+    }
+
+    public Tenant tenant(String name) {
+        Tenant tenant = new Tenant();
+        tenant.setName(name);
+        tenant.setEmail("tenant-" + UUID.randomUUID() + "@test.com");
+        tenant.setRole(EnumUser.TENANT);
+        entityManager.persist(tenant);
+        return tenant;
+    }
+
+    public Property property(Owner owner, String title, BigDecimal price, EnumProperty status) {
+        Property property = new Property();
+        property.setTitle(title);
+        property.setDescription("description");
+        property.setAddress("address");
+        property.setPrice(price);
+        property.setStatus(status);
+        property.setOwner(owner);
+        entityManager.persist(property);
+        return property;
+    }
+
+    /**
+     * A contract on a stored schedule at the property's price.
+     */
+    public Contract contract(Owner owner, Tenant tenant, Property property, LocalDate start, LocalDate end, EnumContract status) {
+        Contract contract = new Contract();
+        contract.setStart_date(start);
+        contract.setEnd_date(end);
+        contract.setMonthly_value(property.getPrice());
+        contract.setStatus(status);
+        contract.setOwner(owner);
+        contract.setTenant(tenant);
+        contract.setProperty(property);
+        entityManager.persist(contract);
+        return contract;
+    }
+
+    /**
+     * An active contract between a new owner and tenant on a new rented property, all named after {@code name}:
+     * the property takes it as its title, the owner and tenant as "{@code name} owner" and "{@code name} tenant".
+     */
+    public Contract lease(String name, LocalDate start, LocalDate end, BigDecimal monthlyValue) {
+        Owner owner = owner(name + " owner");
+        Tenant tenant = tenant(name + " tenant");
+        Property property = property(owner, name, monthlyValue, EnumProperty.RENTED);
+        return contract(owner, tenant, property, start, end, EnumContract.ACTIVE);
+    }
+
+    public Payment payment(Contract contract, LocalDate dueDate, EnumPayment status) {
+        Payment payment = new Payment();
+        payment.setContract(contract);
+        payment.setAmount(contract.getMonthly_value());
+        payment.setDue_date(dueDate);
+        payment.setStatus(status);
+        entityManager.persist(payment);
+        return payment;
+    }
+}
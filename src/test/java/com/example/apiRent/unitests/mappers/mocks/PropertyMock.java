@@ -2,12 +2,14 @@ package com.example.apiRent.unitests.mappers.mocks;
 
 import com.example.apiRent.dtos.owner.OwnerRequest;
 import com.example.apiRent.dtos.property.PropertyRequest;
+import com.example.apiRent.dtos.property.PropertyRow;
 import com.example.apiRent.enums.EnumProperty;
 import com.example.apiRent.enums.EnumUser;
 import com.example.apiRent.models.Owner;
 import com.example.apiRent.models.Property;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -30,6 +32,27 @@ public class PropertyMock {
         return properties;
     }
 
+    public List<PropertyRow> mockRowList() {
+        List<PropertyRow> rows = new ArrayList<>();
+        for(int i = 0; i < 14; i++) {
+            rows.add(mockRow(i));
+        }
+        return rows;
+    }
+
+    public PropertyRow mockRow(Integer number) {
+        Property property = mockEntity(number);
+        return new PropertyRow(
+                property.getId(),
+                property.getTitle(),
+                property.getDescription(),
+                property.getAddress(),
+                property.getPrice(),
+                property.getStatus(),
+                LocalDateTime.of(2025, 1, 1, 0, 0).plusHours(number)
+        );
+    }
+
     public Owner mockOwner(Integer number) {
         Owner owner = new Owner();
         String uuidSeed = "owner-" + number;